@@ -0,0 +1,123 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import nbt.exception.NBTException;
+import nbt.stream.NBTBufferOutput;
+import nbt.value.NBTValue;
+import nbt.value.collection.NBTArray;
+import nbt.value.collection.NBTObject;
+import nbt.value.collection.NBTTag;
+import nbt.value.number.NBTInt;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures decoding and encoding of binary NBT.
+ * 
+ * @author prgmTrouble
+ * @author AzureTriple
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5,time = 1)
+@Measurement(iterations = 5,time = 1)
+@Fork(1)
+public class BinaryBenchmark {
+    @Param({"1.12.nbt","1.16.dat_old",Fixtures.SYNTHETIC})
+    public String fixture;
+    
+    /**A compressed file containing the fixture.*/
+    private File file;
+    /**The uncompressed binary fixture.*/
+    private byte[] raw;
+    private NBTObject tree;
+    /**A lazily read copy of the fixture with every value decoded and one entry added to the root.*/
+    private NBTObject patched;
+    private final ByteArrayOutputStream sink = new ByteArrayOutputStream(1 << 20);
+    private final Fixtures.NullChannel channel = new Fixtures.NullChannel();
+    
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        tree = Fixtures.tree(fixture);
+        if(fixture.equals(Fixtures.SYNTHETIC)) {
+            file = File.createTempFile("prgmNBT",".dat");
+            tree.write(file,true);
+        } else file = Fixtures.file(fixture);
+        raw = Fixtures.bytes(file,true);
+        decode(patched = NBTObject.lazy(raw));
+        patched.set("prgmNBT",new NBTInt(1));
+    }
+    private static void decode(final NBTValue v) {
+        if(v instanceof NBTObject o) for(final NBTTag t : o) decode(t.value());
+        else if(v instanceof NBTArray a) for(final NBTValue e : a) decode(e);
+    }
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if(fixture.equals(Fixtures.SYNTHETIC)) file.delete();
+    }
+    
+    /**Decodes a compressed file, including decompression.*/
+    @Benchmark
+    public NBTObject decodeFile() throws IOException,NBTException {return new NBTObject(file,true);}
+    /**Decodes uncompressed binary from memory.*/
+    @Benchmark
+    public NBTObject decodeBytes() throws IOException,NBTException {
+        return new NBTObject(NBTObject.readHeader(new DataInputStream(new ByteArrayInputStream(raw))));
+    }
+    /**Decodes uncompressed binary from memory into a read-only tree with shared small values.*/
+    @Benchmark
+    public NBTObject decodeReadOnly() throws IOException,NBTException {
+        return NBTObject.readOnly(NBTObject.readHeader(new DataInputStream(new ByteArrayInputStream(raw))));
+    }
+    /**Reads uncompressed binary lazily and encodes it again without decoding any nested values.*/
+    @Benchmark
+    public int lazyRoundTrip() throws IOException,NBTException {
+        sink.reset();
+        final DataOutputStream out = new DataOutputStream(sink);
+        NBTObject.lazy(raw).write(NBTObject.writeHeader(out));
+        out.flush();
+        return sink.size();
+    }
+    /**Encodes a patched lazy tree, whose unmodified values are copied from the buffer.*/
+    @Benchmark
+    public int patchedEncode() throws IOException {
+        sink.reset();
+        final DataOutputStream out = new DataOutputStream(sink);
+        patched.write(NBTObject.writeHeader(out));
+        out.flush();
+        return sink.size();
+    }
+    /**Encodes to memory through a {@linkplain DataOutputStream}.*/
+    @Benchmark
+    public int encode() throws IOException {
+        sink.reset();
+        final DataOutputStream out = new DataOutputStream(sink);
+        tree.write(NBTObject.writeHeader(out));
+        out.flush();
+        return sink.size();
+    }
+    /**Encodes through an {@linkplain NBTBufferOutput} to a channel which discards its input.*/
+    @Benchmark
+    public void encodeBuffer() throws IOException {
+        try(final NBTBufferOutput out = new NBTBufferOutput(channel)) {tree.write(NBTObject.writeHeader(out));}
+    }
+}
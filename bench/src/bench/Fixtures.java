@@ -0,0 +1,136 @@
+package bench;
+
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import nbt.exception.NBTException;
+import nbt.value.NBTString;
+import nbt.value.collection.NBTArray;
+import nbt.value.collection.NBTDoubleList;
+import nbt.value.collection.NBTIntArray;
+import nbt.value.collection.NBTLongArray;
+import nbt.value.collection.NBTObject;
+import nbt.value.number.NBTByte;
+import nbt.value.number.NBTInt;
+import nbt.value.number.NBTLong;
+import util.string.Sequence;
+
+/**
+ * Shared inputs for the benchmarks. The committed fixtures are resolved against
+ * the directory in the <code>prgmNBT.fixtures</code> system property, which
+ * defaults to the parent of the working directory.
+ * 
+ * @author prgmTrouble
+ * @author AzureTriple
+ */
+public final class Fixtures {
+    private Fixtures() {}
+    
+    /**The name of the generated fixture in benchmark parameters.*/
+    public static final String SYNTHETIC = "synthetic";
+    /**The number of entities in the generated tree.*/
+    public static final int SYNTHETIC_ENTITIES = 2048;
+    
+    /**@return The committed fixture with the specified name.*/
+    public static File file(final String name) {
+        return new File(System.getProperty("prgmNBT.fixtures",".."),name);
+    }
+    /**@return The decompressed contents of a binary fixture.*/
+    public static byte[] bytes(final File f,final boolean compressed) throws IOException {
+        try(final InputStream in = compressed? new GZIPInputStream(new FileInputStream(f)) : new FileInputStream(f)) {
+            return in.readAllBytes();
+        }
+    }
+    /**@return The contents of a text fixture.*/
+    public static Sequence text(final File f) throws IOException {
+        return new Sequence(new String(Files.readAllBytes(f.toPath()),StandardCharsets.UTF_8));
+    }
+    
+    private static NBTString key(final String k) {return NBTString.unescaped(new Sequence(k));}
+    /**
+     * Generates a tree resembling a chunk's entity list, with nested objects,
+     * specialised lists, primitive arrays and short string values.
+     * 
+     * @param entities The number of entities.
+     * 
+     * @throws NBTException The tree could not be built.
+     */
+    public static NBTObject synthetic(final int entities) throws NBTException {
+        final Random r = new Random(0x5EED);
+        final NBTArray list = new NBTArray();
+        for(int i = 0;i < entities;++i) {
+            final NBTObject e = new NBTObject();
+            e.set(key("id"),key("minecraft:entity_" + r.nextInt(64)));
+            e.set(key("UUID"),new NBTIntArray().addAll(r.nextInt(),r.nextInt(),r.nextInt(),r.nextInt()));
+            e.set(key("Pos"),new NBTDoubleList().addDouble(r.nextDouble() * 512.0)
+                                                .addDouble(r.nextDouble() * 256.0)
+                                                .addDouble(r.nextDouble() * 512.0));
+            e.set(key("OnGround"),new NBTByte(r.nextInt(2)));
+            e.set(key("Air"),new NBTInt(r.nextInt(300)));
+            e.set(key("LastUpdate"),new NBTLong(r.nextLong()));
+            final long[] states = new long[64];
+            for(int j = 0;j < states.length;++j) states[j] = r.nextLong();
+            e.set(key("BlockStates"),new NBTLongArray().addAll(states));
+            final NBTObject tags = new NBTObject();
+            for(int j = r.nextInt(8);j > 0;--j) tags.set(key("tag" + j),key("value" + r.nextInt()));
+            e.set(key("Tags"),tags);
+            list.add(e);
+        }
+        final NBTObject root = new NBTObject();
+        root.set(key("DataVersion"),new NBTInt(2586));
+        root.set(key("Entities"),list);
+        return root;
+    }
+    
+    /**
+     * Generates a JSON document with nested objects and arrays.
+     * 
+     * @param entries The number of entries in the top-level array.
+     */
+    public static Sequence syntheticJSON(final int entries) {
+        final Random r = new Random(0x5EED);
+        final StringBuilder sb = new StringBuilder("{\"entries\":[");
+        for(int i = 0;i < entries;++i) {
+            if(i != 0) sb.append(',');
+            sb.append("{\"id\":").append(i)
+              .append(",\"name\":\"entry ").append(r.nextInt()).append('"')
+              .append(",\"enabled\":").append(r.nextBoolean())
+              .append(",\"weight\":").append(r.nextDouble())
+              .append(",\"tags\":[\"a\",\"b\",null],\"nested\":{\"x\":")
+              .append(r.nextInt(1000)).append(",\"y\":").append(r.nextInt(1000)).append("}}");
+        }
+        return new Sequence(sb.append("]}").toString());
+    }
+    
+    /**@return The value with the specified fixture name, which is either a binary fixture or {@value #SYNTHETIC}.*/
+    public static NBTObject tree(final String fixture) throws Exception {
+        return fixture.equals(SYNTHETIC)? synthetic(SYNTHETIC_ENTITIES) : new NBTObject(file(fixture),true);
+    }
+    
+    /**A channel which discards everything written to it.*/
+    public static final class NullChannel implements GatheringByteChannel {
+        private static long discard(final ByteBuffer b) {
+            final int n = b.remaining();
+            b.position(b.limit());
+            return n;
+        }
+        @Override public int write(final ByteBuffer src) {return (int)discard(src);}
+        @Override
+        public long write(final ByteBuffer[] srcs,final int offset,final int length) {
+            long n = 0L;
+            for(int i = offset;i < offset + length;++i) n += discard(srcs[i]);
+            return n;
+        }
+        @Override public long write(final ByteBuffer[] srcs) {return write(srcs,0,srcs.length);}
+        @Override public boolean isOpen() {return true;}
+        @Override public void close() {}
+    }
+}
@@ -0,0 +1,44 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+
+import json.JSON;
+import json.exception.JSONParsingException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import util.string.Sequence;
+
+/**
+ * Measures parsing of generated JSON documents.
+ * 
+ * @author prgmTrouble
+ * @author AzureTriple
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5,time = 1)
+@Measurement(iterations = 5,time = 1)
+@Fork(1)
+public class JSONBenchmark {
+    /**The number of entries in the generated document.*/
+    @Param({"16","4096"})
+    public int entries;
+    
+    private Sequence json;
+    
+    @Setup(Level.Trial)
+    public void setup() {json = Fixtures.syntheticJSON(entries);}
+    
+    @Benchmark public JSON parse() throws JSONParsingException {return JSON.parse(json);}
+}
@@ -0,0 +1,25 @@
+package bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the GC profiler attached, so that allocation rates
+ * are reported alongside throughput. Arguments are passed to JMH, for example
+ * <code>BinaryBenchmark -p fixture=synthetic</code>.
+ * 
+ * @author prgmTrouble
+ * @author AzureTriple
+ */
+public class Main {
+    public static void main(final String[] args) throws Exception {
+        new Runner(
+            new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build()
+        ).run();
+    }
+}
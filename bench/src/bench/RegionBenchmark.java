@@ -0,0 +1,55 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+
+import java.io.IOException;
+import nbt.exception.NBTException;
+import nbt.region.RegionFile;
+import nbt.value.collection.NBTObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures decoding every chunk in a region, both sequentially and in parallel.
+ * 
+ * @author prgmTrouble
+ * @author AzureTriple
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3,time = 2)
+@Measurement(iterations = 5,time = 2)
+@Fork(1)
+public class RegionBenchmark {
+    @Param({"r.0.0.mca","r.-1.-1.mca"})
+    public String fixture;
+    
+    private RegionFile region;
+    
+    @Setup(Level.Trial)
+    public void setup() throws IOException,NBTException {region = new RegionFile(Fixtures.file(fixture));}
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {region.close();}
+    
+    @Benchmark
+    public void sequential(final Blackhole bh) throws IOException,NBTException {
+        for(int z = 0;z < RegionFile.WIDTH;++z)
+            for(int x = 0;x < RegionFile.WIDTH;++x)
+                bh.consume(region.chunk(x,z));
+    }
+    @Benchmark
+    public NBTObject[] parallel() throws IOException,NBTException,InterruptedException {return region.readAll();}
+}
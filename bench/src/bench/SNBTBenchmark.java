@@ -0,0 +1,78 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+
+import java.io.IOException;
+import nbt.Dialect;
+import nbt.NBT;
+import nbt.exception.NBTParsingException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import settings.Version;
+import util.string.Sequence;
+
+/**
+ * Measures parsing and printing of SNBT. Binary fixtures are converted to SNBT
+ * during setup.
+ * 
+ * @author prgmTrouble
+ * @author AzureTriple
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5,time = 1)
+@Measurement(iterations = 5,time = 1)
+@Fork(1)
+public class SNBTBenchmark {
+    /**
+     * The dialect used by every benchmark. It is passed explicitly because JMH
+     * runs the benchmarks on its own threads, which do not see a dialect bound
+     * during setup.
+     */
+    private static final Dialect DIALECT = Dialect.of(Version.v19w08a);
+    
+    // 1.16.dat_old is not included because its strings contain section signs,
+    // which are printed as-is but rejected by the parser.
+    @Param({"test.txt","test2.txt","1.12.nbt",Fixtures.SYNTHETIC})
+    public String fixture;
+    
+    private Sequence snbt;
+    private NBT tree;
+    
+    @Setup(Level.Trial)
+    @SuppressWarnings("try")
+    public void setup() throws Exception {
+        try(final Dialect.Scope scope = DIALECT.bind()) {
+            if(fixture.endsWith(".txt")) tree = NBT.parse(snbt = Fixtures.text(Fixtures.file(fixture)));
+            else snbt = (tree = Fixtures.tree(fixture)).toSequence();
+        }
+    }
+    
+    @Benchmark public NBT parse() throws NBTParsingException {return NBT.parse(snbt,DIALECT);}
+    @Benchmark public Sequence toSequence() {return tree.toSequence(DIALECT);}
+    @Benchmark
+    public StringBuilder appendSNBT() throws IOException {
+        return tree.appendSNBT(new StringBuilder(snbt.length()),DIALECT);
+    }
+    @Benchmark
+    @SuppressWarnings("try")
+    public Sequence toSegment() {
+        try(final Dialect.Scope scope = DIALECT.bind()) {return tree.toSegment().concat();}
+    }
+    @Benchmark
+    @SuppressWarnings("try")
+    public StringBuilder writeOutline() throws IOException {
+        try(final Dialect.Scope scope = DIALECT.bind()) {return tree.writeOutline(new StringBuilder(snbt.length()));}
+    }
+}
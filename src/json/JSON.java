@@ -2,12 +2,16 @@ package json;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
 import json.exception.JSONParsingException;
 import json.value.JSONValue;
 import json.value.collection.JSONTag;
 import util.string.Sequence;
 import util.string.Sequence.SequenceFileIterator;
 import util.string.Sequence.SequenceIterator;
+import util.string.Sequence.SequenceStreamIterator;
 import util.string.Stringifiable;
 
 /**
@@ -23,9 +27,9 @@ public abstract class JSON implements Stringifiable {
     @Override public String toString() {return toSequence().toString();}
     
     private static JSON parse(final SequenceIterator i) throws JSONParsingException {
-        if(i.skipWS() == null)
+        if(i.skipWSChar() == SequenceIterator.EOF)
             throw new JSONParsingException("Cannot parse empty sequence.");
-        return i.peek() == '"'? JSONTag.parseUnknown(i)
+        return i.peekChar() == '"'? JSONTag.parseUnknown(i)
                               : JSONValue.parseNotString(i,null,false);
     }
     /**
@@ -41,18 +45,43 @@ public abstract class JSON implements Stringifiable {
         return parse(s.iterator());
     }
     /**
-     * Parses an arbitrary JSON sequence from a text file.
+     * Parses an arbitrary JSON sequence from a UTF-16 (big-endian) text file. The
+     * file is memory-mapped rather than read into memory.
      * 
      * @throws JSONParsingException The sequence is not a valid JSON structure.
      * @throws IOException          The file is too large
-     *                              <code>(f.length() >= 2^32)</code> or could not
-     *                              be read.
+     *                              <code>(f.length() >= 2^32)</code>, has an odd
+     *                              number of bytes, or could not be read.
      * @throws NullPointerException The input is <code>null</code>.
+     * 
+     * @see #parse(Path,Charset)
      */
     public static JSON parse(final File f) throws JSONParsingException,IOException,
                                                   NullPointerException {
         if(f == null)
             throw new NullPointerException("File is null.");
-        return parse(new SequenceFileIterator(f));
+        try(final SequenceFileIterator i = new SequenceFileIterator(f)) {return parse(i);}
+        catch(final UncheckedIOException e) {throw e.getCause();}
+    }
+    /**
+     * Parses an arbitrary JSON sequence from a text file in the specified
+     * charset. The file is decoded in chunks as it is parsed, so it is never held
+     * in memory in its entirety.
+     * 
+     * @throws JSONParsingException The sequence is not a valid JSON structure.
+     * @throws IOException          The file could not be read or is not valid in
+     *                              the charset.
+     * @throws NullPointerException The path or charset is <code>null</code>.
+     * 
+     * @see #parse(File)
+     */
+    public static JSON parse(final Path path,final Charset charset) throws JSONParsingException,IOException,
+                                                                           NullPointerException {
+        if(path == null)
+            throw new NullPointerException("Path is null.");
+        if(charset == null)
+            throw new NullPointerException("Charset is null.");
+        try(final SequenceStreamIterator i = new SequenceStreamIterator(path,charset)) {return parse(i);}
+        catch(final UncheckedIOException e) {throw e.getCause();}
     }
 }
\ No newline at end of file
@@ -72,24 +72,24 @@ public class JSONBool extends JSONValue {
                                  final Character terminator,
                                  final boolean commas)
                                  throws JSONParsingException {
-        final boolean parity = switch(i.peek()) {
+        final boolean parity = switch(i.peekChar()) {
             case 't' -> true;
             case 'f' -> false;
             default -> throw new JSONParsingException(
                 "Invalid boolean character '%c' ('\\u%04X')"
-                .formatted(i.peek(),(int)i.peek()),i
+                .formatted(SequenceIterator.boxed(i.peekChar()),i.peekChar()),i
             );
         };
         final SequenceIterator match = (parity? TRUE : FALSE).iterator();
-        match.next();
+        match.nextChar();
         while(match.hasNext())
-            if(match.next() != i.next())
+            if(match.nextChar() != i.nextChar())
                 throw new JSONParsingException(
                     "Invalid boolean character '%c' ('\\u%04X')"
-                    .formatted(i.peek(),(int)i.peek()),i
+                    .formatted(SequenceIterator.boxed(i.peekChar()),i.peekChar()),i
                 );
-        final Character c = i.nextNonWS();
-        if(!(commas && c == ',') && c != terminator)
+        final int c = i.nextNonWSChar();
+        if(!SequenceIterator.terminates(c,terminator,commas))
             throw new JSONParsingException("boolean",i,terminator,commas,c);
         return new JSONBool(parity);
     }
@@ -45,14 +45,17 @@ public final class JSONNull extends JSONValue {
                                  final boolean commas)
                                  throws JSONParsingException {
         final SequenceIterator match = NULL_SEQUENCE.iterator();
-        for(Character c = i.peek();match.hasNext();c = i.next())
-            if(match.next() != c)
+        // Stop on the last character, as is done for booleans.
+        for(int c = i.peekChar();;c = i.nextChar()) {
+            if(match.nextChar() != c)
                 throw new JSONParsingException(
                     "Invalid null character '%c' ('\\u%04X')"
-                    .formatted(i.peek(),(int)i.peek()),i
+                    .formatted(SequenceIterator.boxed(i.peekChar()),i.peekChar()),i
                 );
-        final Character c = i.nextNonWS();
-        if(!(commas && c == ',') && c != terminator)
+            if(!match.hasNext()) break;
+        }
+        final int c = i.nextNonWSChar();
+        if(!SequenceIterator.terminates(c,terminator,commas))
             throw new JSONParsingException("null",i,terminator,commas,c);
         return INSTANCE;
     }
@@ -14,7 +14,7 @@ import util.string.Sequence.SequenceIterator;
  * @author prgmTrouble
  * @author AzureTriple
  */
-public class JSONString extends JSONValue {
+public class JSONString extends JSONValue implements Comparable<JSONString> {
     public static final ValueType TYPE = ValueType.STRING;
     @Override public ValueType type() {return TYPE;}
     
@@ -80,23 +80,29 @@ public class JSONString extends JSONValue {
                                         final boolean checkQuotes)
                                         throws JSONParsingException {
         {
-            final Character wrapper = i.skipWS();
-            if(wrapper == null) throw new JSONParsingException("Empty sequence",i);
+            // Unquoted values are used as they are, including any whitespace.
+            final int wrapper = checkQuotes? i.skipWSChar() : i.nextChar();
+            if(wrapper == SequenceIterator.EOF) {
+                if(checkQuotes) throw new JSONParsingException("Empty sequence",i);
+                return BLANK;
+            }
             i.mark();
             if(checkQuotes && wrapper != '"')
                 throw new JSONParsingException(
                     "Invalid wrapper character '%c' ('\\u%04X')"
-                    .formatted(wrapper,(int)wrapper),i
+                    .formatted(wrapper,wrapper),i
                 );
         }
-        if(!i.hasNext()) // Ensure that there are more characters.
+        if(checkQuotes && !i.hasNext()) // Ensure that there are more characters.
             throw new JSONParsingException("Missing ending quote",i);
         final Stack<Integer> chars = new Stack<>(),indices = new Stack<>();
         {
             boolean escaped = false;
             int unicode = 0;
-            char c = i.next();
-            while(i.hasNext()) {
+            // Stop at the end of the input rather than before the last character, so
+            // that the last character is checked and included.
+            for(int n = i.nextChar();n != SequenceIterator.EOF;n = i.nextChar()) {
+                final char c = (char)n;
                 // Eat unicode characters.
                 if(unicode != 0) { // Skip 4 hex characters.
                     if(!Sequence.allowUnicodeHex(c))
@@ -123,15 +129,13 @@ public class JSONString extends JSONValue {
                     indices.push(i.index());
                 } else if(!(escaped = c == '\\') && checkQuotes && c == '"')
                     break; // Break on checked un-escaped quotes.
-                // Ignore everything else.
-                c = i.next(); // Should never return null because of while condition.
             }
         }
         if(checkQuotes) {
-            if(i.peek() != '"')
+            if(i.peekChar() != '"')
                 throw new JSONParsingException("Missing ending quote",i);
             // Advance past quote.
-            i.next();
+            i.nextChar();
         }
         Sequence v = i.subSequence();
         if(escapeUnicode && chars.size() != 0) {
@@ -212,6 +216,13 @@ public class JSONString extends JSONValue {
     
     @Override public Sequence toSequence() {return value;}
     
+    @Override public int compareTo(final JSONString o) {return value.compareTo(o.value);}
+    @Override
+    public boolean equals(final Object obj) {
+        return obj == this || obj instanceof JSONString && value.equals(((JSONString)obj).value);
+    }
+    @Override public int hashCode() {return value.hashCode();}
+    
     /**
      * @param i          A {@linkplain SequenceIterator} which points to the
      *                   position just before the string sequence. Quotes are
@@ -230,8 +241,8 @@ public class JSONString extends JSONValue {
                                    final boolean commas) 
                                    throws JSONParsingException {
         final Sequence str = eatSequence(i,false,true);
-        final Character c = i.skipWS();
-        if(!(commas && c == ',') && c != terminator)
+        final int c = i.skipWSChar();
+        if(!SequenceIterator.terminates(c,terminator,commas))
             throw new JSONParsingException("string",i,terminator,commas,c);
         // Bypass constructor checks.
         final JSONString s = new JSONString();
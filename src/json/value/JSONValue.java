@@ -1,5 +1,6 @@
 package json.value;
 
+import java.io.IOException;
 import json.JSON;
 import json.exception.JSONConversionException;
 import json.exception.JSONException;
@@ -7,6 +8,7 @@ import json.exception.JSONParsingException;
 import json.value.collection.JSONArray;
 import json.value.collection.JSONObject;
 import util.string.Sequence.SequenceIterator;
+import util.string.outline.OutlineWriter;
 import util.string.outline.Segment;
 import util.string.outline.ValueSegment;
 
@@ -34,6 +36,7 @@ public abstract class JSONValue extends JSON {
     }
     
     @Override public Segment toSegment() {return new ValueSegment(toSequence());}
+    @Override public void outline(final OutlineWriter w) throws IOException {w.value(toSequence());}
     
     /**
      * Uses the iterator to parse the next value. The iterator's position following
@@ -54,9 +57,10 @@ public abstract class JSONValue extends JSON {
                                   final Character terminator,
                                   final boolean commas)
                                   throws JSONParsingException {
-        if(i.skipWS() == null)
+        final int first = i.skipWSChar();
+        if(first == SequenceIterator.EOF)
             throw new JSONParsingException("Cannot parse an empty value.");
-        final JSONValue v = switch(i.peek()) {
+        final JSONValue v = switch(first) {
             case 'n' -> JSONNull.parse(i,terminator,commas);
             case 't','f' -> JSONBool.parse(i,terminator,commas);
             case '"' -> JSONString.parse(i,terminator,commas);
@@ -66,11 +70,11 @@ public abstract class JSONValue extends JSON {
                  '4','5','6','7','8','9' -> JSONNumber.parse(i,terminator,commas);
             default -> throw new JSONParsingException(
                 "Invalid character '%c' ('\\u%04X')"
-                .formatted(i.peek()),i
+                .formatted(first,first),i
             );
         };
-        final Character c = i.skipWS();
-        if(!(commas && c == ',') && c != terminator)
+        final int c = i.skipWSChar();
+        if(!SequenceIterator.terminates(c,terminator,commas))
             throw new JSONParsingException("value",i,terminator,commas,c);
         return v;
     }
@@ -93,9 +97,10 @@ public abstract class JSONValue extends JSON {
                                            final Character terminator,
                                            final boolean commas)
                                            throws JSONParsingException {
-        if(i.skipWS() == null)
+        final int first = i.skipWSChar();
+        if(first == SequenceIterator.EOF)
             throw new JSONParsingException("Cannot parse an empty value.");
-        final JSONValue v = switch(i.peek()) {
+        final JSONValue v = switch(first) {
             case 'n' -> JSONNull.parse(i,terminator,commas);
             case 't','f' -> JSONBool.parse(i,terminator,commas);
             case '{' -> JSONObject.parse(i,terminator,commas);
@@ -105,11 +110,11 @@ public abstract class JSONValue extends JSON {
             case '"' -> throw new JSONParsingException("Invalid string",i);
             default -> throw new JSONParsingException(
                 "Invalid character '%c' ('\\u%04X')"
-                .formatted(i.peek()),i
+                .formatted(first,first),i
             );
         };
-        final Character c = i.skipWS();
-        if(!(commas && c == ',') && c != terminator)
+        final int c = i.skipWSChar();
+        if(!SequenceIterator.terminates(c,terminator,commas))
             throw new JSONParsingException("value",i,terminator,commas,c);
         return v;
     }
@@ -89,19 +89,21 @@ public class JSONArray extends JSONCollection<Integer,JSONValue> {
                                   final boolean commas)
                                   throws JSONParsingException {
         final JSONArray arr = new JSONArray();
-        i.nextNonWS();
-        while(i.hasNext()) {
-            arr.add(JSONValue.parse(i,CLOSE,true));
-            if(i.peek() == CLOSE) break;
-            i.nextNonWS();
-        }
-        if(i.peek() != CLOSE)
+        final int first = i.nextNonWSChar();
+        // Empty arrays have no elements to parse.
+        if(first != SequenceIterator.EOF && first != CLOSE)
+            while(i.hasNext()) {
+                arr.add(JSONValue.parse(i,CLOSE,true));
+                if(i.peekChar() == CLOSE) break;
+                i.nextNonWSChar();
+            }
+        if(i.peekChar() != CLOSE)
             throw new JSONParsingException(
                 "Missing closing character '%c'"
                 .formatted(CLOSE),i
             );
-        final Character c = i.nextNonWS();
-        if(!(commas && c == ',') && c != terminator)
+        final int c = i.nextNonWSChar();
+        if(!SequenceIterator.terminates(c,terminator,commas))
             throw new JSONParsingException("array",i,terminator,commas,c);
         return arr;
     }
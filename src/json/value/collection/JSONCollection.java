@@ -1,5 +1,6 @@
 package json.value.collection;
 
+import java.io.IOException;
 import json.JSON;
 import json.exception.JSONException;
 import json.exception.JSONParsingException;
@@ -8,6 +9,7 @@ import util.string.Joiner;
 import util.string.Sequence;
 import util.string.Sequence.SequenceIterator;
 import util.string.outline.JoiningSegment;
+import util.string.outline.OutlineWriter;
 import util.string.outline.Segment;
 import util.string.outline.WrappingSegment;
 
@@ -18,6 +20,9 @@ import util.string.outline.WrappingSegment;
  * @author AzureTriple
  */
 public abstract class JSONCollection<K,V extends JSON> extends JSONValue implements Iterable<V> {
+    /**The separator between children in an outline.*/
+    protected static final Sequence COMMA = new Sequence(',');
+    
     /**Creates a new collection.*/
     public JSONCollection() {super();}
     
@@ -49,23 +54,32 @@ public abstract class JSONCollection<K,V extends JSON> extends JSONValue impleme
     
     /**@return A segment containing the children in a stringified form.*/
     protected Segment getChildren() {
-        final JoiningSegment s = new JoiningSegment(new Sequence(',')); //TODO customization?
+        final JoiningSegment s = new JoiningSegment(COMMA); //TODO customization?
         for(final JSON n : this) s.push(n.toSegment());
         return s;
     }
     @Override public Segment toSegment() {return getWrapper().child(getChildren());}
+    @Override
+    public void outline(final OutlineWriter w) throws IOException {
+        getWrapper().open(w).join(COMMA);
+        for(final JSON n : this) n.outline(w);
+        w.end().end();
+    }
     
     protected static boolean testEmpty(final SequenceIterator i,
                                        final char close)
                                        throws JSONParsingException {
-        final Character c = i.nextNonWS();
+        final int c = i.nextNonWSChar();
         // Reached end without finding closing character.
-        if(c == null)
+        if(c == SequenceIterator.EOF)
             throw new JSONParsingException(
                 "Missing closing character '%c'"
                 .formatted(close),i
             );
-        // Closing character found.
-        return c == close;
+        // Closing character found. Advance past it, as is done for non-empty
+        // collections.
+        if(c != close) return false;
+        i.nextChar();
+        return true;
     }
 }
\ No newline at end of file
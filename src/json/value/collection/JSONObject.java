@@ -4,13 +4,14 @@ import java.util.Iterator;
 import java.util.Map.Entry;
 import java.util.TreeMap;
 
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
 import java.io.UncheckedIOException;
-import java.nio.ByteBuffer;
-import java.nio.CharBuffer;
-import java.nio.channels.FileChannel;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import json.exception.JSONException;
 import json.exception.JSONParsingException;
 import json.value.JSONNull;
@@ -125,13 +126,13 @@ public class JSONObject extends JSONCollection<JSONString,JSONTag> {
             // Bypass constructor checks.
             out.values.put(key,value);
             // Check for close.
-            if(i.peek() == CLOSE) {
+            if(i.peekChar() == CLOSE) {
                 // Advance past close.
-                i.next();
+                i.nextChar();
                 return out;
             }
             // Advance past the comma.
-            i.next();
+            i.nextChar();
         }
         // If hasNext() fails, then no closing character was found.
         throw new JSONParsingException("Missing closing character '%c'".formatted(CLOSE),i);
@@ -153,8 +154,8 @@ public class JSONObject extends JSONCollection<JSONString,JSONTag> {
                                   final boolean commas)
                                   throws JSONParsingException {
         final JSONObject out = parse(i);
-        final Character c = i.skipWS();
-        if(!(commas && c == ',') && c != terminator)
+        final int c = i.skipWSChar();
+        if(!SequenceIterator.terminates(c,terminator,commas))
             throw new JSONParsingException("object",i,terminator,commas,c);
         return out;
     }
@@ -169,24 +170,15 @@ public class JSONObject extends JSONCollection<JSONString,JSONTag> {
         catch(IOException|UncheckedIOException e) {throw new JSONException("Failed to read JSON from file.",e);}
     }
     /**
-     * Writes an object to a file.
+     * Writes an object's outline to a file in UTF-16BE. The outline is streamed
+     * to the file as it is produced.
      * 
      * @throws IOException       The file could not be written.
      * @throws SecurityException The security manager denied access.
      */
     public void write(final File f) throws IOException,SecurityException {
-        try(final FileOutputStream os = new FileOutputStream(f)) {
-            final ByteBuffer bb;
-            {
-                System.gc();
-                final CharBuffer cb = CharBuffer.wrap(toSegment().concat());
-                (bb = ByteBuffer.allocateDirect(cb.capacity())).asCharBuffer().put(cb);
-            }
-            System.gc();
-            final FileChannel fc = os.getChannel();
-            fc.lock();
-            fc.write(bb);
+        try(final Writer w = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(f),StandardCharsets.UTF_16BE))) {
+            writeOutline(w);
         }
-        System.gc();
     }
 }
\ No newline at end of file
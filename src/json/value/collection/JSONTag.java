@@ -1,5 +1,6 @@
 package json.value.collection;
 
+import java.io.IOException;
 import json.JSON;
 import json.exception.JSONParsingException;
 import json.value.JSONNull;
@@ -9,6 +10,7 @@ import util.string.Joiner;
 import util.string.Sequence;
 import util.string.Sequence.SequenceIterator;
 import util.string.outline.JoiningSegment;
+import util.string.outline.OutlineWriter;
 import util.string.outline.Segment;
 
 /**
@@ -60,6 +62,13 @@ public class JSONTag extends JSON {
                             .push(key.toSegment())
                             .push(value.toSegment());
     }
+    @Override
+    public void outline(final OutlineWriter w) throws IOException {
+        w.join(new Sequence(SEPARATOR));
+        key.outline(w);
+        value.outline(w);
+        w.end();
+    }
     
     /**
      * Strictly parses a tag.
@@ -76,20 +85,20 @@ public class JSONTag extends JSON {
      */
     public static JSON parseUnknown(final SequenceIterator i) throws JSONParsingException {
         final JSONString key = new JSONString(i);
-        if(i.skipWS() == null) return key;
+        if(i.skipWSChar() == SequenceIterator.EOF) return key;
         ensureValue(i);
         final JSONValue value = parseValue(i);
         return new JSONTag(key,value);
     }
     private static void ensureValue(final SequenceIterator i) throws JSONParsingException {
         // The key must be followed by a separator character to be a tag.
-        if(i.skipWS() != SEPARATOR)
+        if(i.skipWSChar() != SEPARATOR)
             throw new JSONParsingException(
                 "Missing separator character ('%c')"
                 .formatted(SEPARATOR),i
             );
         // Separator must be followed by something else.
-        if(i.nextNonWS() == null) throw new JSONParsingException("Missing value",i);
+        if(i.nextNonWSChar() == SequenceIterator.EOF) throw new JSONParsingException("Missing value",i);
     }
     
     /**
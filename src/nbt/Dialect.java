@@ -0,0 +1,160 @@
+package nbt;
+
+import settings.Settings;
+import settings.Version;
+
+/**
+ * The version-dependent rules used to parse, build, and stringify NBT. Dialects
+ * are immutable, so one dialect can be used by any number of threads at once.
+ * <p>
+ * The code that applies the rules uses the {@linkplain #current() current}
+ * dialect. It is the dialect {@linkplain #bind() bound} to the calling thread,
+ * or the dialect of {@linkplain Settings#version()} if no dialect is bound.
+ * Threads which bind different dialects can therefore work with NBT of
+ * different versions concurrently.
+ * 
+ * @author prgmTrouble
+ * @author AzureTriple
+ */
+public final class Dialect {
+    /**The version which this dialect models.*/
+    public final Version version;
+    
+    /**
+     * Causes arrays to attempt conversion on foreign types.
+     * 
+     * @see nbt.value.collection.NBTArray
+     */
+    public final boolean adoption;
+    /**
+     * Causes arrays to attempt conversion on all elements to a foreign type.
+     * 
+     * @see nbt.value.collection.NBTArray
+     */
+    public final boolean retroactiveAdoption;
+    /**
+     * Enables the loose syntax of versions before {@linkplain Version#v17w16a}:
+     * <ul>
+     * <li>Arrays allow a key followed by a colon to appear before elements, where
+     * the key can practically be anything that does not violate any rules with
+     * string or collection parsing. Additionally, empty elements are also allowed
+     * and elements which don't match the sub-type are simply ignored.
+     * <li>Quotes in keys are a part of the literal string.
+     * <li>Any sequence of characters ending at a top-level comma or closing
+     * character is an unwrapped string, in addition to the normal quoted strings.
+     * <li>Numbers do not have an exponent part.
+     * </ul>
+     */
+    public final boolean theWildWest;
+    /**Allows the parser to ignore an empty value at the end of a collection.*/
+    public final boolean trailingComma;
+    /**Enables primitive arrays.*/
+    public final boolean primitiveArrays;
+    /**Allows the primitive array token to have surrounding whitespace.*/
+    public final boolean tokenWhitespace;
+    /**Allows strings to be wrapped in single quotes.*/
+    public final boolean singleQuotes;
+    /**Enables parsing unicode escape sequences.*/
+    public final boolean unicode;
+    /**
+     * Enables replacing non-ASCII characters with unicode. Requires
+     * {@linkplain #unicode}.
+     */
+    public final boolean escapeUnicode;
+    /**Allows escape codes used in the Java specification.*/
+    public final boolean javaEscapes;
+    /**
+     * Before "The Flattening," the suffixes are required to ensure that lists are
+     * correct. However, no instances of 32-bit floats appear in SNBT outside of
+     * lists (as far as I can tell). For simplicity, this assumes that floats will
+     * always have suffixes in versions before the flattening.
+     */
+    public final boolean floatSuffix;
+    /**
+     * Causes booleans to output "<code>true</code>" or "<code>false</code>"
+     * instead of "<code>1b</code>" or "<code>0b</code>" when not minimal.
+     */
+    public final boolean booleanStrings;
+    
+    private Dialect(final Version version) {
+        this.version = version;
+        adoption = atLeast(Version.v13w36a);
+        retroactiveAdoption = atLeast(Version.unknown);
+        theWildWest = isBefore(Version.v17w16a);
+        trailingComma = atLeast(Version.v13w36a);
+        primitiveArrays = atLeast(Version.v17w16a);
+        tokenWhitespace = atLeast(Version.unknown);
+        singleQuotes = atLeast(Version.v19w08a);
+        // These are not in the game yet.
+        unicode = atLeast(Version.unknown);
+        escapeUnicode = unicode && atLeast(Version.unknown);
+        javaEscapes = atLeast(Version.unknown);
+        floatSuffix = atMost(Version.The_Flattening);
+        booleanStrings = atLeast(Version.unknown);
+    }
+    
+    /**@see Version#isAfter(Version)*/
+    public boolean isAfter(final Version version) {return version.ordinal() < this.version.ordinal();}
+    /**@see Version#atLeast(Version)*/
+    public boolean atLeast(final Version version) {return version.ordinal() <= this.version.ordinal();}
+    /**@see Version#atMost(Version)*/
+    public boolean atMost(final Version version) {return version.ordinal() >= this.version.ordinal();}
+    /**@see Version#isBefore(Version)*/
+    public boolean isBefore(final Version version) {return version.ordinal() > this.version.ordinal();}
+    
+    private static final Dialect[] DIALECTS;
+    static {
+        final Version[] v = Version.values();
+        DIALECTS = new Dialect[v.length];
+        for(int i = 0;i < v.length;++i) DIALECTS[i] = new Dialect(v[i]);
+    }
+    /**
+     * @return The dialect of the version.
+     * 
+     * @throws NullPointerException The version is <code>null</code>.
+     */
+    public static Dialect of(final Version version) throws NullPointerException {return DIALECTS[version.ordinal()];}
+    
+    private static final ThreadLocal<Dialect> BOUND = new ThreadLocal<>();
+    /**
+     * @return The dialect bound to the calling thread, or the dialect of
+     *         {@linkplain Settings#version()} if no dialect is bound.
+     */
+    public static Dialect current() {
+        final Dialect d = BOUND.get();
+        return d != null? d : of(Settings.version());
+    }
+    /**
+     * Binds this dialect to the calling thread until the returned scope is closed,
+     * which restores the previously bound dialect. Scopes must be closed in the
+     * reverse order of creation, which a <code>try</code>-with-resources
+     * statement guarantees.
+     * 
+     * @return The scope.
+     */
+    public Scope bind() {
+        final Scope s = new Scope(BOUND.get());
+        BOUND.set(this);
+        return s;
+    }
+    
+    /**
+     * A binding created by {@linkplain Dialect#bind()}.
+     * 
+     * @author prgmTrouble
+     * @author AzureTriple
+     */
+    public static final class Scope implements AutoCloseable {
+        private final Dialect previous;
+        private Scope(final Dialect previous) {this.previous = previous;}
+        
+        /**Restores the dialect which was bound when this scope was created.*/
+        @Override
+        public void close() {
+            if(previous == null) BOUND.remove();
+            else BOUND.set(previous);
+        }
+    }
+    
+    @Override public String toString() {return version.toString();}
+}
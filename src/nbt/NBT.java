@@ -2,8 +2,7 @@ package nbt;
 
 import java.io.DataOutput;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
+import java.io.UncheckedIOException;
 import java.nio.file.Path;
 import nbt.exception.NBTParsingException;
 import nbt.value.NBTString;
@@ -13,6 +12,7 @@ import settings.Settings;
 import settings.Version;
 import util.string.Sequence;
 import util.string.Sequence.SequenceIterator;
+import util.string.Sequence.SequenceStreamIterator;
 import util.string.Stringifiable;
 
 /**
@@ -24,9 +24,14 @@ import util.string.Stringifiable;
 public abstract class NBT implements Stringifiable {
     /**
      * <code>true</code> if this NBT should be represented minimally, where
-     * possible.
+     * possible. This is only changed through
+     * {@linkplain #setDeepMinimal(boolean)}, which
+     * {@linkplain nbt.value.NBTValue#isShared() shared} values ignore since the
+     * same instance appears in every tree which uses it.
      */
-    public boolean minimal;
+    protected boolean minimal;
+    /**<code>true</code> iff this NBT was modified after it was created or read.*/
+    private boolean dirty = false;
     
     /**
      * Constructs an NBT with {@linkplain #minimal} set to
@@ -46,43 +51,94 @@ public abstract class NBT implements Stringifiable {
     /**@return <code>true</code> iff this NBT is equal to its default value.*/
     public abstract boolean isDefault();
     
+    /**@return {@linkplain #minimal}*/
+    public boolean isMinimal() {return minimal;}
     /**Sets this NBT and all of its children (if any) to the specified minimalism.*/
     public void setDeepMinimal(final boolean minimal) {this.minimal = minimal;}
     
+    /**
+     * @return <code>true</code> iff this NBT or any of its children (if any) were
+     *         modified after they were created or read.
+     */
+    public boolean isDirty() {return dirty;}
+    /**Marks this NBT as modified.*/
+    protected void markDirty() {dirty = true;}
+    /**Marks this NBT and all of its children (if any) as unmodified.*/
+    protected void markClean() {dirty = false;}
+    /**@see #markClean()*/
+    protected static void markClean(final NBT nbt) {nbt.markClean();}
+    
     @Override public String toString() {return toSequence().toString();}
+    /**
+     * Appends the SNBT representation of this NBT to an {@linkplain Appendable} in
+     * a single depth-first pass. The output is the same as that of
+     * {@linkplain #toSequence()}, but collections write their children directly
+     * instead of joining them into intermediate sequences.
+     * 
+     * @return <code>out</code>
+     * 
+     * @throws IOException The output could not be appended.
+     */
+    public <A extends Appendable> A appendSNBT(final A out) throws IOException {return toSequence().writeTo(out);}
+    /**
+     * Appends the SNBT representation of this NBT in the specified dialect.
+     * 
+     * @return <code>out</code>
+     * 
+     * @throws IOException The output could not be appended.
+     * 
+     * @see #appendSNBT(Appendable)
+     */
+    @SuppressWarnings("try")
+    public <A extends Appendable> A appendSNBT(final A out,final Dialect dialect) throws IOException {
+        try(final Dialect.Scope scope = dialect.bind()) {return appendSNBT(out);}
+    }
+    /**@return The SNBT representation of this NBT in the specified dialect.*/
+    @SuppressWarnings("try")
+    public Sequence toSequence(final Dialect dialect) {
+        try(final Dialect.Scope scope = dialect.bind()) {return toSequence();}
+    }
     
     /**
-     * Parses an arbitrary SNBT sequence using the parsing rules for the version
-     * {@linkplain Settings#version()}.
+     * Parses an arbitrary SNBT sequence using the parsing rules of the
+     * {@linkplain Dialect#current() current dialect}.
      * 
      * @throws NBTParsingException If the SNBT is invalid.
      * 
      * @see Version
      */
-    public static NBT parse(Sequence s) throws NBTParsingException {
-        if(s == null || (s = s.stripLeading()).isEmpty())
+    public static NBT parse(final Sequence s) throws NBTParsingException {
+        if(s == null || s.isEmpty()) throw new NBTParsingException("Cannot parse an empty sequence.");
+        return parse(s.iterator());
+    }
+    /**
+     * Parses an arbitrary SNBT sequence using the parsing rules of the specified
+     * dialect.
+     * 
+     * @throws NBTParsingException If the SNBT is invalid.
+     */
+    @SuppressWarnings("try")
+    public static NBT parse(final Sequence s,final Dialect dialect) throws NBTParsingException {
+        try(final Dialect.Scope scope = dialect.bind()) {return parse(s);}
+    }
+    private static NBT parse(final SequenceIterator i) throws NBTParsingException {
+        if(i.skipWSChar() == SequenceIterator.EOF)
             throw new NBTParsingException("Cannot parse an empty sequence.");
-        SequenceIterator i = s.iterator();
+        final int start = i.index();
         NBT value;
         NBTString k = null;
         
-        // Attempt to find a valid key.
-        try {k = NBTTag.parseKey(i);}
-        // If no valid key is found, then prepare to search for string value
-        // instead.
-        catch(final NBTParsingException e) {i.jumpTo(0);}
+        // Attempt to find a valid key. If no valid key is found, then prepare to
+        // search for a value instead.
+        if((k = NBTTag.tryParseKey(i)) == null) i.jumpTo(start);
         
         // Attempt to parse a value.
         final NBTValue v = NBTValue.parse(i,null,false);
         
         // Return a tag if successful.
         value = k == null? v : new NBTTag(k,v);
-        if(i.hasNext()) i.nextNonWS();
-        if(i.hasNext())
-            throw new NBTParsingException(
-                "Trailing data found",
-                i.index(),s
-            );
+        if(i.hasNext()) i.nextNonWSChar();
+        if(i.hasNext()) throw new NBTParsingException("Trailing data found",i);
         return value;
     }
     
@@ -109,35 +165,49 @@ public abstract class NBT implements Stringifiable {
         NBT value = null; final int start = i.index();
         NBTString k = null;
         
-        // Attempt to find a valid key.
-        try {k = NBTTag.parseKey(i);}
-        // If no valid key is found, then prepare to search for string value
-        // instead.
-        catch(final NBTParsingException e) {i.jumpTo(start);}
+        // Attempt to find a valid key. If no valid key is found, then prepare to
+        // search for a value instead.
+        if((k = NBTTag.tryParseKey(i)) == null) i.jumpTo(start);
         
         // Attempt to parse a value.
         final NBTValue v = NBTValue.parse(i,terminator,commas);
         
         // Return a tag if successful.
         value = k == null? v : new NBTTag(k,v);
-        final Character c = i.skipWS();
-        if(!(commas && c == ',') && c != terminator)
+        final int c = i.skipWSChar();
+        if(!SequenceIterator.terminates(c,terminator,commas))
             throw new NBTParsingException("generic value",i,terminator,commas,c);
         return value;
     }
     
     /**
-     * Parses a text file containing the nbt data.
+     * Parses a UTF-8 text file containing the nbt data. The file is decoded in
+     * chunks as it is parsed, so it is never held in memory in its entirety.
      * 
-     * @throws NBTParsingException If {@linkplain #parse(Sequence)} cannot parse the file's contents.
-     * @throws IOException If the file cannot be read.
-     * @throws OutOfMemoryError If the file is larger than 2GB.
+     * @throws NBTParsingException If the file's contents are not valid SNBT.
+     * @throws IOException If the file cannot be read or is not valid UTF-8.
      * @throws SecurityException If the security manager forbids access.
      * 
      * @see #parse(Sequence)
      */
     public static NBT parseSNBT(final Path path) throws NBTParsingException,IOException,
-                                                        OutOfMemoryError,SecurityException {
-        return parse(new Sequence(new String(Files.readAllBytes(path),StandardCharsets.UTF_8)));
+                                                        SecurityException {
+        try(final SequenceStreamIterator i = new SequenceStreamIterator(path)) {return parse(i);}
+        catch(final UncheckedIOException e) {throw e.getCause();}
+    }
+    /**
+     * Parses a UTF-8 text file containing the nbt data using the parsing rules of
+     * the specified dialect.
+     * 
+     * @throws NBTParsingException If the file's contents are not valid SNBT.
+     * @throws IOException If the file cannot be read or is not valid UTF-8.
+     * @throws SecurityException If the security manager forbids access.
+     * 
+     * @see #parseSNBT(Path)
+     */
+    @SuppressWarnings("try")
+    public static NBT parseSNBT(final Path path,final Dialect dialect) throws NBTParsingException,IOException,
+                                                                             SecurityException {
+        try(final Dialect.Scope scope = dialect.bind()) {return parseSNBT(path);}
     }
 }
\ No newline at end of file
@@ -1,11 +1,11 @@
 package nbt.exception;
 
-import settings.Settings;
+import nbt.Dialect;
 
 public class NBTException extends Exception {
     private static final long serialVersionUID = 1L;
     protected static String version(final String message) {
-        final String current = Settings.version().toString();
+        final String current = Dialect.current().toString();
         if(message == null) return current;
         return new StringBuilder(current).append(": ").append(message).toString();
     }
@@ -40,11 +40,11 @@ public class NBTParsingException extends NBTException {
      * @param data    The {@linkplain SequenceIterator} which caused the error.
      */
     public NBTParsingException(final String message,final SequenceIterator data) {
-        this(message,data.index(),data.getParent());
+        super(fmtParsing(message,data));
     }
     /**@see #NBTParsingException(String,SequenceIterator)*/
     public NBTParsingException(final String message,final SequenceIterator data,final Throwable t) {
-        this(message,data.index(),data.getParent(),t);
+        super(fmtParsing(message,data),t);
     }
     
     /**
@@ -77,6 +77,23 @@ public class NBTParsingException extends NBTException {
                                final Character terminator,
                                final boolean commas,
                                final Character c) {
-        super(fmtParsingTerminator(type,data.index(),data.getParent(),terminator,commas,c));
+        super(fmtParsingTerminator(type,data,terminator,commas,c));
+    }
+    /**
+     * A constructor meant for exceptions during parsing related to an invalid end
+     * of value.
+     * 
+     * @param data       The {@linkplain SequenceIterator} which caused the error.
+     * @param terminator The character expected to end the value.
+     * @param commas     <code>true</code> iff commas are allowed to end the value.
+     * @param c          The character which was found, or
+     *                   {@linkplain SequenceIterator#EOF}.
+     */
+    public NBTParsingException(final String type,
+                               final SequenceIterator data,
+                               final Character terminator,
+                               final boolean commas,
+                               final int c) {
+        this(type,data,terminator,commas,SequenceIterator.boxed(c));
     }
 }
\ No newline at end of file
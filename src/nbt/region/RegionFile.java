@@ -0,0 +1,341 @@
+package nbt.region;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.StandardOpenOption;
+import nbt.Dialect;
+import nbt.exception.NBTException;
+import nbt.stream.NBTSelector;
+import nbt.value.collection.NBTObject;
+
+/**
+ * A read-only view of an Anvil region file (<code>.mca</code>). The file is
+ * memory-mapped and its location and timestamp tables are read once, after
+ * which individual chunks are decompressed on demand.
+ * 
+ * @author prgmTrouble
+ * @author AzureTriple
+ */
+public class RegionFile implements AutoCloseable {
+    /**The size of a sector, in bytes.*/
+    public static final int SECTOR_SIZE = 4096;
+    /**The number of chunks along each axis of a region.*/
+    public static final int WIDTH = 32;
+    /**The number of chunks in a region.*/
+    public static final int CHUNKS = WIDTH * WIDTH;
+    
+    /**Compression type ids.*/
+    public static final byte GZIP = 1,ZLIB = 2,UNCOMPRESSED = 3;
+    /**Flag set in the compression type of chunks stored in external files.*/
+    public static final byte EXTERNAL = (byte)0x80;
+    
+    private final File file;
+    private final FileChannel channel;
+    private final MappedByteBuffer data;
+    private final int[] locations = new int[CHUNKS],
+                        timestamps = new int[CHUNKS];
+    
+    /**
+     * Opens a region file.
+     * 
+     * @throws IOException  The file could not be mapped.
+     * @throws NBTException The file is too small to contain a header.
+     */
+    public RegionFile(final File file) throws IOException,NBTException {
+        this.file = file;
+        channel = FileChannel.open(file.toPath(),StandardOpenOption.READ);
+        try {
+            final long size = channel.size();
+            if(size < 2 * SECTOR_SIZE)
+                throw new NBTException(
+                    "Region file %s is too small to contain a header (%d bytes)."
+                    .formatted(file,size)
+                );
+            if(size > Integer.MAX_VALUE)
+                throw new NBTException("Region file %s is too large (%d bytes).".formatted(file,size));
+            data = channel.map(MapMode.READ_ONLY,0L,size);
+        } catch(final IOException | NBTException e) {
+            channel.close();
+            throw e;
+        }
+        data.asIntBuffer().get(locations);
+        data.slice(SECTOR_SIZE,SECTOR_SIZE).asIntBuffer().get(timestamps);
+    }
+    
+    /**@return The index of the chunk at the specified region-local coordinates.*/
+    public static int index(final int x,final int z) {return (x & WIDTH - 1) | (z & WIDTH - 1) * WIDTH;}
+    
+    /**@return The file backing this region.*/
+    public File file() {return file;}
+    /**@return <code>true</code> iff the chunk at the specified coordinates exists.*/
+    public boolean hasChunk(final int x,final int z) {return locations[index(x,z)] != 0;}
+    /**@return The last modification time of the chunk, in epoch seconds.*/
+    public int timestamp(final int x,final int z) {return timestamps[index(x,z)];}
+    
+    /**
+     * Opens a decompressed stream positioned at the start of a chunk's root value.
+     * 
+     * @return The stream, or <code>null</code> if the chunk has not been generated.
+     */
+    private DataInputStream open(final int x,final int z) throws IOException,NBTException {
+        final int location = locations[index(x,z)];
+        if(location == 0) return null;
+        final int offset = (location >>> 8) * SECTOR_SIZE,
+                  allocated = (location & 0xFF) * SECTOR_SIZE;
+        if(offset < 2 * SECTOR_SIZE || offset + 5 > data.capacity())
+            throw new NBTException(
+                "Chunk (%d,%d) in %s has an invalid offset (%d)."
+                .formatted(x & WIDTH - 1,z & WIDTH - 1,file,offset)
+            );
+        final int length = data.getInt(offset);
+        // The length includes the compression type, and the payload must fit in
+        // the allocated sectors after the five byte chunk header.
+        if(length < 1 || length - 1 > allocated - 5 || offset + 4 + length > data.capacity())
+            throw new NBTException(
+                "Chunk (%d,%d) in %s has an invalid length (%d)."
+                .formatted(x & WIDTH - 1,z & WIDTH - 1,file,length)
+            );
+        final byte compression = data.get(offset + 4);
+        final InputStream raw = (compression & EXTERNAL) != 0
+            ? new FileInputStream(external(x,z))
+            : new ByteBufferInputStream(data.slice(offset + 5,length - 1));
+        try {return new DataInputStream(decompress(raw,(byte)(compression & ~EXTERNAL),x,z));}
+        catch(final IOException | NBTException | RuntimeException e) {
+            raw.close();
+            throw e;
+        }
+    }
+    /**
+     * Reads a chunk. This method is safe to call from multiple threads.
+     * 
+     * @param x Region-local x coordinate. Only the lower five bits are used.
+     * @param z Region-local z coordinate. Only the lower five bits are used.
+     * 
+     * @return The chunk's root object, or <code>null</code> if the chunk has
+     *         not been generated.
+     * 
+     * @throws IOException  The chunk could not be read.
+     * @throws NBTException The chunk is malformed.
+     */
+    public NBTObject chunk(final int x,final int z) throws IOException,NBTException {
+        try(final DataInputStream in = open(x,z)) {
+            return in == null? null : new NBTObject(NBTObject.readHeader(in));
+        }
+    }
+    /**
+     * Reads a chunk lazily. The chunk is decompressed, but only the entries of
+     * its root object are decoded. This method is safe to call from multiple
+     * threads.
+     * 
+     * @param x Region-local x coordinate. Only the lower five bits are used.
+     * @param z Region-local z coordinate. Only the lower five bits are used.
+     * 
+     * @return The chunk's root object, or <code>null</code> if the chunk has
+     *         not been generated.
+     * 
+     * @throws IOException  The chunk could not be read.
+     * @throws NBTException The chunk is malformed.
+     * 
+     * @see NBTObject#lazy(byte[])
+     */
+    public NBTObject lazyChunk(final int x,final int z) throws IOException,NBTException {
+        try(final DataInputStream in = open(x,z)) {
+            return in == null? null : NBTObject.lazy(in.readAllBytes());
+        }
+    }
+    /**
+     * Collects the values selected from a chunk without decoding the rest of it.
+     * This method is safe to call from multiple threads, provided each thread
+     * uses its own selector.
+     * 
+     * @param x Region-local x coordinate. Only the lower five bits are used.
+     * @param z Region-local z coordinate. Only the lower five bits are used.
+     * 
+     * @return <code>false</code> iff the chunk has not been generated.
+     * 
+     * @throws IOException  The chunk could not be read.
+     * @throws NBTException The chunk is malformed.
+     */
+    public boolean select(final int x,final int z,final NBTSelector selector) throws IOException,NBTException {
+        try(final DataInputStream in = open(x,z)) {
+            if(in == null) return false;
+            selector.read(in);
+            return true;
+        }
+    }
+    
+    /**A consumer of decoded chunks.*/
+    @FunctionalInterface
+    public static interface ChunkConsumer {
+        /**
+         * @param x     Region-local x coordinate.
+         * @param z     Region-local z coordinate.
+         * @param chunk The chunk's root object.
+         * 
+         * @throws NBTException To abort the remaining chunks.
+         */
+        void accept(int x,int z,NBTObject chunk) throws NBTException;
+    }
+    /**
+     * Decodes every chunk in this region on the specified executor. The consumer
+     * is called on the calling thread, in the order in which the chunks finish
+     * decoding. Missing chunks are skipped. The chunks are decoded in the
+     * {@linkplain Dialect#current() current dialect} of the calling thread.
+     * 
+     * @param executor Executor which decodes the chunks, such as a
+     *                 {@linkplain ForkJoinPool} or a virtual thread executor.
+     * 
+     * @throws IOException          A chunk could not be read.
+     * @throws NBTException         A chunk is malformed or the consumer aborted.
+     * @throws InterruptedException The calling thread was interrupted.
+     */
+    @SuppressWarnings("try")
+    public void forEachChunk(final Executor executor,final ChunkConsumer consumer)
+                             throws IOException,NBTException,InterruptedException {
+        final Dialect dialect = Dialect.current();
+        final CompletionService<Integer> cs = new ExecutorCompletionService<>(executor);
+        final NBTObject[] out = new NBTObject[CHUNKS];
+        final List<Future<Integer>> tasks = new ArrayList<>();
+        for(int i = 0;i < CHUNKS;++i) {
+            if(locations[i] == 0) continue;
+            final int index = i;
+            tasks.add(cs.submit(() -> {
+                try(final Dialect.Scope scope = dialect.bind()) {
+                    out[index] = chunk(index & WIDTH - 1,index / WIDTH);
+                }
+                return index;
+            }));
+        }
+        try {
+            for(int n = tasks.size();n > 0;--n) {
+                final int i;
+                try {i = cs.take().get();}
+                catch(final ExecutionException e) {
+                    final Throwable t = e.getCause();
+                    // A ForkJoinPool wraps checked exceptions in RuntimeExceptions, and
+                    // may wrap those again when they are rethrown on another thread.
+                    for(Throwable c = t;c != null;c = c.getCause()) {
+                        if(c instanceof IOException ioe) throw ioe;
+                        if(c instanceof NBTException nbte) throw nbte;
+                    }
+                    if(t instanceof RuntimeException re) throw re;
+                    if(t instanceof Error err) throw err;
+                    throw new NBTException("Could not decode chunk.",t);
+                }
+                // The future's completion makes the task's write visible here.
+                final NBTObject chunk = out[i];
+                out[i] = null;
+                consumer.accept(i & WIDTH - 1,i / WIDTH,chunk);
+            }
+        } finally {
+            for(final Future<Integer> t : tasks) t.cancel(false);
+        }
+    }
+    /**
+     * Decodes every chunk in this region on the common {@linkplain ForkJoinPool}.
+     * 
+     * @see #forEachChunk(Executor,ChunkConsumer)
+     */
+    public void forEachChunk(final ChunkConsumer consumer) throws IOException,NBTException,InterruptedException {
+        forEachChunk(ForkJoinPool.commonPool(),consumer);
+    }
+    /**
+     * Decodes every chunk in this region on the specified executor.
+     * 
+     * @return An array of {@value #CHUNKS} chunks, ordered by
+     *         {@linkplain #index(int,int)}. Missing chunks are <code>null</code>.
+     * 
+     * @throws IOException          A chunk could not be read.
+     * @throws NBTException         A chunk is malformed.
+     * @throws InterruptedException The calling thread was interrupted.
+     */
+    public NBTObject[] readAll(final Executor executor) throws IOException,NBTException,InterruptedException {
+        final NBTObject[] out = new NBTObject[CHUNKS];
+        forEachChunk(executor,(x,z,chunk) -> out[index(x,z)] = chunk);
+        return out;
+    }
+    /**
+     * Decodes every chunk in this region on the common {@linkplain ForkJoinPool}.
+     * 
+     * @see #readAll(Executor)
+     */
+    public NBTObject[] readAll() throws IOException,NBTException,InterruptedException {
+        return readAll(ForkJoinPool.commonPool());
+    }
+    
+    private File external(final int x,final int z) throws NBTException {
+        // Region files are named 'r.<x>.<z>.mca'.
+        final String[] parts = file.getName().split("\\.");
+        final int rx,rz;
+        try {
+            rx = Integer.parseInt(parts[1]);
+            rz = Integer.parseInt(parts[2]);
+        } catch(final RuntimeException e) {
+            throw new NBTException("Cannot locate external chunk for region file %s.".formatted(file),e);
+        }
+        return new File(
+            file.getParentFile(),
+            "c.%d.%d.mcc".formatted(rx * WIDTH + (x & WIDTH - 1),rz * WIDTH + (z & WIDTH - 1))
+        );
+    }
+    private InputStream decompress(final InputStream in,final byte compression,
+                                   final int x,final int z) throws IOException,NBTException {
+        return switch(compression) {
+            case GZIP -> new BufferedInputStream(new GZIPInputStream(in));
+            case ZLIB -> new BufferedInputStream(new InflaterInputStream(in));
+            case UNCOMPRESSED -> in instanceof ByteBufferInputStream? in : new BufferedInputStream(in);
+            default -> throw new NBTException(
+                "Chunk (%d,%d) in %s has an unknown compression type (%d)."
+                .formatted(x & WIDTH - 1,z & WIDTH - 1,file,compression)
+            );
+        };
+    }
+    
+    /**Closes the underlying channel. The mapping is released once it is unreachable.*/
+    @Override public void close() throws IOException {channel.close();}
+    
+    /**An {@linkplain InputStream} which reads from a private view of a buffer.*/
+    private static final class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buf;
+        ByteBufferInputStream(final ByteBuffer buf) {this.buf = buf;}
+        
+        @Override public int available() {return buf.remaining();}
+        @Override
+        public int read() {
+            return buf.hasRemaining()? buf.get() & 0xFF : -1;
+        }
+        @Override
+        public int read(final byte[] b,final int off,final int len) {
+            if(len == 0) return 0;
+            if(!buf.hasRemaining()) return -1;
+            final int n = Math.min(len,buf.remaining());
+            buf.get(b,off,n);
+            return n;
+        }
+        @Override
+        public long skip(final long n) {
+            final int s = (int)Math.max(0L,Math.min(n,buf.remaining()));
+            buf.position(buf.position() + s);
+            return s;
+        }
+    }
+}
\ No newline at end of file
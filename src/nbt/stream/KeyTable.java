@@ -0,0 +1,140 @@
+package nbt.stream;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import nbt.value.NBTString;
+import util.string.Sequence;
+
+/**
+ * A bounded symbol table which lets binary decoding share one key instance for
+ * every occurrence of the same name. Keys are matched by their raw modified
+ * UTF-8 bytes, so a hit neither decodes nor allocates anything.
+ * <p>
+ * The table is a direct-mapped cache: each name hashes to a single slot, and a
+ * name which collides with a different one simply replaces it. It never grows
+ * beyond its capacity, and it is safe to share between threads without locking
+ * because the keys it holds are immutable.
+ * 
+ * @author prgmTrouble
+ * @author AzureTriple
+ */
+public final class KeyTable {
+    /**Keys which are longer than this many bytes are not shared.*/
+    public static final int MAX_LENGTH = 64;
+    /**The table used by {@linkplain NBTReader}s which are not given one.*/
+    public static final KeyTable SHARED = new KeyTable(4096);
+    
+    /**
+     * A key which is shared between objects. Its value cannot be changed, and its
+     * minimalism is fixed when it is created.
+     */
+    private static final class Symbol extends NBTString {
+        private final byte[] utf;
+        private Symbol(final byte[] utf,final Sequence value,final boolean minimal) {
+            super(minimal);
+            this.utf = utf;
+            this.value = value;
+        }
+        
+        private boolean matches(final byte[] b,final int length,final boolean minimal) {
+            return this.minimal == minimal && Arrays.equals(utf,0,utf.length,b,0,length);
+        }
+        
+        /**Writes the bytes which this key was read from.*/
+        @Override
+        public void write(final DataOutput out) throws IOException {
+            out.writeShort(utf.length);
+            out.write(utf);
+        }
+        
+        @Override public NBTString setValue(final Sequence value) {throw immutable();}
+        @Override public NBTString setValue(final char...value) {throw immutable();}
+        @Override public NBTString setValue(final String value) {throw immutable();}
+        @Override public NBTString setDefault(final Sequence value) {throw immutable();}
+        @Override public NBTString setDefault(final char...value) {throw immutable();}
+        @Override public NBTString setDefault(final String value) {throw immutable();}
+        @Override public NBTString setQuoteStyle(final boolean single) {throw immutable();}
+        /**Does nothing, since other objects may depend on this key's minimalism.*/
+        @Override public void setDeepMinimal(final boolean minimal) {}
+    }
+    
+    private final AtomicReferenceArray<Symbol> slots;
+    private final int mask;
+    
+    /**
+     * @param capacity The maximum number of keys, which is rounded up to a power
+     *                 of two.
+     * 
+     * @throws IllegalArgumentException The capacity is not in the range
+     *                                  <code>[1,2<sup>30</sup>]</code>.
+     */
+    public KeyTable(final int capacity) throws IllegalArgumentException {
+        if(capacity < 1 || capacity > 1 << 30)
+            throw new IllegalArgumentException("Invalid capacity %d.".formatted(capacity));
+        final int c = capacity == 1? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        slots = new AtomicReferenceArray<>(c);
+        mask = c - 1;
+    }
+    
+    private int slot(final byte[] utf,final int length) {
+        int h = length;
+        for(int i = 0;i < length;++i) h = 31 * h + utf[i];
+        return (h ^ h >>> 16) & mask;
+    }
+    
+    /**
+     * @param utf     A buffer holding the key's modified UTF-8 bytes.
+     * @param length  The number of bytes in the key.
+     * @param minimal The key's minimalism.
+     * 
+     * @return The shared key, or <code>null</code> if the table does not hold it.
+     */
+    NBTString find(final byte[] utf,final int length,final boolean minimal) {
+        if(length > MAX_LENGTH) return null;
+        final Symbol s = slots.get(slot(utf,length));
+        return s != null && s.matches(utf,length,minimal)? s : null;
+    }
+    /**
+     * Creates a key and shares it if it is short enough.
+     * 
+     * @param utf     A buffer holding the key's modified UTF-8 bytes.
+     * @param length  The number of bytes in the key.
+     * @param value   The key's decoded characters, which must not be modified
+     *                afterwards.
+     * @param minimal The key's minimalism.
+     * 
+     * @return The key.
+     */
+    NBTString share(final byte[] utf,final int length,final Sequence value,final boolean minimal) {
+        if(length > MAX_LENGTH) {
+            final NBTString k = NBTString.unescaped(value);
+            k.setDeepMinimal(minimal);
+            return k;
+        }
+        final Symbol s = new Symbol(Arrays.copyOf(utf,length),value,minimal);
+        slots.set(slot(utf,length),s);
+        return s;
+    }
+    
+    /**
+     * Reads a key.
+     * 
+     * @param minimal The key's minimalism.
+     * 
+     * @return The key, which may be shared and therefore cannot be modified.
+     * 
+     * @throws IOException The key could not be read.
+     */
+    public NBTString read(final DataInput in,final boolean minimal) throws IOException {
+        final byte[] utf = new byte[in.readUnsignedShort()];
+        in.readFully(utf);
+        final NBTString k = find(utf,utf.length,minimal);
+        if(k != null) return k;
+        final char[] c = new char[utf.length];
+        return share(utf,utf.length,new Sequence(0,NBTReader.decode(utf,utf.length,c),c),minimal);
+    }
+}
@@ -0,0 +1,271 @@
+package nbt.stream;
+
+import java.util.ArrayList;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.UTFDataFormatException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.GatheringByteChannel;
+import util.string.Sequence;
+
+/**
+ * A {@linkplain DataOutput} which collects its output in pooled direct buffers
+ * and flushes them to a channel with gathering writes. Strings are encoded
+ * straight from their characters without creating intermediate
+ * {@linkplain String}s, and bulk integer transfers are copied through buffer
+ * views.
+ * <p>
+ * The output can optionally be compressed in the GZIP format, which is the
+ * format used for player data and level files.
+ * <p>
+ * Instances are not thread-safe, but the buffer pool is shared between all
+ * instances.
+ * 
+ * @author prgmTrouble
+ * @author AzureTriple
+ */
+public class NBTBufferOutput implements DataOutput,AutoCloseable {
+    /**The size of each buffer, in bytes.*/
+    public static final int BUFFER_SIZE = 1 << 16;
+    /**The number of buffers which may be filled before they are flushed.*/
+    private static final int MAX_BUFFERS = 16;
+    /**
+     * The number of released buffers which are kept for reuse. Buffers released
+     * while the pool is full are left to the garbage collector, so a burst of
+     * concurrent outputs does not pin direct memory for the life of the process.
+     */
+    private static final int POOL_SIZE = 64;
+    /**Buffers which have been released by closed outputs.*/
+    private static final ArrayBlockingQueue<ByteBuffer> POOL = new ArrayBlockingQueue<>(POOL_SIZE);
+    
+    private static ByteBuffer acquire() {
+        final ByteBuffer b = POOL.poll();
+        return b == null? ByteBuffer.allocateDirect(BUFFER_SIZE) : b.clear();
+    }
+    private static void release(final ByteBuffer b) {POOL.offer(b);}
+    
+    private static final byte[] GZIP_HEADER = {0x1F,(byte)0x8B,Deflater.DEFLATED,0,0,0,0,0,0,0};
+    
+    private final GatheringByteChannel channel;
+    /**Filled buffers, followed by the current buffer.*/
+    private final ArrayList<ByteBuffer> buffers = new ArrayList<>(MAX_BUFFERS);
+    private ByteBuffer current;
+    
+    private final Deflater deflater;
+    private final CRC32 crc;
+    /**The compressed output, or <code>null</code> if the output is uncompressed.*/
+    private final ByteBuffer deflated;
+    private boolean closed = false;
+    
+    /**
+     * Creates an output which writes to a channel. The channel is not closed by
+     * {@linkplain #close()}.
+     * 
+     * @param channel    The destination channel.
+     * @param compressed <code>true</code> iff the output should be compressed in
+     *                   the GZIP format.
+     */
+    public NBTBufferOutput(final GatheringByteChannel channel,final boolean compressed) {
+        this.channel = channel;
+        buffers.add(current = acquire());
+        if(compressed) {
+            deflater = new Deflater(Deflater.DEFAULT_COMPRESSION,true);
+            crc = new CRC32();
+            (deflated = acquire()).put(GZIP_HEADER);
+        } else {
+            deflater = null;
+            crc = null;
+            deflated = null;
+        }
+    }
+    /**Creates an output which writes uncompressed data to a channel.*/
+    public NBTBufferOutput(final GatheringByteChannel channel) {this(channel,false);}
+    
+    /**
+     * Moves to the next buffer, flushing all filled buffers first if there are too
+     * many of them.
+     */
+    private void next() throws IOException {
+        if(buffers.size() == MAX_BUFFERS) flush();
+        else buffers.add(current = acquire());
+    }
+    /**@return The current buffer, which has at least <code>n</code> bytes remaining.*/
+    private ByteBuffer ensure(final int n) throws IOException {
+        if(current.remaining() < n) next();
+        return current;
+    }
+    
+    private void drain(final ByteBuffer b) throws IOException {
+        b.flip();
+        while(b.hasRemaining()) channel.write(b);
+        b.clear();
+    }
+    private void deflate(final ByteBuffer b) throws IOException {
+        // The deflater keeps a reference to its input, so it must not see the buffer
+        // being reused.
+        deflater.setInput(b.duplicate());
+        crc.update(b);
+        while(!deflater.needsInput()) {
+            deflater.deflate(deflated);
+            if(!deflated.hasRemaining()) drain(deflated);
+        }
+    }
+    
+    /**
+     * Writes all buffered data to the channel. Compressed data may be retained by
+     * the compressor until the output is closed.
+     * 
+     * @throws IOException The data could not be written.
+     */
+    public void flush() throws IOException {
+        final ByteBuffer[] bs = buffers.toArray(new ByteBuffer[buffers.size()]);
+        long remaining = 0L;
+        for(final ByteBuffer b : bs) remaining += b.flip().remaining();
+        if(deflater == null) while(remaining > 0L) remaining -= channel.write(bs);
+        else for(final ByteBuffer b : bs) deflate(b);
+        for(int i = bs.length - 1;i > 0;--i) release(buffers.remove(i));
+        (current = bs[0]).clear();
+    }
+    /**
+     * Flushes all data, finishes the compressed stream (if any), and returns the
+     * buffers to the pool.
+     * 
+     * @throws IOException The data could not be written.
+     */
+    @Override
+    public void close() throws IOException {
+        if(closed) return;
+        closed = true;
+        try {
+            flush();
+            if(deflater != null) {
+                deflater.finish();
+                while(!deflater.finished()) {
+                    deflater.deflate(deflated);
+                    if(!deflated.hasRemaining()) drain(deflated);
+                }
+                if(deflated.remaining() < 2 * Integer.BYTES) drain(deflated);
+                deflated.order(ByteOrder.LITTLE_ENDIAN)
+                        .putInt((int)crc.getValue())
+                        .putInt((int)deflater.getBytesRead())
+                        .order(ByteOrder.BIG_ENDIAN);
+                drain(deflated);
+            }
+        } finally {
+            for(final ByteBuffer b : buffers) release(b);
+            buffers.clear();
+            current = null;
+            if(deflater != null) {
+                deflater.end();
+                release(deflated);
+            }
+        }
+    }
+    
+    @Override public void write(final int b) throws IOException {ensure(1).put((byte)b);}
+    @Override public void write(final byte[] b) throws IOException {write(b,0,b.length);}
+    @Override
+    public void write(final byte[] b,int off,int len) throws IOException {
+        while(len > 0) {
+            final ByteBuffer c = ensure(1);
+            final int n = Math.min(len,c.remaining());
+            c.put(b,off,n);
+            off += n;
+            len -= n;
+        }
+    }
+    @Override public void writeBoolean(final boolean v) throws IOException {write(v? 1 : 0);}
+    @Override public void writeByte(final int v) throws IOException {write(v);}
+    @Override public void writeShort(final int v) throws IOException {ensure(Short.BYTES).putShort((short)v);}
+    @Override public void writeChar(final int v) throws IOException {ensure(Character.BYTES).putChar((char)v);}
+    @Override public void writeInt(final int v) throws IOException {ensure(Integer.BYTES).putInt(v);}
+    @Override public void writeLong(final long v) throws IOException {ensure(Long.BYTES).putLong(v);}
+    @Override public void writeFloat(final float v) throws IOException {ensure(Float.BYTES).putFloat(v);}
+    @Override public void writeDouble(final double v) throws IOException {ensure(Double.BYTES).putDouble(v);}
+    @Override
+    public void writeBytes(final String s) throws IOException {
+        for(int i = 0;i < s.length();++i) write(s.charAt(i));
+    }
+    @Override
+    public void writeChars(final String s) throws IOException {
+        for(int i = 0;i < s.length();++i) writeChar(s.charAt(i));
+    }
+    
+    /**
+     * Writes integers in big-endian order.
+     * 
+     * @throws IOException The integers could not be written.
+     */
+    public void writeInts(final int[] a,int off,int len) throws IOException {
+        while(len > 0) {
+            final ByteBuffer c = ensure(Integer.BYTES);
+            final int n = Math.min(len,c.remaining() / Integer.BYTES);
+            c.asIntBuffer().put(a,off,n);
+            c.position(c.position() + n * Integer.BYTES);
+            off += n;
+            len -= n;
+        }
+    }
+    /**
+     * Writes longs in big-endian order.
+     * 
+     * @throws IOException The longs could not be written.
+     */
+    public void writeLongs(final long[] a,int off,int len) throws IOException {
+        while(len > 0) {
+            final ByteBuffer c = ensure(Long.BYTES);
+            final int n = Math.min(len,c.remaining() / Long.BYTES);
+            c.asLongBuffer().put(a,off,n);
+            c.position(c.position() + n * Long.BYTES);
+            off += n;
+            len -= n;
+        }
+    }
+    
+    @Override public void writeUTF(final String s) throws IOException {writeUTF(s,s.length());}
+    /**
+     * Writes a sequence in modified UTF-8 without converting it to a
+     * {@linkplain String}.
+     * 
+     * @throws UTFDataFormatException The encoded sequence is longer than 65535 bytes.
+     * @throws IOException            The sequence could not be written.
+     * 
+     * @see DataOutput#writeUTF(String)
+     */
+    public void writeUTF(final Sequence s) throws IOException {writeUTF(s,s.length());}
+    /**Encodes the characters in place, so that they are never copied into a scratch buffer.*/
+    private void writeUTF(final CharSequence c,final int l) throws IOException {
+        int n = l;
+        for(int i = 0;i < l;++i) {
+            final char x = c.charAt(i);
+            if(x == 0 || x >= 0x80) n += x >= 0x800? 2 : 1;
+        }
+        if(n > 0xFFFF)
+            throw new UTFDataFormatException("Encoded string is too long (%d bytes).".formatted(n));
+        writeShort(n);
+        int i = 0;
+        while(i < l) {
+            ByteBuffer b = current;
+            // ASCII fast path.
+            for(int m = Math.min(l,i + b.remaining());i < m;++i) {
+                final char x = c.charAt(i);
+                if(x == 0 || x >= 0x80) break;
+                b.put((byte)x);
+            }
+            if(i == l) break;
+            final char x = c.charAt(i);
+            if(x != 0 && x < 0x80) {next(); continue;}
+            if(x >= 0x800) {
+                (b = ensure(3)).put((byte)(0xE0 | x >> 12 & 0x0F));
+                b.put((byte)(0x80 | x >> 6 & 0x3F));
+            } else (b = ensure(2)).put((byte)(0xC0 | x >> 6 & 0x1F));
+            b.put((byte)(0x80 | x & 0x3F));
+            ++i;
+        }
+    }
+}
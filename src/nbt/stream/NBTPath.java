@@ -0,0 +1,108 @@
+package nbt.stream;
+
+import java.util.ArrayList;
+
+import nbt.exception.NBTParsingException;
+import util.string.Sequence;
+
+/**
+ * A path to values inside a tree, such as <code>Level.Sections[*].Y</code>.
+ * Keys are separated by <code>.</code> and may be double-quoted if they contain
+ * special characters. Array elements are selected with <code>[n]</code>, or
+ * <code>[*]</code> for every element.
+ * 
+ * @author prgmTrouble
+ * @author AzureTriple
+ */
+public final class NBTPath {
+    /**Index which matches every element.*/
+    public static final int ANY = -1;
+    
+    private final String source;
+    /**Keys of each segment, or <code>null</code> for index segments.*/
+    private final Sequence[] keys;
+    /**Indices of each index segment.*/
+    private final int[] indices;
+    
+    private NBTPath(final String source,final Sequence[] keys,final int[] indices) {
+        this.source = source;
+        this.keys = keys;
+        this.indices = indices;
+    }
+    
+    /**
+     * Parses a path.
+     * 
+     * @throws NBTParsingException The path is empty or malformed.
+     */
+    public static NBTPath parse(final String path) throws NBTParsingException {
+        if(path == null || path.isEmpty()) throw new NBTParsingException("Empty path.");
+        final Sequence src = new Sequence(path);
+        final ArrayList<Sequence> keys = new ArrayList<>();
+        final ArrayList<Integer> indices = new ArrayList<>();
+        final int l = path.length();
+        int i = 0;
+        while(true) {
+            final char c = path.charAt(i);
+            if(c == '[') {
+                final int close = path.indexOf(']',i);
+                if(close == -1) throw new NBTParsingException("Missing closing character ']'.",i,src);
+                final String idx = path.substring(i + 1,close);
+                final int n;
+                if(idx.equals("*")) n = ANY;
+                else {
+                    try {n = Integer.parseInt(idx);}
+                    catch(final NumberFormatException e) {
+                        throw new NBTParsingException("Invalid index.",i + 1,src,e);
+                    }
+                    if(n < 0) throw new NBTParsingException("Negative index.",i + 1,src);
+                }
+                keys.add(null);
+                indices.add(n);
+                i = close + 1;
+            } else if(c == '"') {
+                final StringBuilder sb = new StringBuilder();
+                for(++i;i < l && path.charAt(i) != '"';++i) {
+                    if(path.charAt(i) == '\\' && ++i == l) break;
+                    sb.append(path.charAt(i));
+                }
+                if(i == l) throw new NBTParsingException("Missing closing character '\"'.",i,src);
+                keys.add(new Sequence(sb.toString()));
+                indices.add(ANY);
+                ++i;
+            } else {
+                final int start = i;
+                while(i < l && path.charAt(i) != '.' && path.charAt(i) != '[') ++i;
+                if(i == start) throw new NBTParsingException("Empty key.",i,src);
+                keys.add(new Sequence(path.substring(start,i)));
+                indices.add(ANY);
+            }
+            if(i == l) break;
+            // Keys must be separated by a dot, but indices may follow directly.
+            if(path.charAt(i) == '.') {
+                if(++i == l) throw new NBTParsingException("Empty key.",i,src);
+            } else if(path.charAt(i) != '[')
+                throw new NBTParsingException("Expected '.' or '['.",i,src);
+        }
+        final int[] idx = new int[indices.size()];
+        for(int j = 0;j < idx.length;++j) idx[j] = indices.get(j);
+        return new NBTPath(path,keys.toArray(new Sequence[keys.size()]),idx);
+    }
+    
+    /**@return The number of segments in this path.*/
+    public int length() {return keys.length;}
+    /**@return <code>true</code> iff the segment selects the object entry with the specified key.*/
+    public boolean matchesKey(final int segment,final Sequence key) {
+        return keys[segment] != null && keys[segment].equals(key);
+    }
+    /**@return <code>true</code> iff the segment selects array elements.*/
+    public boolean isIndex(final int segment) {return keys[segment] == null;}
+    /**@return The index selected by an index segment, or {@value #ANY} if it selects every element.*/
+    public int index(final int segment) {return indices[segment];}
+    /**@return <code>true</code> iff the segment selects the array element with the specified index.*/
+    public boolean matchesIndex(final int segment,final int index) {
+        return keys[segment] == null && (indices[segment] == ANY || indices[segment] == index);
+    }
+    
+    @Override public String toString() {return source;}
+}
\ No newline at end of file
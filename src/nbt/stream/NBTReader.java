@@ -0,0 +1,268 @@
+package nbt.stream;
+
+import java.util.Arrays;
+
+import java.io.DataInput;
+import java.io.IOException;
+import java.io.UTFDataFormatException;
+import nbt.Dialect;
+import nbt.exception.NBTException;
+import nbt.value.NBTString;
+import nbt.value.ValueType;
+import nbt.value.collection.NBTObject;
+import nbt.value.collection.NBTPrimitiveArray;
+import settings.Settings;
+import util.string.Sequence;
+
+/**
+ * Walks binary NBT and reports its contents to an {@linkplain NBTVisitor}
+ * without building any {@linkplain nbt.value.NBTValue NBTValue}s. Skipped values
+ * are stepped over by their length wherever the format allows it, and keys are
+ * shared through a {@linkplain KeyTable}.
+ * 
+ * @author prgmTrouble
+ * @author AzureTriple
+ */
+public class NBTReader {
+    private final DataInput in;
+    private final KeyTable keys;
+    /**The dialect, which is captured once so that each tag does not have to look it up.*/
+    private final Dialect dialect = Dialect.current();
+    /**The minimalism of the keys which are read.*/
+    private final boolean minimal = Settings.defaultMinimal() || dialect.theWildWest;
+    private byte[] bytes = new byte[64];
+    private char[] chars = new char[64];
+    
+    /**Creates a reader which shares keys through {@linkplain KeyTable#SHARED}.*/
+    public NBTReader(final DataInput in) {this(in,KeyTable.SHARED);}
+    /**Creates a reader which shares keys through the specified table.*/
+    public NBTReader(final DataInput in,final KeyTable keys) {this.in = in; this.keys = keys;}
+    
+    private ValueType type(final byte id) throws NBTException {
+        final ValueType t = ValueType.getType(id,dialect);
+        if(t == null) throw new NBTException("Unknown type %d.".formatted(id));
+        return t;
+    }
+    private int length() throws IOException,NBTException {
+        final int l = in.readInt();
+        if(l < 0) throw new NBTException("Negative length %d.".formatted(l));
+        return l;
+    }
+    
+    /**
+     * Reads the bytes of a modified UTF-8 string into the shared buffer.
+     * 
+     * @return The number of bytes.
+     */
+    private int readUTFBytes() throws IOException {
+        final int l = in.readUnsignedShort();
+        if(bytes.length < l) {
+            bytes = new byte[Math.max(l,bytes.length * 2)];
+            chars = new char[bytes.length];
+        }
+        in.readFully(bytes,0,l);
+        return l;
+    }
+    /**
+     * Reads a modified UTF-8 string into the shared buffer.
+     * 
+     * @return A view of the shared buffer.
+     */
+    private Sequence readUTF() throws IOException {
+        final int l = readUTFBytes();
+        return new Sequence(0,decode(bytes,l,chars),chars);
+    }
+    /**
+     * Reads a key, which is shared if the key table already holds it.
+     * 
+     * @return The key, which may be shared and therefore cannot be modified.
+     * 
+     * @throws IOException The key could not be read.
+     * 
+     * @see KeyTable
+     */
+    public NBTString readKey() throws IOException {
+        final int l = readUTFBytes();
+        final NBTString k = keys.find(bytes,l,minimal);
+        if(k != null) return k;
+        return keys.share(bytes,l,new Sequence(Arrays.copyOf(chars,decode(bytes,l,chars))),minimal);
+    }
+    /**
+     * Decodes modified UTF-8.
+     * 
+     * @param b The encoded bytes.
+     * @param l The number of bytes.
+     * @param c A buffer for the decoded characters, which holds at least
+     *          <code>l</code> characters.
+     * 
+     * @return The number of characters.
+     * 
+     * @throws UTFDataFormatException The bytes are not valid modified UTF-8.
+     */
+    static int decode(final byte[] b,final int l,final char[] c) throws UTFDataFormatException {
+        int i = 0,n = 0;
+        // ASCII fast path.
+        while(i < l && b[i] >= 0) c[n++] = (char)b[i++];
+        while(i < l) {
+            final int x = b[i++] & 0xFF;
+            switch(x >> 4) {
+                case 0,1,2,3,4,5,6,7 -> c[n++] = (char)x;
+                case 12,13 -> {
+                    if(i >= l) throw new UTFDataFormatException("Partial character at end of input.");
+                    final int y = b[i++];
+                    if((y & 0xC0) != 0x80)
+                        throw new UTFDataFormatException("Malformed input around byte %d.".formatted(i));
+                    c[n++] = (char)((x & 0x1F) << 6 | y & 0x3F);
+                }
+                case 14 -> {
+                    if(i + 1 >= l) throw new UTFDataFormatException("Partial character at end of input.");
+                    final int y = b[i++],z = b[i++];
+                    if((y & 0xC0) != 0x80 || (z & 0xC0) != 0x80)
+                        throw new UTFDataFormatException("Malformed input around byte %d.".formatted(i));
+                    c[n++] = (char)((x & 0x0F) << 12 | (y & 0x3F) << 6 | z & 0x3F);
+                }
+                default -> throw new UTFDataFormatException("Malformed input around byte %d.".formatted(i));
+            }
+        }
+        return n;
+    }
+    private void skipBytes(long n) throws IOException {
+        while(n > 0) {
+            int s = in.skipBytes((int)Math.min(n,Integer.MAX_VALUE));
+            if(s <= 0) {in.readByte(); s = 1;}
+            n -= s;
+        }
+    }
+    
+    /**
+     * Reads a value which is preceded by its type and name, such as the root value
+     * of a file. The name is reported with {@linkplain NBTVisitor#key}.
+     * 
+     * @throws IOException  The input could not be read.
+     * @throws NBTException The input is invalid or the visitor aborted.
+     */
+    public void readRoot(final NBTVisitor v) throws IOException,NBTException {
+        final ValueType t = type(in.readByte());
+        if(v.key(t,readKey())) read(t,v);
+        else skip(t);
+    }
+    /**
+     * Reads a value which is preceded by its type.
+     * 
+     * @throws IOException  The input could not be read.
+     * @throws NBTException The input is invalid or the visitor aborted.
+     */
+    public void readInferred(final NBTVisitor v) throws IOException,NBTException {read(type(in.readByte()),v);}
+    /**
+     * Reads a value of the specified type.
+     * 
+     * @throws IOException  The input could not be read.
+     * @throws NBTException The input is invalid or the visitor aborted.
+     */
+    public void read(final ValueType type,final NBTVisitor v) throws IOException,NBTException {
+        switch(type) {
+            case BYTE,BOOL -> v.visitByte  (in.readByte  ());
+            case SHORT     -> v.visitShort (in.readShort ());
+            case INT       -> v.visitInt   (in.readInt   ());
+            case LONG      -> v.visitLong  (in.readLong  ());
+            case FLOAT     -> v.visitFloat (in.readFloat ());
+            case DOUBLE    -> v.visitDouble(in.readDouble());
+            case STRING    -> v.visitString(readUTF());
+            case BYTE_ARRAY -> {
+                final byte[] a = new byte[length()];
+                in.readFully(a);
+                v.visitByteArray(a);
+            }
+            case INT_ARRAY -> {
+                final int[] a = new int[length()];
+                NBTPrimitiveArray.readFully(in,a,0,a.length);
+                v.visitIntArray(a);
+            }
+            case LONG_ARRAY -> {
+                final long[] a = new long[length()];
+                NBTPrimitiveArray.readFully(in,a,0,a.length);
+                v.visitLongArray(a);
+            }
+            case OBJECT -> readCompound(v);
+            case ARRAY -> readList(v);
+        }
+    }
+    /**
+     * Reads the body of an object, which is positioned at its first entry.
+     * 
+     * @throws IOException  The input could not be read.
+     * @throws NBTException The input is invalid or the visitor aborted.
+     */
+    public void readCompound(final NBTVisitor v) throws IOException,NBTException {
+        v.startCompound();
+        for(byte id = in.readByte();id != NBTObject.END_BYTE;id = in.readByte()) {
+            final ValueType t = type(id);
+            if(v.key(t,readKey())) read(t,v);
+            else skip(t);
+        }
+        v.endCompound();
+    }
+    /**
+     * Reads the body of an array, which is positioned at its element type.
+     * 
+     * @throws IOException  The input could not be read.
+     * @throws NBTException The input is invalid or the visitor aborted.
+     */
+    public void readList(final NBTVisitor v) throws IOException,NBTException {
+        final byte id = in.readByte();
+        final int l = length();
+        final ValueType t;
+        if(id == 0) {
+            if(l != 0) throw new NBTException("Missing type for array.");
+            t = null;
+        } else t = type(id);
+        if(!v.startList(t,l)) {skipElements(t,l); return;}
+        for(int i = 0;i < l;++i)
+            if(v.element(i)) read(t,v);
+            else skip(t);
+        v.endList();
+    }
+    
+    /**
+     * Skips a value of the specified type.
+     * 
+     * @throws IOException  The input could not be read.
+     * @throws NBTException The input is invalid.
+     */
+    public void skip(final ValueType type) throws IOException,NBTException {
+        switch(type) {
+            case BYTE,BOOL -> skipBytes(1L);
+            case SHORT -> skipBytes(2L);
+            case INT,FLOAT -> skipBytes(4L);
+            case LONG,DOUBLE -> skipBytes(8L);
+            case STRING -> skipBytes(in.readUnsignedShort());
+            case BYTE_ARRAY -> skipBytes(length());
+            case INT_ARRAY -> skipBytes(4L * length());
+            case LONG_ARRAY -> skipBytes(8L * length());
+            case OBJECT -> {
+                for(byte id = in.readByte();id != NBTObject.END_BYTE;id = in.readByte()) {
+                    final ValueType t = type(id);
+                    skipBytes(in.readUnsignedShort());
+                    skip(t);
+                }
+            }
+            case ARRAY -> {
+                final byte id = in.readByte();
+                final int l = length();
+                if(id == 0) {
+                    if(l != 0) throw new NBTException("Missing type for array.");
+                } else skipElements(type(id),l);
+            }
+        }
+    }
+    private void skipElements(final ValueType type,final int length) throws IOException,NBTException {
+        if(type == null) return;
+        switch(type) {
+            case BYTE,BOOL -> skipBytes(length);
+            case SHORT -> skipBytes(2L * length);
+            case INT,FLOAT -> skipBytes(4L * length);
+            case LONG,DOUBLE -> skipBytes(8L * length);
+            default -> {for(int i = 0;i < length;++i) skip(type);}
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,253 @@
+package nbt.stream;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntFunction;
+
+import java.io.DataInput;
+import java.io.IOException;
+import nbt.exception.NBTException;
+import nbt.value.NBTValue;
+import nbt.value.ValueType;
+import nbt.value.number.NBTByte;
+import nbt.value.number.NBTInt;
+import nbt.value.number.NBTLong;
+import util.string.Sequence;
+
+/**
+ * An {@linkplain NBTVisitor} which collects the values matched by a set of
+ * {@linkplain NBTPath}s. Paths are evaluated relative to the root value, and
+ * any value which cannot lead to a match is skipped by the reader without
+ * being decoded. The elements of typed arrays can be selected by an index
+ * segment at the end of a path.
+ * 
+ * @author prgmTrouble
+ * @author AzureTriple
+ */
+public class NBTSelector implements NBTVisitor {
+    /**The maximum number of paths in a single selector.*/
+    public static final int MAX_PATHS = Long.SIZE;
+    
+    /**A subtree which is being built because it matches at least one path.*/
+    private static final class Capture {
+        final NBTTreeBuilder builder = new NBTTreeBuilder();
+        final int depth;
+        final long paths;
+        Capture(final int depth,final long paths) {this.depth = depth; this.paths = paths;}
+    }
+    
+    private final NBTPath[] paths;
+    private final List<List<NBTValue>> results;
+    private final ArrayList<Capture> captures = new ArrayList<>();
+    /**The paths which are still alive in each open collection.*/
+    private long[] masks = new long[16];
+    /**The element type of each open collection, or <code>null</code> for objects.*/
+    private ValueType[] types = new ValueType[16];
+    private int depth = 0;
+    /**The paths which continue into the next value.*/
+    private long pending;
+    
+    /**
+     * @throws NBTException More than {@value #MAX_PATHS} paths were specified.
+     */
+    public NBTSelector(final NBTPath...paths) throws NBTException {
+        if(paths.length > MAX_PATHS)
+            throw new NBTException("Too many paths (%d > %d).".formatted(paths.length,MAX_PATHS));
+        this.paths = paths.clone();
+        results = new ArrayList<>(paths.length);
+        for(int i = 0;i < paths.length;++i) results.add(new ArrayList<>());
+        reset();
+    }
+    /**
+     * @throws NBTException More than {@value #MAX_PATHS} paths were specified or
+     *                      a path is malformed.
+     */
+    public NBTSelector(final String...paths) throws NBTException {this(parse(paths));}
+    private static NBTPath[] parse(final String[] paths) throws NBTException {
+        final NBTPath[] out = new NBTPath[paths.length];
+        for(int i = 0;i < paths.length;++i) out[i] = NBTPath.parse(paths[i]);
+        return out;
+    }
+    
+    /**
+     * Reads a named root value and collects the matching values. Results from
+     * previous reads are cleared.
+     * 
+     * @return <code>this</code>
+     * 
+     * @throws IOException  The input could not be read.
+     * @throws NBTException The input is invalid.
+     */
+    public NBTSelector read(final DataInput in) throws IOException,NBTException {
+        reset();
+        new NBTReader(in).readRoot(this);
+        return this;
+    }
+    /**Clears all results so that this selector can be reused.*/
+    public void reset() {
+        for(final List<NBTValue> r : results) r.clear();
+        captures.clear();
+        depth = 0;
+        pending = paths.length == MAX_PATHS? -1L : (1L << paths.length) - 1L;
+    }
+    
+    /**@return The path at the specified index.*/
+    public NBTPath path(final int path) {return paths[path];}
+    /**@return The values matched by the path at the specified index, in the order they were read.*/
+    public List<NBTValue> results(final int path) {return results.get(path);}
+    /**@return The first value matched by the path, or <code>null</code> if none matched.*/
+    public NBTValue first(final int path) {
+        final List<NBTValue> r = results.get(path);
+        return r.isEmpty()? null : r.get(0);
+    }
+    
+    private static boolean isCollection(final ValueType type) {
+        return type == ValueType.OBJECT || type == ValueType.ARRAY;
+    }
+    private static boolean isTypedArray(final ValueType type) {
+        return type == ValueType.BYTE_ARRAY || type == ValueType.INT_ARRAY || type == ValueType.LONG_ARRAY;
+    }
+    /**
+     * Advances the paths of the innermost collection by one segment.
+     * 
+     * @return <code>true</code> iff the next value must be read.
+     */
+    private boolean advance(final ValueType type,final Sequence key,final int index) {
+        final int d = depth - 1;
+        long next = 0L,complete = 0L;
+        for(long m = masks[d];m != 0L;m &= m - 1L) {
+            final int p = Long.numberOfTrailingZeros(m);
+            final NBTPath path = paths[p];
+            if(key != null? !path.matchesKey(d,key) : !path.matchesIndex(d,index)) continue;
+            if(path.length() == depth) complete |= 1L << p;
+            else if(isCollection(type)) next |= 1L << p;
+            // Typed arrays have no nested events, so only a final index can select their elements.
+            else if(isTypedArray(type) && path.length() == depth + 1 && path.isIndex(depth)) next |= 1L << p;
+        }
+        if(complete != 0L) captures.add(new Capture(depth,complete));
+        pending = next;
+        return next != 0L || !captures.isEmpty();
+    }
+    /**Collects the elements of a typed array which are selected by the pending paths.*/
+    private void select(final int length,final IntFunction<NBTValue> element) {
+        for(long m = pending;m != 0L;m &= m - 1L) {
+            final int p = Long.numberOfTrailingZeros(m),i = paths[p].index(depth);
+            final List<NBTValue> r = results.get(p);
+            if(i == NBTPath.ANY) for(int j = 0;j < length;++j) r.add(element.apply(j));
+            else if(i < length) r.add(element.apply(i));
+        }
+        pending = 0L;
+    }
+    /**Finishes all captures whose value ends at the current depth.*/
+    private void finish() {
+        for(int i = captures.size() - 1;i >= 0;--i) {
+            final Capture c = captures.get(i);
+            if(c.depth != depth) continue;
+            captures.remove(i);
+            final NBTValue v = c.builder.result();
+            for(long m = c.paths;m != 0L;m &= m - 1L)
+                results.get(Long.numberOfTrailingZeros(m)).add(v);
+        }
+    }
+    private void open(final ValueType type) {
+        if(depth == masks.length) {
+            masks = Arrays.copyOf(masks,depth * 2);
+            types = Arrays.copyOf(types,depth * 2);
+        }
+        masks[depth] = pending;
+        types[depth++] = type;
+        pending = 0L;
+    }
+    
+    @Override
+    public boolean key(final ValueType type,final Sequence key) {
+        // The root's name does not take part in any path.
+        if(depth == 0) return isCollection(type);
+        for(final Capture c : captures) c.builder.key(type,key);
+        return advance(type,key,0);
+    }
+    @Override
+    public boolean element(final int index) throws NBTException {
+        for(final Capture c : captures) c.builder.element(index);
+        return advance(types[depth - 1],null,index);
+    }
+    
+    @Override
+    public void visitByte(final byte value) throws NBTException {
+        for(final Capture c : captures) c.builder.visitByte(value);
+        finish();
+    }
+    @Override
+    public void visitShort(final short value) throws NBTException {
+        for(final Capture c : captures) c.builder.visitShort(value);
+        finish();
+    }
+    @Override
+    public void visitInt(final int value) throws NBTException {
+        for(final Capture c : captures) c.builder.visitInt(value);
+        finish();
+    }
+    @Override
+    public void visitLong(final long value) throws NBTException {
+        for(final Capture c : captures) c.builder.visitLong(value);
+        finish();
+    }
+    @Override
+    public void visitFloat(final float value) throws NBTException {
+        for(final Capture c : captures) c.builder.visitFloat(value);
+        finish();
+    }
+    @Override
+    public void visitDouble(final double value) throws NBTException {
+        for(final Capture c : captures) c.builder.visitDouble(value);
+        finish();
+    }
+    @Override
+    public void visitString(final Sequence value) throws NBTException {
+        for(final Capture c : captures) c.builder.visitString(value);
+        finish();
+    }
+    @Override
+    public void visitByteArray(final byte[] value) throws NBTException {
+        for(final Capture c : captures) c.builder.visitByteArray(value);
+        select(value.length,i -> new NBTByte(value[i]));
+        finish();
+    }
+    @Override
+    public void visitIntArray(final int[] value) throws NBTException {
+        for(final Capture c : captures) c.builder.visitIntArray(value);
+        select(value.length,i -> new NBTInt(value[i]));
+        finish();
+    }
+    @Override
+    public void visitLongArray(final long[] value) throws NBTException {
+        for(final Capture c : captures) c.builder.visitLongArray(value);
+        select(value.length,i -> new NBTLong(value[i]));
+        finish();
+    }
+    
+    @Override
+    public void startCompound() throws NBTException {
+        for(final Capture c : captures) c.builder.startCompound();
+        open(null);
+    }
+    @Override
+    public void endCompound() throws NBTException {
+        --depth;
+        for(final Capture c : captures) c.builder.endCompound();
+        finish();
+    }
+    @Override
+    public boolean startList(final ValueType type,final int length) throws NBTException {
+        for(final Capture c : captures) c.builder.startList(type,length);
+        open(type);
+        return true;
+    }
+    @Override
+    public void endList() throws NBTException {
+        --depth;
+        for(final Capture c : captures) c.builder.endList();
+        finish();
+    }
+}
\ No newline at end of file
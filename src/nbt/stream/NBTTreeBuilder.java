@@ -0,0 +1,151 @@
+package nbt.stream;
+
+import nbt.exception.NBTException;
+import nbt.value.NBTString;
+import nbt.value.NBTValue;
+import nbt.value.ValueType;
+import nbt.value.collection.NBTArray;
+import nbt.value.collection.NBTByteArray;
+import nbt.value.collection.NBTCollection;
+import nbt.value.collection.NBTDoubleList;
+import nbt.value.collection.NBTFloatList;
+import nbt.value.collection.NBTIntArray;
+import nbt.value.collection.NBTLongArray;
+import nbt.value.collection.NBTObject;
+import nbt.value.collection.NBTPrimitiveList;
+import nbt.value.collection.NBTShortList;
+import nbt.value.number.NBTByte;
+import nbt.value.number.NBTDouble;
+import nbt.value.number.NBTFloat;
+import nbt.value.number.NBTInt;
+import nbt.value.number.NBTLong;
+import nbt.value.number.NBTShort;
+import util.container.Stack;
+import util.string.Sequence;
+
+/**
+ * An {@linkplain NBTVisitor} which builds a tree of {@linkplain NBTValue}s.
+ * 
+ * @author prgmTrouble
+ * @author AzureTriple
+ */
+public class NBTTreeBuilder implements NBTVisitor {
+    private final Stack<NBTCollection<?,?>> open = new Stack<>();
+    private NBTCollection<?,?> seed;
+    private NBTValue root = null;
+    private NBTString key = null;
+    private boolean hashed = false,readOnly = false;
+    
+    /**Creates a builder which creates its own root value.*/
+    public NBTTreeBuilder() {seed = null;}
+    /**
+     * Creates a builder which fills an existing collection with the first
+     * collection it encounters.
+     */
+    public NBTTreeBuilder(final NBTCollection<?,?> root) {seed = root;}
+    
+    /**
+     * @param hashed <code>true</code> iff new objects should store their entries
+     *               in a hash table.
+     * 
+     * @return <code>this</code>
+     * 
+     * @see NBTObject#hashed()
+     */
+    public NBTTreeBuilder hashObjects(final boolean hashed) {this.hashed = hashed; return this;}
+    /**
+     * @param readOnly <code>true</code> iff small numbers should be
+     *                 {@linkplain NBTValue#isShared() shared} instances instead
+     *                 of new ones, which saves memory if the tree is only read.
+     * 
+     * @return <code>this</code>
+     * 
+     * @see NBTCollection#edit
+     */
+    public NBTTreeBuilder readOnly(final boolean readOnly) {this.readOnly = readOnly; return this;}
+    
+    /**@return The root value, or <code>null</code> if nothing has been read.*/
+    public NBTValue result() {return root;}
+    
+    private void attach(final NBTValue value) throws NBTException {
+        if(open.empty()) {root = value; return;}
+        if(open.top() instanceof NBTObject o) {
+            if(key.unwrapped().isEmpty()) throw new NBTException("Empty key.");
+            try {o.set(key,value);}
+            catch(final IllegalArgumentException e) {throw new NBTException("Invalid key.",e);}
+            key = null;
+        } else ((NBTArray)open.top()).add(value);
+    }
+    private void open(final NBTCollection<?,?> c) throws NBTException {
+        attach(c);
+        open.push(c);
+    }
+    private NBTCollection<?,?> seed(final ValueType type) throws NBTException {
+        final NBTCollection<?,?> s = seed;
+        if(s == null) return null;
+        seed = null;
+        if(s.type() != type)
+            throw new NBTException(
+                "Expected %s but found %s.".formatted(s.type().name,type.name)
+            );
+        return s;
+    }
+    
+    @Override
+    public boolean key(final ValueType type,final Sequence key) {
+        this.key = NBTString.unescaped(new Sequence(key.toChars()));
+        return true;
+    }
+    /**Uses the key as-is, since keys from a reader are immutable.*/
+    @Override
+    public boolean key(final ValueType type,final NBTString key) {
+        this.key = key;
+        return true;
+    }
+    
+    @Override public void visitByte(final byte value) throws NBTException {attach(readOnly? NBTByte.valueOf(value) : new NBTByte(value));}
+    @Override
+    public void visitShort(final short value) throws NBTException {
+        if(!open.empty() && open.top() instanceof NBTShortList l) l.addShort(value);
+        else attach(readOnly? NBTShort.valueOf(value) : new NBTShort(value));
+    }
+    @Override public void visitInt(final int value) throws NBTException {attach(readOnly? NBTInt.valueOf(value) : new NBTInt(value));}
+    @Override public void visitLong(final long value) throws NBTException {attach(new NBTLong(value));}
+    @Override
+    public void visitFloat(final float value) throws NBTException {
+        if(!open.empty() && open.top() instanceof NBTFloatList l) l.addFloat(value);
+        else attach(new NBTFloat(value));
+    }
+    @Override
+    public void visitDouble(final double value) throws NBTException {
+        if(!open.empty() && open.top() instanceof NBTDoubleList l) l.addDouble(value);
+        else attach(new NBTDouble(value));
+    }
+    @Override
+    public void visitString(final Sequence value) throws NBTException {
+        attach(NBTString.unescaped(new Sequence(value.toChars())));
+    }
+    @Override public void visitByteArray(final byte[] value) throws NBTException {attach(new NBTByteArray().addAll(value));}
+    @Override public void visitIntArray(final int[] value) throws NBTException {attach(new NBTIntArray().addAll(value));}
+    @Override public void visitLongArray(final long[] value) throws NBTException {attach(new NBTLongArray().addAll(value));}
+    
+    @Override
+    public void startCompound() throws NBTException {
+        final NBTCollection<?,?> s = seed(ValueType.OBJECT);
+        if(s != null) {root = s; open.push(s);}
+        else open(hashed? NBTObject.hashed() : new NBTObject());
+    }
+    @Override public void endCompound() {open.pop();}
+    @Override
+    public boolean startList(final ValueType type,final int length) throws NBTException {
+        final NBTCollection<?,?> s = seed(ValueType.ARRAY);
+        if(s != null) {root = s; open.push(s);}
+        else {
+            final NBTArray a = NBTPrimitiveList.forSubtype(type);
+            if(a instanceof NBTPrimitiveList l) l.ensureCapacity(length);
+            open(a);
+        }
+        return true;
+    }
+    @Override public void endList() {open.pop();}
+}
\ No newline at end of file
@@ -0,0 +1,89 @@
+package nbt.stream;
+
+import nbt.exception.NBTException;
+import nbt.value.NBTString;
+import nbt.value.ValueType;
+import util.string.Sequence;
+
+/**
+ * A receiver of events produced by an {@linkplain NBTReader}. Every method has
+ * an empty default implementation so that implementations only need to
+ * override the events they are interested in.
+ * <p>
+ * {@linkplain Sequence} arguments are views of a buffer which is reused by the
+ * reader, so they must be copied if they are needed after the call returns.
+ * 
+ * @author prgmTrouble
+ * @author AzureTriple
+ */
+public interface NBTVisitor {
+    /**
+     * Called before each value in an object.
+     * 
+     * @param type The value's type.
+     * @param key  The value's key.
+     * 
+     * @return <code>false</code> iff the value should be skipped.
+     * 
+     * @throws NBTException To abort reading.
+     */
+    default boolean key(final ValueType type,final Sequence key) throws NBTException {return true;}
+    /**
+     * Called before each value in an object by an {@linkplain NBTReader}. The key
+     * may be shared with other objects, so it must not be modified. The default
+     * implementation forwards the key's characters to
+     * {@linkplain #key(ValueType,Sequence)}.
+     * 
+     * @param type The value's type.
+     * @param key  The value's key.
+     * 
+     * @return <code>false</code> iff the value should be skipped.
+     * 
+     * @throws NBTException To abort reading.
+     * 
+     * @see KeyTable
+     */
+    default boolean key(final ValueType type,final NBTString key) throws NBTException {return key(type,key.unwrapped());}
+    /**
+     * Called before each element in an array.
+     * 
+     * @param index The element's index.
+     * 
+     * @return <code>false</code> iff the element should be skipped.
+     * 
+     * @throws NBTException To abort reading.
+     */
+    default boolean element(final int index) throws NBTException {return true;}
+    
+    default void visitByte(final byte value) throws NBTException {}
+    default void visitShort(final short value) throws NBTException {}
+    default void visitInt(final int value) throws NBTException {}
+    default void visitLong(final long value) throws NBTException {}
+    default void visitFloat(final float value) throws NBTException {}
+    default void visitDouble(final double value) throws NBTException {}
+    /**@param value A transient view of the string's unescaped characters.*/
+    default void visitString(final Sequence value) throws NBTException {}
+    default void visitByteArray(final byte[] value) throws NBTException {}
+    default void visitIntArray(final int[] value) throws NBTException {}
+    default void visitLongArray(final long[] value) throws NBTException {}
+    
+    /**Called when an object is entered.*/
+    default void startCompound() throws NBTException {}
+    /**Called when an object is exited.*/
+    default void endCompound() throws NBTException {}
+    /**
+     * Called when an array is entered.
+     * 
+     * @param type   The type of the elements, or <code>null</code> if the array is
+     *               empty and untyped.
+     * @param length The number of elements.
+     * 
+     * @return <code>false</code> iff all the elements should be skipped. In this
+     *         case, {@linkplain #endList()} is not called.
+     * 
+     * @throws NBTException To abort reading.
+     */
+    default boolean startList(final ValueType type,final int length) throws NBTException {return true;}
+    /**Called when an array is exited.*/
+    default void endList() throws NBTException {}
+}
\ No newline at end of file
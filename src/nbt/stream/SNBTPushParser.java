@@ -0,0 +1,370 @@
+package nbt.stream;
+
+import java.util.Arrays;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import nbt.Dialect;
+import nbt.NBT;
+import nbt.exception.NBTConversionException;
+import nbt.exception.NBTException;
+import nbt.exception.NBTParsingException;
+import nbt.value.NBTString;
+import nbt.value.NBTValue;
+import nbt.value.collection.NBTArray;
+import nbt.value.collection.NBTByteArray;
+import nbt.value.collection.NBTIntArray;
+import nbt.value.collection.NBTLongArray;
+import nbt.value.collection.NBTObject;
+import nbt.value.collection.NBTPrimitiveArray;
+import nbt.value.collection.NBTPrimitiveList;
+import nbt.value.collection.NBTTag;
+import nbt.value.number.NBTByte;
+import nbt.value.number.NBTInt;
+import nbt.value.number.NBTLong;
+import util.container.Stack;
+import util.string.Sequence;
+
+/**
+ * Parses SNBT which arrives in chunks, such as from a pipe or a console log.
+ * Each character is consumed once, as it arrives. The stack of open compounds
+ * and lists, the token being read (an unfinished string, number, or other
+ * word), and a partially decoded UTF-8 character are kept across chunks, so
+ * nothing beyond the current token is buffered and no input is scanned again.
+ * <p>
+ * Collections are filled as their elements complete, and each token is
+ * converted to a value as soon as it ends. A top-level value is passed to the
+ * {@linkplain Listener} as soon as it is complete: compounds and lists at their
+ * closing bracket, quoted strings at their closing quote, and other values at
+ * the first character which cannot continue them or at {@linkplain #finish()}.
+ * A top-level value may be preceded by an unquoted key and a colon, which
+ * produces an {@linkplain NBTTag}.
+ * <p>
+ * The parser uses the dialect which is current when it is created. The loose
+ * syntax of versions before {@linkplain settings.Version#v17w16a} cannot be
+ * split into tokens without seeing the rest of the value, so those dialects
+ * are not supported.
+ * <p>
+ * Instances are not thread-safe.
+ * 
+ * @author prgmTrouble
+ * @author AzureTriple
+ */
+public class SNBTPushParser {
+    /**Receives the values completed by an {@linkplain SNBTPushParser}.*/
+    @FunctionalInterface
+    public static interface Listener {
+        /**@throws NBTException To abort parsing.*/
+        void value(final NBT value) throws NBTException;
+    }
+    
+    // The input which an open collection expects next.
+    /**A key or the closing brace.*/
+    private static final int KEY = 0;
+    /**A key after a comma.*/
+    private static final int NEXT_KEY = 1;
+    /**The colon after a key.*/
+    private static final int SEPARATOR = 2;
+    /**The value after a colon.*/
+    private static final int VALUE = 3;
+    /**An element, a primitive array header, or the closing bracket.*/
+    private static final int FIRST = 4;
+    /**An element or the closing bracket after a primitive array header.*/
+    private static final int OPEN = 5;
+    /**The separator of a primitive array header whose token was followed by whitespace.*/
+    private static final int TOKEN = 6;
+    /**An element after a comma, or the closing bracket if trailing commas are allowed.*/
+    private static final int ELEMENT = 7;
+    /**A comma or the closing character.*/
+    private static final int END = 8;
+    
+    /**A compound or list which has not been closed yet.*/
+    private static final class Frame {
+        NBTValue value;
+        int state;
+        /**The key of the value being read in a compound.*/
+        NBTString key = null;
+        /**The possible primitive array token while in the {@linkplain #TOKEN} state.*/
+        char token = 0;
+        /**<code>true</code> iff whitespace followed the opening bracket of a list.*/
+        boolean spaced = false;
+        Frame(final NBTValue value,final int state) {this.value = value; this.state = state;}
+    }
+    
+    private final Listener listener;
+    private final Dialect dialect;
+    private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+                                                                 .onMalformedInput(CodingErrorAction.REPORT)
+                                                                 .onUnmappableCharacter(CodingErrorAction.REPORT);
+    private final CharBuffer decoded = CharBuffer.allocate(1 << 12);
+    /**The bytes of a character which was split between chunks.*/
+    private final ByteBuffer partial = ByteBuffer.allocate(8);
+    
+    private final Stack<Frame> open = new Stack<>();
+    /**The key of the top-level tag being read, or <code>null</code>.*/
+    private NBTString tag = null;
+    /**The characters of the current token.*/
+    private char[] buf = new char[64];
+    private int length = 0;
+    /**The quote which opened the current token, or <code>0</code> if it is not a quoted string.*/
+    private char quote = 0;
+    private boolean escaped = false;
+    
+    /**
+     * Creates a parser which uses the {@linkplain Dialect#current() current}
+     * dialect.
+     * 
+     * @throws IllegalArgumentException The dialect uses the loose syntax of
+     *                                  versions before 17w16a.
+     */
+    public SNBTPushParser(final Listener listener) throws IllegalArgumentException {this(listener,Dialect.current());}
+    /**
+     * Creates a parser which uses the specified dialect.
+     * 
+     * @throws IllegalArgumentException The dialect uses the loose syntax of
+     *                                  versions before 17w16a.
+     */
+    public SNBTPushParser(final Listener listener,final Dialect dialect) throws IllegalArgumentException {
+        if(dialect.theWildWest)
+            throw new IllegalArgumentException("Cannot parse SNBT of version %s incrementally.".formatted(dialect));
+        this.listener = listener;
+        this.dialect = dialect;
+    }
+    
+    /**
+     * Consumes a chunk of text, reporting every value which it completes.
+     * 
+     * @throws NBTException The input is invalid or the listener aborted. The
+     *                      unfinished value is discarded.
+     */
+    @SuppressWarnings("try")
+    public void feed(final CharSequence chunk) throws NBTException {
+        try(final Dialect.Scope scope = dialect.bind()) {
+            for(int i = 0;i < chunk.length();++i) accept(chunk.charAt(i));
+        } catch(final NBTException e) {
+            reset();
+            throw e;
+        }
+    }
+    /**
+     * Decodes and consumes a chunk of UTF-8 bytes. Characters may be split between
+     * chunks.
+     * 
+     * @throws NBTException The input is not valid UTF-8 or SNBT, or the listener
+     *                      aborted. The unfinished value is discarded.
+     * 
+     * @see #feed(CharSequence)
+     */
+    public void feed(final byte[] b,int off,int len) throws NBTException {
+        // Complete the character which was split by the previous chunk.
+        while(partial.position() != 0 && len > 0) {
+            partial.put(b[off++]);
+            --len;
+            decode(partial.flip(),false);
+            partial.compact();
+        }
+        final ByteBuffer in = ByteBuffer.wrap(b,off,len);
+        decode(in,false);
+        partial.put(in);
+    }
+    /**@see #feed(byte[],int,int)*/
+    public void feed(final byte[] b) throws NBTException {feed(b,0,b.length);}
+    /**
+     * Ends the input, reporting the last value if it is a top-level value which
+     * was waiting for a character that cannot continue it. The parser is then
+     * ready for new input.
+     * 
+     * @throws NBTException The input ended in the middle of a value or character,
+     *                      the last value is invalid, or the listener aborted.
+     */
+    @SuppressWarnings("try")
+    public void finish() throws NBTException {
+        try {
+            decode(partial.flip(),true);
+            if(decoder.flush(decoded).isOverflow()) throw new IllegalStateException("Decoder flush overflowed.");
+            feed(decoded.flip());
+            if(partial.hasRemaining()) throw new NBTParsingException("Input ended in the middle of a character.");
+            if(length != 0 && quote == 0) try(final Dialect.Scope scope = dialect.bind()) {endToken(-1);}
+            if(length != 0 || !open.empty() || tag != null)
+                throw new NBTParsingException("Input ended in the middle of a value.");
+        } finally {reset();}
+    }
+    /**Discards all unfinished input.*/
+    public void reset() {
+        decoder.reset();
+        decoded.clear();
+        partial.clear();
+        open.clear();
+        tag = null;
+        length = 0;
+        quote = 0;
+        escaped = false;
+    }
+    
+    private void decode(final ByteBuffer in,final boolean end) throws NBTException {
+        CoderResult r;
+        do {
+            if((r = decoder.decode(in,decoded,end)).isError()) {
+                reset();
+                throw new NBTParsingException("Malformed UTF-8 input (%d bytes).".formatted(r.length()));
+            }
+            feed(decoded.flip());
+            decoded.clear();
+        } while(r.isOverflow());
+    }
+    
+    private static NBTParsingException unexpected(final char c) {
+        return new NBTParsingException("Unexpected character '%c'.".formatted(c));
+    }
+    private static boolean expectsKey(final Frame f) {return f != null && (f.state == KEY || f.state == NEXT_KEY);}
+    private static boolean expectsValue(final Frame f) {
+        return f == null || switch(f.state) {
+            case VALUE,FIRST,OPEN,ELEMENT -> true;
+            default -> false;
+        };
+    }
+    
+    private void accept(final char c) throws NBTException {
+        if(quote != 0) {
+            append(c);
+            if(escaped) escaped = false;
+            else if(c == '\\') escaped = true;
+            else if(c == quote) {
+                quote = 0;
+                endToken(-1);
+            }
+            return;
+        }
+        if(length != 0) {
+            if(NBTString.allowUnwrapped(c)) {append(c); return;}
+            if(endToken(c)) return;
+        }
+        final Frame f = open.top();
+        if(Character.isWhitespace(c)) {
+            if(f != null && f.state == FIRST) f.spaced = true;
+            return;
+        }
+        if(f != null && f.state == TOKEN) {
+            if(c == NBTPrimitiveArray.TOKEN_SEPARATOR) {header(f,f.token); return;}
+            complete(NBTValue.parse(new Sequence(f.token).iterator(),null,false));
+        }
+        final boolean quoted = Sequence.isStringWrapper(c,dialect.singleQuotes);
+        if(quoted || NBTString.allowUnwrapped(c)) {
+            if(!expectsKey(f) && !expectsValue(f)) throw unexpected(c);
+            if(quoted) quote = c;
+            append(c);
+            return;
+        }
+        switch(c) {
+            case '{' -> {
+                if(!expectsValue(f)) throw unexpected(c);
+                open.push(new Frame(new NBTObject(),KEY));
+            }
+            case '[' -> {
+                if(!expectsValue(f)) throw unexpected(c);
+                open.push(new Frame(new NBTArray(),FIRST));
+            }
+            case '}' -> {
+                if(f == null || !(f.value instanceof NBTObject) || f.state != KEY && f.state != END) throw unexpected(c);
+                open.pop();
+                complete(f.value);
+            }
+            case ']' -> {
+                if(
+                    f == null || !(f.value instanceof NBTArray a) ||
+                    !(f.state == FIRST || f.state == OPEN || f.state == END || f.state == ELEMENT && dialect.trailingComma)
+                ) throw unexpected(c);
+                open.pop();
+                complete(NBTPrimitiveList.specialise(a));
+            }
+            case ',' -> {
+                if(f == null || f.state != END) throw unexpected(c);
+                f.state = f.value instanceof NBTObject? NEXT_KEY : ELEMENT;
+            }
+            case ':' -> {
+                if(f == null || f.state != SEPARATOR) throw unexpected(c);
+                f.state = VALUE;
+            }
+            default -> throw unexpected(c);
+        }
+    }
+    private void append(final char c) {
+        if(length == buf.length) buf = Arrays.copyOf(buf,length * 2);
+        buf[length++] = c;
+    }
+    
+    /**
+     * Converts the current token.
+     * 
+     * @param c The character which ended the token, or <code>-1</code> if the
+     *          token ended by itself.
+     * 
+     * @return <code>true</code> iff the character was consumed as part of the token.
+     */
+    private boolean endToken(final int c) throws NBTException {
+        // Values may share the token's characters, so the buffer is not reused.
+        final Sequence s = new Sequence(Arrays.copyOf(buf,length));
+        length = 0;
+        final Frame f = open.top();
+        if(f == null) {
+            if(c == NBTTag.SEPARATOR && tag == null) {
+                tag = key(s);
+                return true;
+            }
+        } else if(expectsKey(f)) {
+            f.key = key(s);
+            f.state = SEPARATOR;
+            return false;
+        } else if(f.state == FIRST && isArrayToken(s) && (dialect.tokenWhitespace || !f.spaced)) {
+            if(c == NBTPrimitiveArray.TOKEN_SEPARATOR) {
+                header(f,s.charAt(0));
+                return true;
+            }
+            if(dialect.tokenWhitespace && c != -1 && Character.isWhitespace((char)c)) {
+                f.token = s.charAt(0);
+                f.state = TOKEN;
+                return false;
+            }
+        }
+        complete(NBTValue.parse(s.iterator(),null,false));
+        return false;
+    }
+    private boolean isArrayToken(final Sequence s) {
+        return dialect.primitiveArrays && s.length() == 1 && switch(s.charAt(0)) {
+            case NBTByte.ARRAY_TOKEN,NBTInt.ARRAY_TOKEN,NBTLong.ARRAY_TOKEN -> true;
+            default -> false;
+        };
+    }
+    private static NBTString key(final Sequence s) throws NBTParsingException {
+        final NBTString k = NBTString.parse(s.iterator(),null,false);
+        if(k.unwrapped().isEmpty()) throw new NBTParsingException("Blank key");
+        return k;
+    }
+    private static void header(final Frame f,final char token) throws NBTException {
+        f.value = switch(token) {
+            case NBTByte.ARRAY_TOKEN -> new NBTByteArray();
+            case NBTInt.ARRAY_TOKEN -> new NBTIntArray();
+            default -> new NBTLongArray();
+        };
+        f.state = OPEN;
+    }
+    /**Adds a completed value to the open collection, or reports it if it is a top-level value.*/
+    private void complete(final NBTValue v) throws NBTException {
+        final Frame f = open.top();
+        if(f == null) {
+            final NBT out = tag == null? v : new NBTTag(tag,v);
+            tag = null;
+            listener.value(out);
+            return;
+        }
+        if(f.value instanceof NBTObject o) o.set(f.key,v);
+        else try {((NBTArray)f.value).add(v);}
+        catch(final NBTConversionException e) {throw new NBTParsingException("Error while converting value",e);}
+        f.key = null;
+        f.state = END;
+    }
+}
@@ -2,6 +2,7 @@ package nbt.value;
 
 import java.io.DataInput;
 import java.io.IOException;
+import nbt.Dialect;
 import nbt.exception.NBTConversionException;
 import nbt.exception.NBTParsingException;
 import nbt.value.number.NBTByte;
@@ -10,7 +11,7 @@ import nbt.value.number.NBTFloat;
 import nbt.value.number.NBTInt;
 import nbt.value.number.NBTLong;
 import nbt.value.number.NBTShort;
-import settings.Version;
+import settings.Settings;
 import util.string.Sequence;
 import util.string.Sequence.SequenceIterator;
 
@@ -24,13 +25,6 @@ public class NBTBool extends NBTByte {
     public static final ValueType TYPE = ValueType.BOOL;
     @Override public ValueType type() {return TYPE;}
     
-    /**
-     * Causes <code>toSequence()</code> to output "<code>true</code>" or
-     * "<code>false</code>" instead of "<code>1b</code>" or "<code>0b</code>" when
-     * not minimal.
-     */
-    public static final boolean STRING_OUTPUT = Version.atLeast(Version.unknown);
-    
     public static final Sequence TRUE_SEQUENCE,FALSE_SEQUENCE,
                                  TRUE_BYTE,FALSE_BYTE,
                                  TRUE_BYTE_MIN,FALSE_BYTE_MIN;
@@ -75,20 +69,23 @@ public class NBTBool extends NBTByte {
     public NBTBool(final DataInput in) throws IOException {this(in.readBoolean());}
     
     /**@return The value of this boolean value.*/
-    public boolean getValue() {return value.intValue() != 0;}
+    public boolean getValue() {return value != 0;}
     
     @Override
     public NBTBool setValue(final byte value) {
         this.value = value != 0? 1 : 0;
+        markDirty();
         return this;
     }
     @Override
     public NBTBool setValue(final int value) {
         this.value = value != 0? 1 : 0;
+        markDirty();
         return this;
     }
     public NBTBool setValue(final boolean value) {
         this.value = value? 1 : 0;
+        markDirty();
         return this;
     }
     
@@ -109,20 +106,55 @@ public class NBTBool extends NBTByte {
     
     @Override
     protected Sequence complete() {
+        final boolean strings = Dialect.current().booleanStrings;
         return getValue()
-            ? (STRING_OUTPUT? TRUE_SEQUENCE : TRUE_BYTE)
-            : (STRING_OUTPUT? FALSE_SEQUENCE : FALSE_BYTE);
+            ? (strings? TRUE_SEQUENCE : TRUE_BYTE)
+            : (strings? FALSE_SEQUENCE : FALSE_BYTE);
     }
     @Override protected Sequence minimal() {return getValue()? TRUE_BYTE_MIN : FALSE_BYTE_MIN;}
     
     @Override public Sequence toSequence() {return minimal? minimal() : complete();}
     
+    @Override public NBTValue intern() {return localDefault == GLOBAL_DEFAULT? valueOf(getValue(),minimal) : this;}
+    
+    /**A canonical boolean value which is shared between trees.*/
+    private static final class Shared extends NBTBool {
+        private Shared(final boolean value,final boolean minimal) {
+            super(value);
+            this.minimal = minimal;
+        }
+        
+        @Override public boolean isShared() {return true;}
+        @Override
+        public NBTValue unshare() {
+            final NBTBool b = new NBTBool(getValue());
+            b.minimal = minimal;
+            return b;
+        }
+        @Override public NBTBool setValue(final byte value) {throw immutable();}
+        @Override public NBTBool setValue(final int value) {throw immutable();}
+        @Override public NBTBool setValue(final boolean value) {throw immutable();}
+        @Override public NBTBool setDefault(final byte localDefault) {throw immutable();}
+        @Override public NBTBool setDefault(final int localDefault) {throw immutable();}
+        @Override public NBTBool setDefault(final boolean localDefault) {throw immutable();}
+        @Override public void setDeepMinimal(final boolean minimal) {}
+        @Override protected void markClean() {}
+    }
+    private static final NBTBool TRUE_MINIMAL = new Shared(true,true),TRUE_COMPLETE = new Shared(true,false),
+                                 FALSE_MINIMAL = new Shared(false,true),FALSE_COMPLETE = new Shared(false,false);
+    /**@return The {@linkplain NBTValue#isShared() shared} instance of the value.*/
+    public static NBTBool valueOf(final boolean value,final boolean minimal) {
+        return value? (minimal? TRUE_MINIMAL : TRUE_COMPLETE) : (minimal? FALSE_MINIMAL : FALSE_COMPLETE);
+    }
+    /**@return The {@linkplain NBTValue#isShared() shared} instance of the value with default minimalism.*/
+    public static NBTBool valueOf(final boolean value) {return valueOf(value,Settings.defaultMinimal());}
+    
     @Override
     public NBTValue convertTo(final ValueType type) throws NBTConversionException {
         try {
             return switch(type) {
                 case BYTE,SHORT,INT,LONG,FLOAT,DOUBLE -> {
-                    final int v = value.intValue();
+                    final int v = value;
                     yield switch(type) {
                         case BYTE   -> new NBTByte  (v,minimal);
                         case SHORT  -> new NBTShort (v,minimal);
@@ -141,9 +173,43 @@ public class NBTBool extends NBTByte {
         catch(final NBTParsingException e) {throw new NBTConversionException(TYPE,type,e);}
     }
     
+    /**
+     * Parses a boolean without throwing an exception if the input is not a
+     * boolean. The iterator is left in an unspecified position if
+     * <code>null</code> is returned.
+     * 
+     * @param i          A {@linkplain SequenceIterator} which points to the
+     *                   first character of the boolean sequence.
+     * @param terminator A character which marks the end of a structure.
+     *                   <code>null</code> indicates the end of the sequence.
+     * @param commas     <code>true</code> iff commas are allowed to terminate a
+     *                   value.
+     * 
+     * @return The appropriate {@linkplain NBTBool}, or <code>null</code> if the
+     *         input is not a boolean followed by a terminator.
+     * 
+     * @implNote This function does not consider numeric values. These should be
+     *           handled by {@linkplain NBTByte}.
+     */
+    public static NBTBool tryParse(final SequenceIterator i,
+                                   final Character terminator,
+                                   final boolean commas) {
+        final boolean parity;
+        switch(i.peekChar()) {
+            case 't','T' -> parity = true;
+            case 'f','F' -> parity = false;
+            default -> {return null;}
+        }
+        final Sequence match = parity? TRUE_SEQUENCE : FALSE_SEQUENCE;
+        for(int k = 1;k < match.length();++k) {
+            final int c = i.nextChar();
+            if(c == SequenceIterator.EOF || Character.toLowerCase(c) != match.charAt(k)) return null;
+        }
+        return SequenceIterator.terminates(i.nextNonWSChar(),terminator,commas)? new NBTBool(parity) : null;
+    }
     /**
      * @param i          A {@linkplain SequenceIterator} which points to the
-     *                   position just before the boolean sequence.
+     *                   first character of the boolean sequence.
      * @param terminator A character which marks the end of a structure.
      *                   <code>null</code> indicates the end of the sequence.
      * @param commas     <code>true</code> iff commas are allowed to terminate a
@@ -153,31 +219,15 @@ public class NBTBool extends NBTByte {
      * 
      * @throws NBTParsingException The iterator cannot find a valid boolean.
      * 
-     * @implNote This function does not consider numeric values. These should be
-     *           handled by {@linkplain NBTByte}.
+     * @see #tryParse(SequenceIterator,Character,boolean)
      */
     public static NBTBool parse(final SequenceIterator i,
                                 final Character terminator,
                                 final boolean commas)
                                 throws NBTParsingException {
-        final boolean parity = switch(i.peek()) {
-            case 't','T' -> true;
-            case 'f','F' -> false;
-            default -> throw new NBTParsingException(
-                "Invalid boolean character '%c' ('\\u%04X')"
-                .formatted(i.peek(),(int)i.peek()),i
-            );
-        };
-        final SequenceIterator match = (parity? TRUE_SEQUENCE : FALSE_SEQUENCE).iterator();
-        while(match.hasNext())
-            if(match.next().charValue() != Character.toLowerCase(i.next()))
-                throw new NBTParsingException(
-                    "Invalid boolean character '%c' ('\\u%04X')"
-                    .formatted(i.peek(),(int)i.peek()),i
-                );
-        final Character c = i.nextNonWS();
-        if(!(commas && c == ',') && c != terminator)
-            throw new NBTParsingException("boolean",i,terminator,commas,c);
-        return new NBTBool(parity);
+        final int start = i.index();
+        final NBTBool b = tryParse(i,terminator,commas);
+        if(b == null) throw new NBTParsingException("Invalid boolean",i.jumpTo(start));
+        return b;
     }
 }
\ No newline at end of file
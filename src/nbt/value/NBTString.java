@@ -1,13 +1,15 @@
 package nbt.value;
 
 import static util.string.Sequence.EMPTY;
+import static util.string.Sequence.SequenceIterator.EOF;
 
 import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
+import nbt.Dialect;
 import nbt.exception.NBTParsingException;
+import nbt.stream.NBTBufferOutput;
 import nbt.value.number.NBTNumber;
-import settings.Version;
 import util.container.NodeIterator;
 import util.container.Stack;
 import util.string.Sequence;
@@ -23,42 +25,14 @@ public class NBTString extends NBTValue implements Comparable<NBTString> {
     public static final ValueType TYPE = ValueType.STRING;
     @Override public ValueType type() {return TYPE;}
     
-    /* ========================= Inactive Flags ========================= */
-    // These flags are simply for future-proofing. The features they enable
-    // are not currently in the game.
-    
-    /**Enables parsing unicode escape sequences.*/
-    public static final boolean UNICODE_ENABLED = Version.atLeast(Version.unknown);
-    /**
-     * Enables replacing non-ASCII characters with unicode. Requires
-     * {@linkplain #UNICODE_ENABLED}
-     */
-    public static final boolean ESCAPE_UNICODE = Version.atLeast(Version.unknown);
-    /**Allows escape codes used in the Java specification.*/
-    public static final boolean ALLOW_JAVA_ESCAPES = Version.atLeast(Version.unknown);
-    /* ================================================================== */
-    
-    /**
-     * Allows strings to be wrapped in single quotes.
-     * 
-     * @see Version#v19w08a
-     */
-    public static final boolean SINGLE_QUOTES_ENABLED = Version.atLeast(Version.v19w08a);
     /**@return <code>true</code> iff the character matches a valid string wrapper.*/
-    public static boolean isStringWrapper(final char c) {return Sequence.isStringWrapper(c,SINGLE_QUOTES_ENABLED);}
+    public static boolean isStringWrapper(final char c) {return Sequence.isStringWrapper(c,Dialect.current().singleQuotes);}
     
     /**@return <code>true</code> iff the character whitespace or not an ISO control character.*/
     public static final boolean isPrintable(final char c) {
         return Character.isWhitespace(c) || !Character.isISOControl(c);
     }
     
-    /**
-     * Causes the parser to consider any sequence of characters ending at a
-     * top-level comma or closing character as an unwrapped sequence, in addition to
-     * the normal quoted strings.
-     */
-    public static final boolean THE_WILD_WEST = Version.isBefore(Version.v17w16a);
-    
     public static final Sequence GLOBAL_DEFAULT = Sequence.EMPTY;
     public static final char DEFAULT_QUOTE_STYLE = '"';
     protected Sequence value,localDefault = GLOBAL_DEFAULT;
@@ -138,19 +112,36 @@ public class NBTString extends NBTValue implements Comparable<NBTString> {
      */
     public NBTString(final String value,final boolean minimal) throws NBTParsingException {super(minimal); setValue(value);}
     /**
-     * Reads a string value.
+     * Reads a string value. Binary strings are stored unescaped, so they are not
+     * validated as SNBT.
      * 
      * @throws IOException The value could not be read.
      * @throws NBTParsingException The input does not represent a valid SNBT string.
      */
-    public NBTString(final DataInput in) throws IOException,NBTParsingException {super(); setValue(in.readUTF());}
+    public NBTString(final DataInput in) throws IOException,NBTParsingException {super(); value = new Sequence(in.readUTF());}
+    /**
+     * Creates a string value from unescaped characters without validating them as
+     * SNBT, as is done for binary strings.
+     * 
+     * @throws NullPointerException The value is <code>null</code>.
+     */
+    public static NBTString unescaped(final Sequence value) throws NullPointerException {
+        if(value == null) throw new NullPointerException("Cannot assign a null value.");
+        // Bypass constructor checks.
+        final NBTString s = new NBTString();
+        s.value = value;
+        return s;
+    }
     /**
      * Writes this string value.
      * 
      * @throws IOException The string could not be written.
      */
     @Override
-    public void write(final DataOutput out) throws IOException {out.writeUTF(value.toString());}
+    public void write(final DataOutput out) throws IOException {
+        if(out instanceof NBTBufferOutput b) b.writeUTF(value);
+        else out.writeUTF(value.toString());
+    }
     /**
      * Parses a string value. The minimalism is set to <code>true</code> if the
      * string is wrapped.
@@ -160,7 +151,7 @@ public class NBTString extends NBTValue implements Comparable<NBTString> {
     public NBTString(final SequenceIterator i) throws NBTParsingException {
         value = eatSequence(i,null);
         // Determine if string is wrapped.
-        if(!(minimal = !(value.isWrappedIn('"') || SINGLE_QUOTES_ENABLED && value.isWrappedIn('\''))))
+        if(!(minimal = !(value.isWrappedIn('"') || Dialect.current().singleQuotes && value.isWrappedIn('\''))))
             value = value.unwrapAndUnescape();
     }
     
@@ -172,7 +163,7 @@ public class NBTString extends NBTValue implements Comparable<NBTString> {
      * @return <code>this</code>
      */
     public NBTString setQuoteStyle(final boolean single) {
-        if(SINGLE_QUOTES_ENABLED && single) quoteStyle = '\'';
+        if(Dialect.current().singleQuotes && single) quoteStyle = '\'';
         return this;
     }
     
@@ -193,15 +184,15 @@ public class NBTString extends NBTValue implements Comparable<NBTString> {
             start = i.index() + 1;
             end = -1;
             while(i.hasNext()) {
-                final char c = i.next();
+                final char c = (char)i.nextChar();
                 if(c == '\\') {
                     if(!i.hasNext()) break;
-                    final char nc = i.next();
+                    final char nc = (char)i.nextChar();
                     if(nc == '\\' || nc == wrapper)
                         escapes.push(i.index());
                 } else if(c == wrapper) {
                     end = i.index();
-                    i.nextNonWS();
+                    i.nextNonWSChar();
                     break;
                 }
             }
@@ -218,14 +209,15 @@ public class NBTString extends NBTValue implements Comparable<NBTString> {
             end = start;
             
             while(i.hasNext()) {
-                final Character c = i.nextNonWS();
-                if(c == null) break;
+                final int n = i.nextNonWSChar();
+                if(n == EOF) break;
+                final char c = (char)n;
                 // Record the position after the last known non-whitespace.
                 // character.
                 end = i.index();
                 if(c == '\\') {
                     if(!i.hasNext()) break;
-                    final char nc = i.next();
+                    final char nc = (char)i.nextChar();
                     if(Character.isWhitespace(nc)) continue;
                     ++end; // Another non-whitespace character is guaranteed.
                     // Check for closing quote.
@@ -238,10 +230,10 @@ public class NBTString extends NBTValue implements Comparable<NBTString> {
                     escapes.push(i.index());
                 }
                 // Check for matching structure character.
-                else if(c == top) top = nesting.empty()? null : nesting.pop(); // Pop structure from stack.
+                else if(top != null && c == top) top = nesting.empty()? null : nesting.pop(); // Pop structure from stack.
                 // Check characters outside of quotes.
                 else if(top == null || !isStringWrapper(top)) {
-                    if(top == null && (c == ',' || c == terminator)) break;
+                    if(top == null && SequenceIterator.terminates(c,terminator,true)) break;
                     // Closing characters would have already have been detected by
                     // the '== top' condition. This indicates an imbalance.
                     if(Sequence.isClose(c))
@@ -265,12 +257,11 @@ public class NBTString extends NBTValue implements Comparable<NBTString> {
                 throw new NBTParsingException(
                     "End of sequence reached before closing character '%c' found"
                     .formatted(top),
-                    end,i.getParent()
+                    i
                 );
         }
-        final Sequence parent = i.getParent();
         // Skip post-processing if there were no eaten escape characters.
-        if(escapes.empty()) return parent.subSequence(start,end);
+        if(escapes.empty()) return i.subSequence(start,end);
         
         // The output size is the number of characters between the first
         // and last characters excepting the eaten escape characters.
@@ -278,36 +269,38 @@ public class NBTString extends NBTValue implements Comparable<NBTString> {
         int cursor = buf.length; // Current index in the output.
         for(final int nxt : escapes) {
             // Copy the region between the two eaten escapes.
-            parent.subSequence(nxt,end).copyInto(buf,cursor -= end - nxt);
+            i.subSequence(nxt,end).copyInto(buf,cursor -= end - nxt);
             end = nxt - 1;
         }
         // Copy the remaining characters.
-        parent.subSequence(start,end).copyInto(buf,0);
+        i.subSequence(start,end).copyInto(buf,0);
         return new Sequence(buf);
     }
     private static Sequence eatSequence(final SequenceIterator i,
                                         final Character terminator)
                                         throws NBTParsingException {
-        final Character wrapper = i.skipWS();
-        if(wrapper == null) {
+        final Dialect d = Dialect.current();
+        final int first = i.skipWSChar();
+        if(first == EOF) {
             // Before 17w16a, empty sequences are allowed to be strings.
-            if(THE_WILD_WEST) return new Sequence();
+            if(d.theWildWest) return new Sequence();
             throw new NBTParsingException("Empty sequence",i);
         }
+        final char wrapper = (char)first;
         i.mark();
-        if(THE_WILD_WEST) return eatWildWestSequence(i,wrapper,terminator);
-        if(isStringWrapper(wrapper)) {
+        if(d.theWildWest) return eatWildWestSequence(i,wrapper,terminator);
+        if(Sequence.isStringWrapper(wrapper,d.singleQuotes)) {
             if(!i.hasNext()) // Ensure that there are more characters.
                 throw new NBTParsingException("Missing ending quote",i);
             final Stack<Integer> chars,indices;
-            if(UNICODE_ENABLED && ESCAPE_UNICODE) {chars = new Stack<>(); indices = new Stack<>();}
+            if(d.escapeUnicode) {chars = new Stack<>(); indices = new Stack<>();}
             else chars = indices = null;
             {
                 boolean escaped = false;
                 int unicode = 0;
-                char c = i.next();
+                char c = (char)i.nextChar();
                 while(i.hasNext()) {
-                    if(UNICODE_ENABLED) {
+                    if(d.unicode) {
                         if(unicode != 0) { // Skip 4 hex characters.
                             if(!Sequence.allowUnicodeHex(c))
                                 throw new NBTParsingException(
@@ -326,7 +319,7 @@ public class NBTString extends NBTValue implements Comparable<NBTString> {
                             unicode != 4 && !(
                                 c == wrapper ||
                                 c == '\\' ||
-                                ALLOW_JAVA_ESCAPES && Sequence.isJavaEscape(c)
+                                d.javaEscapes && Sequence.isJavaEscape(c)
                             )
                         ) throw new NBTParsingException(
                             "Invalid escape character '%c' ('\\u%04d')"
@@ -342,23 +335,23 @@ public class NBTString extends NBTValue implements Comparable<NBTString> {
                             "Invalid character '\\u%04X'"
                             .formatted((int)c),i
                         );
-                    else if(UNICODE_ENABLED && ESCAPE_UNICODE && c > '\u007F') { // Check for non-ASCII.
+                    else if(d.escapeUnicode && c > '\u007F') { // Check for non-ASCII.
                         chars.push((int)c);
                         indices.push(i.index());
                     } else if(!(escaped = c == '\\') && c == wrapper) // Check for un-escaped quote.
                         break;
                     // Ignore everything else.
-                    c = i.next(); // Should never return null because of while condition.
+                    c = (char)i.nextChar(); // Should never be EOF because of while condition.
                 }
             }
             // Ensure there's a terminating quote.
-            if(i.peek() != wrapper) throw new NBTParsingException("Missing ending quote",i);
+            if(i.peekChar() != wrapper) throw new NBTParsingException("Missing ending quote",i);
             // Advance past the quote.
-            i.next();
+            i.nextChar();
             final Sequence value = i.subSequence();
             // Return immediately if none of the characters were translated into unicode
             // escape sequences.
-            if(!(UNICODE_ENABLED && ESCAPE_UNICODE) || chars.size() == 0) return value;
+            if(!d.escapeUnicode || chars.size() == 0) return value;
             
             // Buffer size is the number of characters in the original sequence, plus 5
             // times the number of added unicode sequences. This accounts for one
@@ -392,8 +385,11 @@ public class NBTString extends NBTValue implements Comparable<NBTString> {
             return new Sequence(buf);
         }
         // Check unwrapped string for invalid characters.
-        if(allowUnwrapped(wrapper))
-            while(i.hasNext() && allowUnwrapped(i.next()));
+        if(allowUnwrapped(wrapper)) {
+            while(i.hasNext()) if(!allowUnwrapped((char)i.nextChar())) return i.subSequence();
+            // Advance past the last character so that it is included.
+            i.nextChar();
+        }
         return i.subSequence();
     }
     /**Ensures that the input sequence is valid and unwraps if necessary.*/
@@ -401,7 +397,7 @@ public class NBTString extends NBTValue implements Comparable<NBTString> {
         final SequenceIterator i = value.iterator();
         value = eatSequence(i,null);
         if(i.hasNext()) throw new NBTParsingException("Trailing data found",i);
-        return value.isWrappedIn('"') || SINGLE_QUOTES_ENABLED && value.isWrappedIn('\'')
+        return value.isWrappedIn('"') || Dialect.current().singleQuotes && value.isWrappedIn('\'')
             ? value.unwrapAndUnescape()
             : value;
     }
@@ -415,6 +411,7 @@ public class NBTString extends NBTValue implements Comparable<NBTString> {
      */
     public NBTString setValue(final Sequence value) throws NBTParsingException {
         this.value = validate(checkNN(value));
+        markDirty();
         return this;
     }
     /**
@@ -426,6 +423,7 @@ public class NBTString extends NBTValue implements Comparable<NBTString> {
      */
     public NBTString setValue(final char...value) throws NBTParsingException {
         this.value = checkNN(value).length == 0? EMPTY : validate(new Sequence(value));
+        markDirty();
         return this;
     }
     /**
@@ -437,6 +435,7 @@ public class NBTString extends NBTValue implements Comparable<NBTString> {
      */
     public NBTString setValue(final String value) throws NBTParsingException {
         this.value = checkNN(value).isEmpty()? EMPTY : validate(new Sequence(value));
+        markDirty();
         return this;
     }
     
@@ -493,14 +492,15 @@ public class NBTString extends NBTValue implements Comparable<NBTString> {
     /**@return <code>true</code> iff the value necessarily must be wrapped.*/
     public static boolean forceWrap(final Sequence str) {
         if(str == null) return false;
+        final boolean wildWest = Dialect.current().theWildWest;
         if(
-            !THE_WILD_WEST && str.isEmpty() ||
+            !wildWest && str.isEmpty() ||
             Character.isWhitespace(str.charAt(0)) ||
             Character.isWhitespace(str.charAt(-1)) ||
             str.equals(NBTBool.TRUE_SEQUENCE) ||
             str.equals(NBTBool.FALSE_SEQUENCE)
         ) return true;
-        if(THE_WILD_WEST) {
+        if(wildWest) {
             final Stack<Character> nesting = new Stack<>();
             Character top = null;
             for(
@@ -580,12 +580,12 @@ public class NBTString extends NBTValue implements Comparable<NBTString> {
                                   final boolean commas) 
                                   throws NBTParsingException {
         final Sequence str = eatSequence(i,terminator);
-        final Character c = i.skipWS();
-        if(!(commas && c == ',') && c != terminator)
+        final int c = i.skipWSChar();
+        if(!SequenceIterator.terminates(c,terminator,commas))
             throw new NBTParsingException("string",i,terminator,commas,c);
         // Bypass constructor checks.
         final NBTString s = new NBTString();
-        s.value = str.isWrappedIn('"') || SINGLE_QUOTES_ENABLED && str.isWrappedIn('\'')
+        s.value = str.isWrappedIn('"') || Dialect.current().singleQuotes && str.isWrappedIn('\'')
                 ? str.unwrapAndUnescape()
                 : str;
         return s;
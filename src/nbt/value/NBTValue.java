@@ -1,13 +1,17 @@
 package nbt.value;
 
+import java.io.IOException;
+import nbt.Dialect;
 import nbt.NBT;
 import nbt.exception.NBTConversionException;
 import nbt.exception.NBTParsingException;
 import nbt.value.collection.NBTArray;
+import nbt.value.collection.NBTCollection;
 import nbt.value.collection.NBTObject;
 import nbt.value.number.NBTNumber;
 import util.string.Sequence;
 import util.string.Sequence.SequenceIterator;
+import util.string.outline.OutlineWriter;
 import util.string.outline.Segment;
 import util.string.outline.ValueSegment;
 
@@ -44,6 +48,7 @@ public abstract class NBTValue extends NBT {
     /**@return A representation of this NBT as a character sequence.*/
     public Sequence toSequence() {return minimal? minimal() : complete();}
     @Override public Segment toSegment() {return new ValueSegment(toSequence());}
+    @Override public void outline(final OutlineWriter w) throws IOException {w.value(toSequence());}
     
     /**@see ValueType#convert(NBTValue,ValueType)*/
     public NBTValue convertTo(final ValueType type)
@@ -51,6 +56,28 @@ public abstract class NBTValue extends NBT {
         return ValueType.convert(this,type);
     }
     
+    /**
+     * @return <code>true</code> iff this value is a canonical instance which is
+     *         shared between trees. Shared values cannot be modified, and their
+     *         {@linkplain #minimal} field must not be assigned, but
+     *         {@linkplain NBTCollection#edit} replaces them with a private copy.
+     */
+    public boolean isShared() {return false;}
+    /**@return A modifiable copy of this value if it is shared, otherwise <code>this</code>.*/
+    public NBTValue unshare() {return this;}
+    /**
+     * Replaces this value with an equal {@linkplain #isShared() shared} instance
+     * where one exists. Collections intern their children in place instead, so a
+     * tree which will only be read can drop its duplicate small values.
+     * 
+     * @return The shared instance, or <code>this</code>.
+     */
+    public NBTValue intern() {return this;}
+    /**@return The exception thrown by the mutators of shared values.*/
+    protected static UnsupportedOperationException immutable() {
+        return new UnsupportedOperationException("Shared values cannot be modified.");
+    }
+    
     /**
      * Uses the iterator to parse the next value. The iterator's position following
      * this call will be at the last character of the parsed value.
@@ -70,15 +97,28 @@ public abstract class NBTValue extends NBT {
                                  final Character terminator,
                                  final boolean commas)
                                  throws NBTParsingException {
-        if(i.skipWS() == null)
+        final int first = i.skipWSChar();
+        if(first == SequenceIterator.EOF)
             throw new NBTParsingException("Cannot parse an empty value.");
         final int start = i.index();
-        NBTValue v = null;
-        try {v = parseNotString(i,terminator,commas);}
-        catch(final NBTParsingException e) {}
+        NBTValue v = switch(first) {
+            case 't','f','T','F' -> NBTBool.tryParse(i,terminator,commas);
+            case '+','-','.','0','1','2','3',
+                 '4','5','6','7','8','9' -> NBTNumber.tryParse(i,terminator,commas);
+            case '{','[' -> {
+                // Collections cannot be confused with unwrapped strings, so their
+                // errors are genuine. Older versions are lenient enough for this
+                // to be ambiguous.
+                if(!Dialect.current().theWildWest) yield parseNotString(i,terminator,commas);
+                try {yield parseNotString(i,terminator,commas);}
+                catch(final NBTParsingException e) {yield null;}
+            }
+            default -> null;
+        };
+        // Anything else is a string.
         if(v == null) v = NBTString.parse(i.jumpTo(start),terminator,commas);
-        final Character c = i.skipWS();
-        if(!(commas && c == ',') && c != terminator)
+        final int c = i.skipWSChar();
+        if(!SequenceIterator.terminates(c,terminator,commas))
             throw new NBTParsingException("value",i,terminator,commas,c);
         return v;
     }
@@ -102,7 +142,7 @@ public abstract class NBTValue extends NBT {
                                           final Character terminator,
                                           final boolean commas)
                                           throws NBTParsingException {
-        return switch(i.peek()) {
+        return switch(i.peekChar()) {
             case 't','f','T','F' -> NBTBool.parse(i,terminator,commas);
             case '{' -> NBTObject.parse(i,terminator,commas);
             case '[' -> NBTArray.parse(i,terminator,commas);
@@ -4,6 +4,7 @@ import java.util.Set;
 
 import java.io.DataInput;
 import java.io.IOException;
+import nbt.Dialect;
 import nbt.exception.NBTConversionException;
 import nbt.exception.NBTException;
 import nbt.exception.NBTParsingException;
@@ -19,7 +20,6 @@ import nbt.value.number.NBTInt;
 import nbt.value.number.NBTLong;
 import nbt.value.number.NBTNumber;
 import nbt.value.number.NBTShort;
-import settings.Version;
 
 /**
  * An enumeration of value types. In addition to identification, these also help
@@ -82,6 +82,15 @@ public enum ValueType {
             );
         }
     }
+    /**
+     * Reads a value of this type in the specified dialect.
+     * 
+     * @throws NBTException The value could not be read for any reason.
+     */
+    @SuppressWarnings("try")
+    public NBTValue read(final DataInput in,final Dialect dialect) throws NBTException {
+        try(final Dialect.Scope scope = dialect.bind()) {return read(in);}
+    }
     
     /**A set containing the {@linkplain ValueType}s of NBTs inheriting from {@linkplain NBTNumber}.*/
     public static final Set<ValueType> NUMERIC = Set.of(BYTE,SHORT,INT,LONG,FLOAT,DOUBLE);
@@ -105,7 +114,7 @@ public enum ValueType {
         if(type == target) return value;
         // Anything can be converted to a string.
         if(target == STRING) {
-            try {return new NBTString(value.toSequence(),value.minimal);}
+            try {return new NBTString(value.toSequence(),value.isMinimal());}
             catch(final NBTParsingException e) {throw new NBTConversionException(type,target,e);}
         }
         // Booleans and numeric values can be converted interchangeably.
@@ -116,7 +125,12 @@ public enum ValueType {
     }
     
     /**Converts a byte id into a type, or <code>null</code> iff no type with that id exists.*/
-    public static ValueType getType(final byte i) {
+    public static ValueType getType(final byte i) {return getType(i,Dialect.current());}
+    /**
+     * Converts a byte id into a type, or <code>null</code> iff no type with that
+     * id exists in the dialect.
+     */
+    public static ValueType getType(final byte i,final Dialect dialect) {
         return switch(i) {
             case  1 -> BYTE;
             case  2 -> SHORT;
@@ -129,7 +143,7 @@ public enum ValueType {
             case  9 -> ARRAY;
             case 10 -> OBJECT;
             case 11 -> INT_ARRAY;
-            case 12 -> Version.atLeast(Version.v17w16a)? LONG_ARRAY : null;
+            case 12 -> dialect.primitiveArrays? LONG_ARRAY : null;
             default -> null;
         };
     }
@@ -150,4 +164,14 @@ public enum ValueType {
         }
         return v.read(in);
     }
+    /**
+     * Reads a complete value in the specified dialect.
+     * 
+     * @throws NBTException The value contained an unknown type or
+     *                      {@linkplain #read(DataInput)} could not read the input.
+     */
+    @SuppressWarnings("try")
+    public static NBTValue infer(final DataInput in,final Dialect dialect) throws NBTException {
+        try(final Dialect.Scope scope = dialect.bind()) {return infer(in);}
+    }
 }
\ No newline at end of file
@@ -6,17 +6,20 @@ import java.util.Iterator;
 import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
+import nbt.Dialect;
 import nbt.NBT;
 import nbt.exception.NBTConversionException;
 import nbt.exception.NBTException;
 import nbt.exception.NBTParsingException;
+import nbt.stream.NBTReader;
+import nbt.stream.NBTTreeBuilder;
 import nbt.value.NBTValue;
 import nbt.value.ValueType;
-import settings.Version;
 import util.string.Joiner;
 import util.string.Sequence;
 import util.string.Sequence.SequenceIterator;
 import util.string.outline.JoiningSegment;
+import util.string.outline.OutlineWriter;
 import util.string.outline.Segment;
 import util.string.outline.ValueSegment;
 import util.string.outline.WrappingSegment;
@@ -29,18 +32,6 @@ import util.string.outline.WrappingSegment;
  * @author AzureTriple
  */
 public class NBTArray extends NBTCollection<Integer,NBTValue> {
-    /**Causes the array to attempt conversion on foreign types.*/
-    public static final boolean ADOPTION = Version.atLeast(Version.v13w36a);
-    /**Causes the array to attempt conversion on all elements to a foreign type.*/
-    public static final boolean RETROACTIVE_ADOPTION = Version.atLeast(Version.unknown);
-    /**
-     * Causes the array to allow a key followed by a colon to appear before
-     * elements, where the key can practically be anything that does not violate any
-     * rules with string or collection parsing. Additionally, empty elements are
-     * also allowed and elements which don't match the sub-type are simply ignored.
-     */
-    public static final boolean THE_WILD_WEST = Version.isBefore(Version.v17w16a);
-    
     public static final ValueType TYPE = ValueType.ARRAY;
     @Override public ValueType type() {return TYPE;}
     
@@ -74,22 +65,24 @@ public class NBTArray extends NBTCollection<Integer,NBTValue> {
      */
     public NBTArray(final DataInput in) throws IOException,NBTException {
         super();
-        final int l;
-        final ValueType t;
-        {
-            final byte id = in.readByte();
-            l = in.readInt();
-            if(id == 0) {
-                if(l != 0) throw new NBTException("Missing type for array.");
-                return;
-            }
-            if((t = ValueType.getType(id)) == null)
-                throw new NBTException(
-                    "Unknown type %d.".formatted(id)
-                );
-            values.ensureCapacity(l);
-        }
-        for(int i = 0;i < l;++i) values.add(t.read(in));
+        new NBTReader(in).readList(new NBTTreeBuilder(this));
+        markClean();
+    }
+    /**
+     * Scans an array of nested values, which is positioned at its element type.
+     * 
+     * @see NBTObject#lazy(byte[])
+     */
+    static NBTArray readLazy(final RawValue.Reader r) throws IOException,NBTException {
+        final ValueType t = r.type();
+        final int l = r.in.readInt();
+        if(l < 0) throw new NBTException("Negative length %d.".formatted(l));
+        final NBTArray out = new NBTArray();
+        out.subtype = t;
+        out.values.ensureCapacity(l);
+        // Bypass adoption, since binary arrays are homogeneous.
+        for(int i = 0;i < l;++i) out.values.add(r.value(t));
+        return out;
     }
     /**Writes this array value.*/
     @Override
@@ -100,8 +93,9 @@ public class NBTArray extends NBTCollection<Integer,NBTValue> {
             return;
         }
         out.write(subtype.id);
-        out.writeInt(values.size());
-        super.write(out);
+        out.writeInt(size());
+        // Write the elements directly so that undecoded values are copied as-is.
+        for(final NBTValue v : values) v.write(out);
     }
     
     /**
@@ -109,6 +103,9 @@ public class NBTArray extends NBTCollection<Integer,NBTValue> {
      * the element's type. If this array does not have a type, it will take the
      * element's type. The argument must not be null.
      * 
+     * @see Dialect#adoption
+     * @see Dialect#retroactiveAdoption
+     * 
      * @return The converted element, or <code>null</code> if the conversion failed.
      * 
      * @throws NBTConversionException The value could not be converted.
@@ -116,11 +113,12 @@ public class NBTArray extends NBTCollection<Integer,NBTValue> {
     protected NBTValue adopt(final NBTValue value) throws NBTConversionException {
         if(subtype == null) {subtype = value.type(); return value;}
         if(subtype == value.type()) return value;
-        if(THE_WILD_WEST) return null;
-        if(ADOPTION) {
+        final Dialect d = Dialect.current();
+        if(d.theWildWest) return null;
+        if(d.adoption) {
             try {return value.convertTo(subtype);}
             catch(final NBTConversionException e) {
-                if(!RETROACTIVE_ADOPTION)
+                if(!d.retroactiveAdoption)
                     throw new NBTConversionException(
                         "Could not convert element to subtype.",e
                     );
@@ -158,8 +156,10 @@ public class NBTArray extends NBTCollection<Integer,NBTValue> {
                 "Cannot set value at position %s (size = %d).",
                 key,values.size()
             ));
-        if((value = adopt(value)) != null)
+        if((value = adopt(value)) != null) {
             values.add(key,value);
+            markDirty();
+        }
         return this;
     }
     /**
@@ -168,8 +168,10 @@ public class NBTArray extends NBTCollection<Integer,NBTValue> {
      * @throws NBTConversionException The value could not be converted.
      */
     public NBTArray add(NBTValue value) throws NBTConversionException {
-        if((value = adopt(value)) != null)
+        if((value = adopt(value)) != null) {
             values.add(value);
+            markDirty();
+        }
         return this;
     }
     /**@throws IllegalArgumentException The key is <code>null</code> or out of bounds.*/
@@ -180,7 +182,27 @@ public class NBTArray extends NBTCollection<Integer,NBTValue> {
                 "Cannot get value at position %s (size = %d).",
                 key,values.size()
             ));
-        return values.get(key);
+        return RawValue.unwrap(values.get(key));
+    }
+    /**@throws IllegalArgumentException The key is <code>null</code> or out of bounds.*/
+    @Override
+    public NBTValue edit(final Integer key) throws IllegalArgumentException {
+        final NBTValue v = get(key);
+        if(!v.isShared()) return v;
+        final NBTValue c = v.unshare();
+        values.set(key,c);
+        return c;
+    }
+    /**Values which have not been decoded yet are left as they are.*/
+    @Override
+    public NBTArray intern() {
+        values.replaceAll(NBTValue::intern);
+        return this;
+    }
+    @Override
+    public void setDeepMinimal(final boolean minimal) {
+        super.setDeepMinimal(minimal);
+        values.replaceAll(v -> withMinimal(v,minimal));
     }
     /**@throws IllegalArgumentException The key is <code>null</code> or out of bounds.*/
     @Override
@@ -191,7 +213,8 @@ public class NBTArray extends NBTCollection<Integer,NBTValue> {
                 key,values.size()
             ));
         if(values.size() == 1) subtype = null;
-        return values.remove(key.intValue());
+        markDirty();
+        return RawValue.unwrap(values.remove(key.intValue()));
     }
     
     @Override
@@ -200,12 +223,25 @@ public class NBTArray extends NBTCollection<Integer,NBTValue> {
         return true;
     }
     
+    @Override
+    public boolean isDirty() {
+        if(super.isDirty()) return true;
+        // Undecoded values are never dirty, so don't unwrap them.
+        for(final NBTValue v : values) if(v.isDirty()) return true;
+        return false;
+    }
+    @Override
+    protected void markClean() {
+        super.markClean();
+        for(final NBTValue v : values) markClean(v);
+    }
+    
     @Override
     protected Sequence complete() {
-        if(!THE_WILD_WEST) return super.complete();
+        if(!Dialect.current().theWildWest) return super.complete();
         final Joiner j = getJoiner(),k = new Joiner(INDEX_SEPARATOR);
         int i = -1;
-        for(final NBTValue v : values)
+        for(final NBTValue v : this)
             j.push(
                 k.push(new Sequence(Integer.toString(++i)))
                  .push(v.toSequence())
@@ -213,6 +249,11 @@ public class NBTArray extends NBTCollection<Integer,NBTValue> {
         return j.concat();
     }
     @Override protected Sequence minimal() {return super.complete();}
+    @Override
+    protected void appendChild(final Appendable out,final int index,final NBTValue child) throws IOException {
+        if(!minimal && Dialect.current().theWildWest) out.append(Integer.toString(index)).append(INDEX_SEPARATOR);
+        child.appendSNBT(out);
+    }
     
     @Override
     protected WrappingSegment getWrapper() {
@@ -221,20 +262,35 @@ public class NBTArray extends NBTCollection<Integer,NBTValue> {
     }
     @Override
     protected Segment getChildren() {
-        if(!THE_WILD_WEST || minimal) return super.getChildren();
-        final JoiningSegment s = new JoiningSegment(new Sequence(',')); //TODO customization?
+        if(minimal || !Dialect.current().theWildWest) return super.getChildren();
+        final JoiningSegment s = new JoiningSegment(COMMA); //TODO customization?
         int i = -1;
         final Sequence sep = new Sequence(INDEX_SEPARATOR);
         for(final NBTValue v : this)
             s.push(
                 new JoiningSegment(sep) //TODO customization?
-                             .push(new ValueSegment(new Sequence(++i)))
+                             .push(new ValueSegment(new Sequence(Integer.toString(++i))))
                              .push(v.toSegment())
             );
-        return null;
+        return s;
+    }
+    @Override
+    protected void outlineChildren(final OutlineWriter w) throws IOException {
+        if(minimal || !Dialect.current().theWildWest) {super.outlineChildren(w); return;}
+        w.join(COMMA);
+        int i = -1;
+        final Sequence sep = new Sequence(INDEX_SEPARATOR);
+        for(final NBTValue v : this) {
+            w.join(sep).value(new Sequence(Integer.toString(++i)));
+            v.outline(w);
+            w.end();
+        }
+        w.end();
     }
     
-    @Override public Iterator<NBTValue> iterator() {return values.iterator();}
+    /**@return The number of elements in this array.*/
+    public int size() {return values.size();}
+    @Override public Iterator<NBTValue> iterator() {return new RawValue.Unwrapper(values.iterator(),this::markDirty);}
     @Override protected NBTArray values() {return this;}
     
     /**
@@ -256,10 +312,10 @@ public class NBTArray extends NBTCollection<Integer,NBTValue> {
             if(arr.type() == TYPE) i.jumpTo(start);
         }
         try {
-            if(THE_WILD_WEST) {
+            if(Dialect.current().theWildWest) {
                 while(i.hasNext()) {
-                    final Character c = i.nextNonWS();
-                    if(c == null)
+                    final int c = i.nextNonWSChar();
+                    if(c == SequenceIterator.EOF)
                         throw new NBTParsingException(
                             "Missing closing character '%c'"
                             .formatted(CLOSE),i
@@ -268,14 +324,16 @@ public class NBTArray extends NBTCollection<Integer,NBTValue> {
                     if(c == CLOSE) break;
                     final NBT nbt = NBT.parse(i,CLOSE,true);
                     arr.add(nbt instanceof NBTTag? ((NBTTag)nbt).value() : (NBTValue)nbt);
-                    if(i.peek() == CLOSE) break;
+                    if(i.peekChar() == CLOSE) break;
                 }
             } else {
-                i.nextNonWS();
-                while(i.hasNext()) {
+                // Empty arrays have no elements to parse.
+                final int first = i.nextNonWSChar();
+                if(first != SequenceIterator.EOF && first != CLOSE) while(i.hasNext()) {
                     arr.add(NBTValue.parse(i,CLOSE,true));
-                    if(i.peek() == CLOSE) break;
-                    i.nextNonWS();
+                    final int c = i.peekChar();
+                    if(c == SequenceIterator.EOF || c == CLOSE) break;
+                    i.nextNonWSChar();
                 }
             }
         } catch(final NBTConversionException e) {
@@ -284,14 +342,14 @@ public class NBTArray extends NBTCollection<Integer,NBTValue> {
                 i,e
             );
         }
-        if(i.peek() != CLOSE)
+        if(i.peekChar() != CLOSE)
             throw new NBTParsingException(
                 "Missing closing character '%c'"
                 .formatted(CLOSE),i
             );
-        final Character c = i.nextNonWS();
-        if(!(commas && c == ',') && c != terminator)
+        final int c = i.nextNonWSChar();
+        if(!SequenceIterator.terminates(c,terminator,commas))
             throw new NBTParsingException("array",i,terminator,commas,c);
-        return arr;
+        return NBTPrimitiveList.specialise(arr);
     }
 }
\ No newline at end of file
@@ -1,11 +1,15 @@
 package nbt.value.collection;
 
+import java.util.Arrays;
+
 import java.io.DataInput;
+import java.io.DataOutput;
 import java.io.IOException;
 import nbt.exception.NBTException;
 import nbt.value.NBTValue;
 import nbt.value.ValueType;
 import nbt.value.number.NBTByte;
+import nbt.value.number.NBTNumber;
 import util.string.Joiner;
 
 /**
@@ -21,6 +25,9 @@ public class NBTByteArray extends NBTPrimitiveArray {
     
     @Override protected Joiner getJoiner() {return TOKEN.getJoiner();}
     
+    private static final byte[] EMPTY_DATA = {};
+    protected byte[] data = EMPTY_DATA;
+    
     /**
      * Creates an empty byte array with default minimalism.
      * 
@@ -45,10 +52,46 @@ public class NBTByteArray extends NBTPrimitiveArray {
      */
     public NBTByteArray(final DataInput in) throws IOException,NBTException {
         this();
-        final byte[] elements = new byte[in.readInt()];
-        in.readFully(elements);
-        addAll(elements);
+        final int l = in.readInt();
+        if(l < 0) throw new NBTException("Negative length %d.".formatted(l));
+        data = new byte[l];
+        in.readFully(data);
+        size = l;
+    }
+    
+    @Override protected NBTValue box(final int i) {return new NBTByte(data[i],minimal);}
+    @Override protected void unbox(final int i,final NBTValue value) {data[i] = ((NBTNumber)value).byteValue();}
+    @Override
+    public void ensureCapacity(final int capacity) {
+        if(data.length < capacity) data = Arrays.copyOf(data,grow(data.length,capacity));
+    }
+    @Override protected void move(final int from,final int to,final int length) {System.arraycopy(data,from,data,to,length);}
+    @Override protected void writeElements(final DataOutput out) throws IOException {out.write(data,0,size);}
+    
+    @Override
+    public boolean isDefault() {
+        for(int i = 0;i < size;++i) if(data[i] != 0) return false;
+        return true;
+    }
+    
+    /**@throws IllegalArgumentException The index is out of bounds.*/
+    public byte getByte(final int i) throws IllegalArgumentException {
+        checkIndex(i,"get");
+        return data[i];
+    }
+    /**
+     * @return <code>this</code>
+     * 
+     * @throws IllegalArgumentException The index is out of bounds.
+     */
+    public NBTByteArray setByte(final int i,final byte value) throws IllegalArgumentException {
+        checkIndex(i,"set");
+        data[i] = value;
+        markDirty();
+        return this;
     }
+    /**@return A copy of this array's elements.*/
+    public byte[] toByteArray() {return Arrays.copyOf(data,size);}
     
     /**
      * Adds all the values to the array.
@@ -56,8 +99,12 @@ public class NBTByteArray extends NBTPrimitiveArray {
      * @return <code>this</code>
      */
     public NBTByteArray addAll(final byte...elements) {
-        if(elements != null && elements.length != 0)
-            for(final byte e : elements) values.add(new NBTByte(e));
+        if(elements != null && elements.length != 0) {
+            ensureCapacity(size + elements.length);
+            System.arraycopy(elements,0,data,size,elements.length);
+            size += elements.length;
+            markDirty();
+        }
         return this;
     }
     /**
@@ -66,8 +113,11 @@ public class NBTByteArray extends NBTPrimitiveArray {
      * @return <code>this</code>
      */
     public NBTByteArray addAll(final int...elements) {
-        if(elements != null && elements.length != 0)
-            for(final int e : elements) values.add(new NBTByte(e));
+        if(elements != null && elements.length != 0) {
+            ensureCapacity(size + elements.length);
+            for(final int e : elements) data[size++] = (byte)e;
+            markDirty();
+        }
         return this;
     }
 }
\ No newline at end of file
@@ -6,11 +6,11 @@ import nbt.NBT;
 import nbt.exception.NBTException;
 import nbt.exception.NBTParsingException;
 import nbt.value.NBTValue;
-import settings.Version;
 import util.string.Joiner;
 import util.string.Sequence;
 import util.string.Sequence.SequenceIterator;
 import util.string.outline.JoiningSegment;
+import util.string.outline.OutlineWriter;
 import util.string.outline.Segment;
 import util.string.outline.WrappingSegment;
 
@@ -21,8 +21,8 @@ import util.string.outline.WrappingSegment;
  * @author AzureTriple
  */
 public abstract class NBTCollection<K,V extends NBT> extends NBTValue implements Iterable<V> {
-    /**Allows the parser to ignore an empty value at the end of a collection.*/
-    public static final boolean TRAILING_COMMA = Version.atLeast(Version.v13w36a);
+    /**The separator between children in an outline.*/
+    protected static final Sequence COMMA = new Sequence(',');
     
     /**
      * Creates an empty collection with default minimalism.
@@ -59,6 +59,31 @@ public abstract class NBTCollection<K,V extends NBT> extends NBTValue implements
     public abstract NBTValue get(final K key);
     /**Removes and returns the value mapped to the key.*/
     public abstract NBTValue remove(final K key);
+    /**
+     * Gets the value mapped to the key so that it can be modified. A
+     * {@linkplain NBTValue#isShared() shared} value is first replaced with a
+     * private copy, which does not count as a modification of this collection.
+     */
+    public abstract NBTValue edit(final K key);
+    
+    /**Interns the children of this collection in place.*/
+    @Override public abstract NBTCollection<K,V> intern();
+    /**
+     * Sets the minimalism of a child. A {@linkplain NBTValue#isShared() shared}
+     * child cannot be changed, so it is swapped for the shared instance with the
+     * new minimalism instead.
+     * 
+     * @return The child to hold in place of <code>v</code>.
+     */
+    static NBTValue withMinimal(final NBTValue v,final boolean minimal) {
+        if(!v.isShared()) {
+            v.setDeepMinimal(minimal);
+            return v;
+        }
+        final NBTValue c = v.unshare();
+        c.setDeepMinimal(minimal);
+        return c.intern();
+    }
     
     /**Gets a {@linkplain Joiner} instance to use when converting to a character sequence.*/
     protected abstract Joiner getJoiner();
@@ -74,13 +99,49 @@ public abstract class NBTCollection<K,V extends NBT> extends NBTValue implements
         return j.concat();
     }
     
+    /**@return <code>true</code> iff the child appears in this collection's SNBT.*/
+    protected boolean isWritten(final V child) {return true;}
+    /**
+     * Appends a child's SNBT.
+     * 
+     * @param index The number of children which were appended before this one.
+     * 
+     * @throws IOException The output could not be appended.
+     */
+    protected void appendChild(final Appendable out,final int index,final V child) throws IOException {
+        child.appendSNBT(out);
+    }
+    @Override
+    public <A extends Appendable> A appendSNBT(final A out) throws IOException {
+        final Joiner j = getJoiner();
+        j.prefix().writeTo(out);
+        int i = 0;
+        for(final V nbt : this) {
+            if(!isWritten(nbt)) continue;
+            if(i != 0) j.separator().writeTo(out);
+            appendChild(out,i++,nbt);
+        }
+        return j.suffix().writeTo(out);
+    }
+    
     /**@return A segment containing the children in a stringified form.*/
     protected Segment getChildren() {
-        final JoiningSegment s = new JoiningSegment(new Sequence(',')); //TODO customization?
+        final JoiningSegment s = new JoiningSegment(COMMA); //TODO customization?
         for(final NBT n : this) s.push(n.toSegment());
         return s;
     }
     @Override public Segment toSegment() {return getWrapper().child(getChildren());}
+    /**Describes the children in a stringified form.*/
+    protected void outlineChildren(final OutlineWriter w) throws IOException {
+        w.join(COMMA);
+        for(final NBT n : this) n.outline(w);
+        w.end();
+    }
+    @Override
+    public void outline(final OutlineWriter w) throws IOException {
+        outlineChildren(getWrapper().open(w));
+        w.end();
+    }
     
     @Override
     public boolean isDefault() {
@@ -91,14 +152,17 @@ public abstract class NBTCollection<K,V extends NBT> extends NBTValue implements
     protected static boolean testEmpty(final SequenceIterator i,
                                        final char close)
                                        throws NBTParsingException {
-        final Character c = i.nextNonWS();
+        final int c = i.nextNonWSChar();
         // Reached end without finding closing character.
-        if(c == null)
+        if(c == SequenceIterator.EOF)
             throw new NBTParsingException(
                 "Missing closing character '%c'"
                 .formatted(close),i
             );
-        // Closing character found.
-        return c == close;
+        // Closing character found. Advance past it, as is done for non-empty
+        // collections.
+        if(c != close) return false;
+        i.nextChar();
+        return true;
     }
 }
\ No newline at end of file
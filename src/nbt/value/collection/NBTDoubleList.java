@@ -0,0 +1,82 @@
+package nbt.value.collection;
+
+import java.util.Arrays;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import nbt.value.NBTValue;
+import nbt.value.ValueType;
+import nbt.value.number.NBTDouble;
+import nbt.value.number.NBTNumber;
+
+/**
+ * An {@linkplain NBTPrimitiveList} which holds {@linkplain NBTDouble} values.
+ * 
+ * @author prgmTrouble
+ * @author AzureTriple
+ */
+public class NBTDoubleList extends NBTPrimitiveList {
+    private static final double[] EMPTY_DATA = {};
+    protected double[] data = EMPTY_DATA;
+    
+    /**
+     * Creates an empty double list with default minimalism.
+     * 
+     * @see NBTValue#NBTValue()
+     */
+    public NBTDoubleList() {super(ValueType.DOUBLE);}
+    /**
+     * Creates an empty double list.
+     * 
+     * @see NBTValue#NBTValue(boolean)
+     */
+    public NBTDoubleList(final boolean minimal) {super(ValueType.DOUBLE,minimal);}
+    
+    @Override protected NBTValue box(final int i) {return new NBTDouble(data[i],minimal);}
+    @Override protected void unbox(final int i,final NBTValue value) {data[i] = ((NBTNumber)value).doubleValue();}
+    @Override
+    public void ensureCapacity(final int capacity) {
+        if(data.length < capacity) data = Arrays.copyOf(data,grow(data.length,capacity));
+    }
+    @Override protected void move(final int from,final int to,final int length) {System.arraycopy(data,from,data,to,length);}
+    @Override
+    protected void writeElements(final DataOutput out) throws IOException {
+        for(int i = 0;i < size;++i) out.writeDouble(data[i]);
+    }
+    
+    @Override
+    public boolean isDefault() {
+        for(int i = 0;i < size;++i) if(data[i] != 0) return false;
+        return true;
+    }
+    
+    /**@throws IllegalArgumentException The index is out of bounds.*/
+    public double getDouble(final int i) throws IllegalArgumentException {
+        checkIndex(i,"get");
+        return data[i];
+    }
+    /**
+     * @return <code>this</code>
+     * 
+     * @throws IllegalArgumentException The index is out of bounds.
+     */
+    public NBTDoubleList setDouble(final int i,final double value) throws IllegalArgumentException {
+        checkIndex(i,"set");
+        data[i] = value;
+        markDirty();
+        return this;
+    }
+    /**
+     * Appends the value to the last index.
+     * 
+     * @return <code>this</code>
+     */
+    public NBTDoubleList addDouble(final double value) {
+        ensureCapacity(size + 1);
+        data[size++] = value;
+        markDirty();
+        return this;
+    }
+    /**@return A copy of this list's elements.*/
+    public double[] toDoubleArray() {return Arrays.copyOf(data,size);}
+}
\ No newline at end of file
@@ -1,11 +1,15 @@
 package nbt.value.collection;
 
+import java.util.Arrays;
+
 import java.io.DataInput;
+import java.io.DataOutput;
 import java.io.IOException;
 import nbt.exception.NBTException;
 import nbt.value.NBTValue;
 import nbt.value.ValueType;
 import nbt.value.number.NBTInt;
+import nbt.value.number.NBTNumber;
 import util.string.Joiner;
 
 /**
@@ -21,6 +25,9 @@ public class NBTIntArray extends NBTPrimitiveArray {
     
     @Override protected Joiner getJoiner() {return TOKEN.getJoiner();}
     
+    private static final int[] EMPTY_DATA = {};
+    protected int[] data = EMPTY_DATA;
+    
     /**
      * Creates an empty int array with default minimalism.
      * 
@@ -46,9 +53,44 @@ public class NBTIntArray extends NBTPrimitiveArray {
     public NBTIntArray(final DataInput in) throws IOException,NBTException {
         this();
         final int l = in.readInt();
-        for(int i = 0;i < l;++i)
-            add(new NBTInt(in.readInt()));
+        if(l < 0) throw new NBTException("Negative length %d.".formatted(l));
+        readFully(in,data = new int[l],0,l);
+        size = l;
+    }
+    
+    @Override protected NBTValue box(final int i) {return new NBTInt(data[i],minimal);}
+    @Override protected void unbox(final int i,final NBTValue value) {data[i] = ((NBTNumber)value).intValue();}
+    @Override
+    public void ensureCapacity(final int capacity) {
+        if(data.length < capacity) data = Arrays.copyOf(data,grow(data.length,capacity));
+    }
+    @Override protected void move(final int from,final int to,final int length) {System.arraycopy(data,from,data,to,length);}
+    @Override protected void writeElements(final DataOutput out) throws IOException {write(out,data,0,size);}
+    
+    @Override
+    public boolean isDefault() {
+        for(int i = 0;i < size;++i) if(data[i] != 0) return false;
+        return true;
+    }
+    
+    /**@throws IllegalArgumentException The index is out of bounds.*/
+    public int getInt(final int i) throws IllegalArgumentException {
+        checkIndex(i,"get");
+        return data[i];
+    }
+    /**
+     * @return <code>this</code>
+     * 
+     * @throws IllegalArgumentException The index is out of bounds.
+     */
+    public NBTIntArray setInt(final int i,final int value) throws IllegalArgumentException {
+        checkIndex(i,"set");
+        data[i] = value;
+        markDirty();
+        return this;
     }
+    /**@return A copy of this array's elements.*/
+    public int[] toIntArray() {return Arrays.copyOf(data,size);}
     
     /**
      * Adds all the values to the array.
@@ -56,8 +98,12 @@ public class NBTIntArray extends NBTPrimitiveArray {
      * @return <code>this</code>
      */
     public NBTIntArray addAll(final int...elements) {
-        if(elements != null && elements.length != 0)
-            for(final int e : elements) values.add(new NBTInt(e));
+        if(elements != null && elements.length != 0) {
+            ensureCapacity(size + elements.length);
+            System.arraycopy(elements,0,data,size,elements.length);
+            size += elements.length;
+            markDirty();
+        }
         return this;
     }
 }
\ No newline at end of file
@@ -1,11 +1,15 @@
 package nbt.value.collection;
 
+import java.util.Arrays;
+
 import java.io.DataInput;
+import java.io.DataOutput;
 import java.io.IOException;
 import nbt.exception.NBTException;
 import nbt.value.NBTValue;
 import nbt.value.ValueType;
 import nbt.value.number.NBTLong;
+import nbt.value.number.NBTNumber;
 import util.string.Joiner;
 
 /**
@@ -21,6 +25,9 @@ public class NBTLongArray extends NBTPrimitiveArray {
     
     @Override protected Joiner getJoiner() {return TOKEN.getJoiner();}
     
+    private static final long[] EMPTY_DATA = {};
+    protected long[] data = EMPTY_DATA;
+    
     /**
      * Creates an empty long array with default minimalism.
      * 
@@ -38,7 +45,7 @@ public class NBTLongArray extends NBTPrimitiveArray {
      */
     public NBTLongArray(final boolean minimal) throws NBTException {super(TOKEN.subtype,minimal);}
     /**
-     * Reads an long array.
+     * Reads a long array.
      * 
      * @throws IOException The array could not be read.
      * @throws NBTException Primitive arrays are not enabled in this version.
@@ -46,9 +53,44 @@ public class NBTLongArray extends NBTPrimitiveArray {
     public NBTLongArray(final DataInput in) throws IOException,NBTException {
         this();
         final int l = in.readInt();
-        for(int i = 0;i < l;++i)
-            add(new NBTLong(in.readLong()));
+        if(l < 0) throw new NBTException("Negative length %d.".formatted(l));
+        readFully(in,data = new long[l],0,l);
+        size = l;
+    }
+    
+    @Override protected NBTValue box(final int i) {return new NBTLong(data[i],minimal);}
+    @Override protected void unbox(final int i,final NBTValue value) {data[i] = ((NBTNumber)value).longValue();}
+    @Override
+    public void ensureCapacity(final int capacity) {
+        if(data.length < capacity) data = Arrays.copyOf(data,grow(data.length,capacity));
+    }
+    @Override protected void move(final int from,final int to,final int length) {System.arraycopy(data,from,data,to,length);}
+    @Override protected void writeElements(final DataOutput out) throws IOException {write(out,data,0,size);}
+    
+    @Override
+    public boolean isDefault() {
+        for(int i = 0;i < size;++i) if(data[i] != 0) return false;
+        return true;
+    }
+    
+    /**@throws IllegalArgumentException The index is out of bounds.*/
+    public long getLong(final int i) throws IllegalArgumentException {
+        checkIndex(i,"get");
+        return data[i];
+    }
+    /**
+     * @return <code>this</code>
+     * 
+     * @throws IllegalArgumentException The index is out of bounds.
+     */
+    public NBTLongArray setLong(final int i,final long value) throws IllegalArgumentException {
+        checkIndex(i,"set");
+        data[i] = value;
+        markDirty();
+        return this;
     }
+    /**@return A copy of this array's elements.*/
+    public long[] toLongArray() {return Arrays.copyOf(data,size);}
     
     /**
      * Adds all the values to the array.
@@ -56,8 +98,12 @@ public class NBTLongArray extends NBTPrimitiveArray {
      * @return <code>this</code>
      */
     public NBTLongArray addAll(final long...elements) {
-        if(elements != null && elements.length != 0)
-            for(final long e : elements) values.add(new NBTLong(e));
+        if(elements != null && elements.length != 0) {
+            ensureCapacity(size + elements.length);
+            System.arraycopy(elements,0,data,size,elements.length);
+            size += elements.length;
+            markDirty();
+        }
         return this;
     }
 }
\ No newline at end of file
@@ -1,6 +1,8 @@
 package nbt.value.collection;
 
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.TreeMap;
 import java.util.zip.GZIPInputStream;
@@ -12,9 +14,15 @@ import java.io.DataOutput;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
 import nbt.NBT;
 import nbt.exception.NBTException;
 import nbt.exception.NBTParsingException;
+import nbt.stream.NBTBufferOutput;
+import nbt.stream.NBTReader;
+import nbt.stream.NBTTreeBuilder;
 import nbt.value.NBTString;
 import nbt.value.NBTValue;
 import nbt.value.ValueType;
@@ -40,29 +48,51 @@ public class NBTObject extends NBTCollection<NBTString,NBTTag> {
     public static final char OPEN = '{',CLOSE = '}';
     @Override protected Joiner getJoiner() {return new Joiner(OPEN,CLOSE);}
     
-    protected final TreeMap<NBTString,NBTValue> values = new TreeMap<>();
+    /**
+     * The entries of this object, which are either sorted by key or, if this
+     * object is {@linkplain #isHashed() hashed}, kept in insertion order.
+     */
+    protected final Map<NBTString,NBTValue> values;
+    /**Causes hashed objects to iterate over their entries in sorted order.*/
+    private boolean sortedOutput = false;
     
+    private NBTObject(final Map<NBTString,NBTValue> values) {super(); this.values = values;}
+    private NBTObject(final Map<NBTString,NBTValue> values,final boolean minimal) {super(minimal); this.values = values;}
     /**
      * Constructs an empty object with default minimalism.
      * 
      * @see NBTValue#NBTValue()
      */
-    public NBTObject() {super();}
+    public NBTObject() {this(new TreeMap<>());}
     /**
      * Constructs an empty object.
      * 
      * @see NBTValue#NBTValue(boolean)
      */
-    public NBTObject(final boolean minimal) {super(minimal);}
+    public NBTObject(final boolean minimal) {this(new TreeMap<>(),minimal);}
     /**
      * Constructs an object with default minimalism.
      * 
      * @see NBTValue#NBTValue()
      */
     public NBTObject(final Container<NBTTag> tags) {
-        super();
+        this(new TreeMap<>());
         for(final NBTTag tag : tags) set(tag);
     }
+    /**
+     * Constructs an empty object with default minimalism which stores its entries
+     * in a hash table, in insertion order.
+     * 
+     * @see NBTValue#NBTValue()
+     */
+    public static NBTObject hashed() {return new NBTObject(new LinkedHashMap<>());}
+    /**
+     * Constructs an empty object which stores its entries in a hash table, in
+     * insertion order.
+     * 
+     * @see NBTValue#NBTValue(boolean)
+     */
+    public static NBTObject hashed(final boolean minimal) {return new NBTObject(new LinkedHashMap<>(),minimal);}
     /**
      * Reads an object.
      * 
@@ -70,9 +100,9 @@ public class NBTObject extends NBTCollection<NBTString,NBTTag> {
      * @throws NBTException The object is invalid.
      */
     public NBTObject(final DataInput in) throws IOException,NBTException {
-        super();
-        for(byte id = in.readByte();id != END_BYTE;id = in.readByte())
-            set(new NBTTag(in,id));
+        this(new TreeMap<>());
+        new NBTReader(in).readCompound(new NBTTreeBuilder(this));
+        markClean();
     }
     private static DataInput stream(final File in,final boolean compressed) throws IOException {
         return new DataInputStream(
@@ -82,6 +112,23 @@ public class NBTObject extends NBTCollection<NBTString,NBTTag> {
             )
         );
     }
+    /**
+     * Reads an object which will only be read. Small numbers and booleans are
+     * {@linkplain NBTValue#isShared() shared} instead of being created for every
+     * occurrence, so they must be obtained with {@linkplain #edit(NBTString)} to
+     * be modified.
+     * 
+     * @throws IOException The object could not be read.
+     * @throws NBTException The object is invalid.
+     * 
+     * @see NBTTreeBuilder#readOnly(boolean)
+     */
+    public static NBTObject readOnly(final DataInput in) throws IOException,NBTException {
+        final NBTObject out = new NBTObject();
+        new NBTReader(in).readCompound(new NBTTreeBuilder(out).readOnly(true));
+        out.markClean();
+        return out;
+    }
     /**
      * Reads an object from a binary file.
      * 
@@ -91,21 +138,79 @@ public class NBTObject extends NBTCollection<NBTString,NBTTag> {
      * @throws NBTException The object is invalid.
      */
     public NBTObject(final File in,final boolean compressed) throws IOException,NBTException {
-        super();
-        final DataInput i = stream(in,compressed);
-        {
-            final byte b = i.readByte();
-            if(b != TYPE.id) {
-                final ValueType t = ValueType.getType(b);
-                throw new NBTException(
-                    "Non-object type %s found at beginning of file."
-                    .formatted(t == null? "UNKNOWN <%d>".formatted(b) : t.name)
-                );
-            }
+        this(readHeader(stream(in,compressed)));
+    }
+    /**
+     * Reads an object lazily from a buffer which holds a root object, including
+     * its header. Only the entries of the root object are scanned. Nested
+     * objects, arrays, and primitive arrays are located but not decoded until
+     * they are first accessed, and are decoded in the same way. Nested values
+     * which are not {@linkplain NBTValue#isDirty() dirty} are written by copying
+     * their bytes from the buffer, so the buffer must not be modified while the
+     * object is in use.
+     * <p>
+     * The contents of nested values are not validated until they are decoded.
+     * Accessing an invalid value throws an {@linkplain java.io.UncheckedIOException
+     * UncheckedIOException} or an {@linkplain IllegalStateException}.
+     * 
+     * @throws IOException  The buffer ends before the root object does.
+     * @throws NBTException The root object is invalid.
+     * 
+     * @see #readHeader(DataInput)
+     */
+    public static NBTObject lazy(final byte[] data) throws IOException,NBTException {
+        final RawValue.Reader r = new RawValue.Reader(data,0);
+        readHeader(r.in);
+        return readLazy(r);
+    }
+    /**
+     * Reads an object lazily from a binary file. The decompressed file is held in
+     * memory while the object is in use.
+     * 
+     * @param compressed <code>true</code> iff the file is in a GZIP compressed format.
+     * 
+     * @throws IOException  The file could not be read.
+     * @throws NBTException The root object is invalid.
+     * 
+     * @see #lazy(byte[])
+     */
+    public static NBTObject lazy(final File in,final boolean compressed) throws IOException,NBTException {
+        try(
+            final InputStream s = compressed? new GZIPInputStream(new FileInputStream(in))
+                                            : new FileInputStream(in)
+        ) {return lazy(s.readAllBytes());}
+    }
+    /**Scans the entries of an object, which is positioned at its first entry.*/
+    static NBTObject readLazy(final RawValue.Reader r) throws IOException,NBTException {
+        final NBTObject out = new NBTObject();
+        for(ValueType t = r.type();t != null;t = r.type()) {
+            final NBTString key = r.key();
+            if(key.unwrapped().isEmpty()) throw new NBTException("Empty key.");
+            // Bypass constructor checks.
+            out.values.put(key,r.value(t));
         }
-        i.readUTF();
-        for(byte id = i.readByte();id != END_BYTE;id = i.readByte())
-            set(new NBTTag(i,id));
+        return out;
+    }
+    /**
+     * Reads the header of a root object, which consists of the object's type id
+     * followed by its (discarded) name.
+     * 
+     * @return <code>in</code>, positioned at the first tag of the object.
+     * 
+     * @throws IOException  The header could not be read.
+     * @throws NBTException The root value is not an object.
+     */
+    public static DataInput readHeader(final DataInput in) throws IOException,NBTException {
+        final byte b = in.readByte();
+        if(b != TYPE.id) {
+            final ValueType t = ValueType.getType(b);
+            throw new NBTException(
+                "Non-object type %s found at beginning of file."
+                .formatted(t == null? "UNKNOWN <%d>".formatted(b) : t.name)
+            );
+        }
+        in.readUTF();
+        return in;
     }
     /**
      * Writes this object value.
@@ -114,9 +219,46 @@ public class NBTObject extends NBTCollection<NBTString,NBTTag> {
      */
     @Override
     public void write(final DataOutput out) throws IOException {
-        super.write(out);
+        // Write the entries directly so that undecoded values are copied as-is.
+        for(final Entry<NBTString,NBTValue> e : entries()) {
+            out.write(e.getValue().type().id);
+            e.getKey().write(out);
+            e.getValue().write(out);
+        }
         out.writeByte(END_BYTE);
     }
+    /**
+     * Writes the header of a root object, which consists of the object's type id
+     * followed by an empty name.
+     * 
+     * @return <code>out</code>
+     * 
+     * @throws IOException The header could not be written.
+     */
+    public static DataOutput writeHeader(final DataOutput out) throws IOException {
+        out.writeByte(TYPE.id);
+        out.writeUTF("");
+        return out;
+    }
+    /**
+     * Writes this object to a binary file, replacing its previous contents.
+     * 
+     * @param compressed <code>true</code> iff the file should be in a GZIP
+     *                   compressed format.
+     * 
+     * @throws IOException The file could not be written.
+     */
+    public void write(final File f,final boolean compressed) throws IOException {
+        try(
+            final FileChannel fc = FileChannel.open(
+                f.toPath(),
+                StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE
+            );
+            final NBTBufferOutput out = new NBTBufferOutput(fc,compressed)
+        ) {write(writeHeader(out));}
+    }
     
     /**@throws IllegalArgumentException The key is empty.*/
     @Override
@@ -130,6 +272,7 @@ public class NBTObject extends NBTCollection<NBTString,NBTTag> {
             throw new IllegalArgumentException("Key is empty.");
         
         values.put(key,value);
+        markDirty();
         return this;
     }
     
@@ -160,9 +303,13 @@ public class NBTObject extends NBTCollection<NBTString,NBTTag> {
      * 
      * @throws NullPointerException The entry is <code>null</code>.
      */
-    public NBTObject set(final NBTTag entry) throws NullPointerException {values.put(entry.key,entry.value()); return this;}
+    public NBTObject set(final NBTTag entry) throws NullPointerException {
+        values.put(entry.key,entry.value());
+        markDirty();
+        return this;
+    }
     
-    @Override public NBTValue get(final NBTString key) throws NullPointerException {return values.get(key);}
+    @Override public NBTValue get(final NBTString key) throws NullPointerException {return RawValue.unwrap(values.get(key));}
     /**
      * @return The value associated with the key.
      * 
@@ -176,7 +323,66 @@ public class NBTObject extends NBTCollection<NBTString,NBTTag> {
      */
     public NBTValue get(final String key) throws NBTParsingException {return get(new NBTString(key));}
     
-    @Override public NBTValue remove(final NBTString key) throws NullPointerException {return values.remove(key);}
+    @Override
+    public NBTValue edit(final NBTString key) throws NullPointerException {
+        final NBTValue v = get(key);
+        if(v == null || !v.isShared()) return v;
+        final NBTValue c = v.unshare();
+        values.put(key,c);
+        return c;
+    }
+    /**
+     * @see #edit(NBTString)
+     * 
+     * @throws NBTParsingException The input is not a valid {@linkplain NBTString}.
+     */
+    public NBTValue edit(final Sequence key) throws NBTParsingException {return edit(new NBTString(key));}
+    /**
+     * @see #edit(NBTString)
+     * 
+     * @throws NBTParsingException The input is not a valid {@linkplain NBTString}.
+     */
+    public NBTValue edit(final String key) throws NBTParsingException {return edit(new NBTString(key));}
+    /**Values which have not been decoded yet are left as they are.*/
+    @Override
+    public NBTObject intern() {
+        values.replaceAll((k,v) -> v.intern());
+        return this;
+    }
+    @Override
+    public void setDeepMinimal(final boolean minimal) {
+        super.setDeepMinimal(minimal);
+        values.replaceAll((k,v) -> withMinimal(v,minimal));
+    }
+    
+    /**
+     * Gets the value mapped to a key without parsing it as SNBT or allocating an
+     * {@linkplain NBTString}.
+     * 
+     * @param key The key's unescaped characters.
+     * 
+     * @return The value associated with the key, or <code>null</code> if none exist.
+     * 
+     * @throws NullPointerException The key is <code>null</code>.
+     */
+    public NBTValue lookup(final CharSequence key) throws NullPointerException {return RawValue.unwrap(values.get(new Probe(key)));}
+    /**
+     * @param key The key's unescaped characters.
+     * 
+     * @return <code>true</code> iff a value is mapped to the key.
+     * 
+     * @throws NullPointerException The key is <code>null</code>.
+     * 
+     * @see #lookup(CharSequence)
+     */
+    public boolean contains(final CharSequence key) throws NullPointerException {return values.containsKey(new Probe(key));}
+    
+    @Override
+    public NBTValue remove(final NBTString key) throws NullPointerException {
+        final NBTValue v = values.remove(key);
+        if(v != null) markDirty();
+        return RawValue.unwrap(v);
+    }
     /**
      * @return The value associated with the key.
      * 
@@ -198,14 +404,84 @@ public class NBTObject extends NBTCollection<NBTString,NBTTag> {
         @Override
         public NBTTag next() {
             final Entry<NBTString,NBTValue> e = i.next();
-            try {return new NBTTag(e.getKey(),e.getValue());}
+            try {return new NBTTag(e.getKey(),RawValue.unwrap(e.getValue()));}
             catch(final NBTParsingException x) {}
             // No errors should get thrown by the tag constructor.
             return null;
         }
     }
-    @Override public Iterator<NBTTag> iterator() {return new NBTObjectIterator(values.entrySet().iterator());}
-    @Override protected Iterable<NBTValue> values() {return values.values();}
+    /**
+     * A lookup key which compares, hashes, and tests equality in the same way as
+     * an {@linkplain NBTString} with the same characters.
+     */
+    private static final class Probe implements Comparable<NBTString> {
+        private final CharSequence key;
+        private Probe(final CharSequence key) throws NullPointerException {
+            if(key == null) throw new NullPointerException("Key is null.");
+            this.key = key;
+        }
+        
+        @Override
+        public int compareTo(final NBTString o) {
+            final Sequence s = o.unwrapped();
+            final int l = Math.min(key.length(),s.length());
+            for(int i = 0;i < l;++i) {
+                final int c = Character.compare(key.charAt(i),s.charAt(i));
+                if(c != 0) return c;
+            }
+            return key.length() - s.length();
+        }
+        @Override
+        public boolean equals(final Object obj) {
+            return obj instanceof NBTString s && s.unwrapped().length() == key.length() && compareTo(s) == 0;
+        }
+        @Override
+        public int hashCode() {
+            if(key instanceof String || key instanceof Sequence) return key.hashCode();
+            int h = 0;
+            for(int i = 0;i < key.length();++i) h = 31 * h + key.charAt(i);
+            return h;
+        }
+    }
+    
+    /**@return <code>true</code> iff this object stores its entries in a hash table.*/
+    public boolean isHashed() {return !(values instanceof TreeMap);}
+    /**@return <code>true</code> iff a hashed object iterates over its entries in sorted order.*/
+    public boolean sortedOutput() {return sortedOutput;}
+    /**
+     * @param sorted <code>true</code> iff this object should iterate over its
+     *               entries in sorted order. If this object is hashed, the
+     *               entries are sorted on each iteration rather than on each
+     *               modification. Otherwise, the entries are always sorted.
+     * 
+     * @return <code>this</code>
+     */
+    public NBTObject setSortedOutput(final boolean sorted) {
+        // Only hashed objects are written in a different order.
+        if(sorted != sortedOutput && isHashed()) markDirty();
+        sortedOutput = sorted;
+        return this;
+    }
+    
+    /**@return The entries in iteration order.*/
+    private Iterable<Entry<NBTString,NBTValue>> entries() {
+        return (sortedOutput && isHashed()? new TreeMap<>(values) : values).entrySet();
+    }
+    @Override public Iterator<NBTTag> iterator() {return new NBTObjectIterator(entries().iterator());}
+    @Override protected Iterable<NBTValue> values() {return () -> new RawValue.Unwrapper(values.values().iterator(),this::markDirty);}
+    
+    @Override
+    public boolean isDirty() {
+        if(super.isDirty()) return true;
+        // Undecoded values are never dirty, so don't unwrap them.
+        for(final NBTValue v : values.values()) if(v.isDirty()) return true;
+        return false;
+    }
+    @Override
+    protected void markClean() {
+        super.markClean();
+        for(final NBTValue v : values.values()) markClean(v);
+    }
     
     @Override
     protected Sequence minimal() {
@@ -213,6 +489,7 @@ public class NBTObject extends NBTCollection<NBTString,NBTTag> {
         for(final NBT nbt : this) if(!nbt.isDefault()) nbt.appendTo(j);
         return j.concat();
     }
+    @Override protected boolean isWritten(final NBTTag child) {return !minimal || !child.isDefault();}
     
     @Override
     protected WrappingSegment getWrapper() {
@@ -250,13 +527,13 @@ public class NBTObject extends NBTCollection<NBTString,NBTTag> {
             // Bypass constructor checks.
             out.values.put(key,value);
             // Check for close.
-            if(i.peek() == CLOSE) {
+            if(i.peekChar() == CLOSE) {
                 // Advance past close.
-                i.next();
+                i.nextChar();
                 return out;
             }
             // Advance past the comma.
-            i.next();
+            i.nextChar();
         }
         // If hasNext() fails, then no closing character was found.
         throw new NBTParsingException("Missing closing character '%c'".formatted(CLOSE),i);
@@ -278,8 +555,8 @@ public class NBTObject extends NBTCollection<NBTString,NBTTag> {
                                   final boolean commas)
                                   throws NBTParsingException {
         final NBTObject out = parse(i);
-        final Character c = i.skipWS();
-        if(!(commas && c == ',') && c != terminator)
+        final int c = i.skipWSChar();
+        if(!SequenceIterator.terminates(c,terminator,commas))
             throw new NBTParsingException("object",i,terminator,commas,c);
         return out;
     }
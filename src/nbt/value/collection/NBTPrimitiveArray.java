@@ -1,8 +1,16 @@
 package nbt.value.collection;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import nbt.Dialect;
 import nbt.exception.NBTConversionException;
 import nbt.exception.NBTException;
 import nbt.exception.NBTParsingException;
+import nbt.stream.NBTBufferOutput;
 import nbt.value.NBTValue;
 import nbt.value.ValueType;
 import nbt.value.number.NBTByte;
@@ -12,25 +20,21 @@ import settings.Version;
 import util.string.Sequence.SequenceIterator;
 
 /**
- * An {@linkplain NBTArray} which holds primitive values.
+ * An {@linkplain NBTPrimitiveList} which is written with its own type instead
+ * of as a list.
  * 
  * @author prgmTrouble
  * @author AzureTriple
  */
-public abstract class NBTPrimitiveArray extends NBTArray {
-    /**Enables primitive arrays.*/
-    public static final boolean PRIMITIVE_ARRAY_ENABLED = Version.atLeast(Version.v17w16a);
+public abstract class NBTPrimitiveArray extends NBTPrimitiveList {
     {
         // Throw a hissy-fit on initialization.
-        if(!PRIMITIVE_ARRAY_ENABLED)
+        if(!Dialect.current().primitiveArrays)
             throw new NBTException(
                 "Primitive arrays are not enabled until %s.".formatted(Version.v17w16a.name)
             );
     }
     
-    /**Allows the array token to have surrounding whitespace.*/
-    public static final boolean ALLOW_TOKEN_WHITESPACE = Version.atLeast(Version.unknown);
-    
     public static final char TOKEN_SEPARATOR = ';';
     
     /**
@@ -40,10 +44,7 @@ public abstract class NBTPrimitiveArray extends NBTArray {
      * 
      * @throws NBTException Primitive arrays are not enabled in this version.
      */
-    protected NBTPrimitiveArray(final ValueType subtype) throws NBTException {
-        super();
-        this.subtype = subtype;
-    }
+    protected NBTPrimitiveArray(final ValueType subtype) throws NBTException {super(subtype);}
     /**
      * Creates an empty primitive array.
      * 
@@ -51,21 +52,88 @@ public abstract class NBTPrimitiveArray extends NBTArray {
      * 
      * @throws NBTException Primitive arrays are not enabled in this version.
      */
-    protected NBTPrimitiveArray(final ValueType subtype,final boolean minimal) throws NBTException {
-        super(minimal);
-        this.subtype = subtype;
-    }
+    protected NBTPrimitiveArray(final ValueType subtype,final boolean minimal) throws NBTException {super(subtype,minimal);}
     
     @Override protected NBTValue adopt(final NBTValue element) throws NBTConversionException {return element.convertTo(subtype);}
-    /**@throws IllegalArgumentException The key is <code>null</code> or out of bounds.*/
+    /**
+     * Writes this array's length followed by its elements.
+     * 
+     * @throws IOException The array could not be written.
+     */
     @Override
-    public NBTValue remove(final Integer key) throws IllegalArgumentException {
-        if(key == null || values.size() <= key || key < 0)
-            throw new IllegalArgumentException(String.format(
-                "Cannot remove value at position %s (size = %d).",
-                key,values.size()
-            ));
-        return values.remove(key.intValue());
+    public void write(final DataOutput out) throws IOException {
+        out.writeInt(size);
+        writeElements(out);
+    }
+    
+    /**The size of the buffer used for bulk transfers, in bytes.*/
+    private static final int BUFFER_SIZE = 8192;
+    private static byte[] buffer(final long bytes) {return new byte[(int)Math.min(bytes,BUFFER_SIZE)];}
+    /**
+     * Reads big-endian integers into an array.
+     * 
+     * @throws IOException The integers could not be read.
+     */
+    public static void readFully(final DataInput in,final int[] a,int off,int len) throws IOException {
+        final byte[] buf = buffer(len * (long)Integer.BYTES);
+        final IntBuffer view = ByteBuffer.wrap(buf).asIntBuffer();
+        while(len > 0) {
+            final int n = Math.min(len,view.capacity());
+            in.readFully(buf,0,n * Integer.BYTES);
+            view.get(0,a,off,n);
+            off += n;
+            len -= n;
+        }
+    }
+    /**
+     * Reads big-endian longs into an array.
+     * 
+     * @throws IOException The longs could not be read.
+     */
+    public static void readFully(final DataInput in,final long[] a,int off,int len) throws IOException {
+        final byte[] buf = buffer(len * (long)Long.BYTES);
+        final LongBuffer view = ByteBuffer.wrap(buf).asLongBuffer();
+        while(len > 0) {
+            final int n = Math.min(len,view.capacity());
+            in.readFully(buf,0,n * Long.BYTES);
+            view.get(0,a,off,n);
+            off += n;
+            len -= n;
+        }
+    }
+    /**
+     * Writes integers in big-endian order.
+     * 
+     * @throws IOException The integers could not be written.
+     */
+    public static void write(final DataOutput out,final int[] a,int off,int len) throws IOException {
+        if(out instanceof NBTBufferOutput b) {b.writeInts(a,off,len); return;}
+        final byte[] buf = buffer(len * (long)Integer.BYTES);
+        final IntBuffer view = ByteBuffer.wrap(buf).asIntBuffer();
+        while(len > 0) {
+            final int n = Math.min(len,view.capacity());
+            view.put(0,a,off,n);
+            out.write(buf,0,n * Integer.BYTES);
+            off += n;
+            len -= n;
+        }
+    }
+    /**
+     * Writes longs in big-endian order.
+     * 
+     * @throws IOException The longs could not be written.
+     */
+    public static void write(final DataOutput out,final long[] a,int off,int len) throws IOException {
+        if(out instanceof NBTBufferOutput b) {b.writeLongs(a,off,len); return;}
+        final byte[] buf = buffer(len * (long)Long.BYTES);
+        final LongBuffer view = ByteBuffer.wrap(buf).asLongBuffer();
+        while(len > 0) {
+            final int n = Math.min(len,view.capacity());
+            view.put(0,a,off,n);
+            out.write(buf,0,n * Long.BYTES);
+            off += n;
+            len -= n;
+        }
     }
     
     /**
@@ -78,17 +146,18 @@ public abstract class NBTPrimitiveArray extends NBTArray {
      * @throws NBTParsingException The iterator cannot find a valid array.
      */
     protected static NBTArray parseHeader(final SequenceIterator i) throws NBTParsingException {
-        final Character c = ALLOW_TOKEN_WHITESPACE? i.nextNonWS()
-                                                  : i.next();
-        if(c == null) throw new NBTParsingException("Missing closing character '%c'".formatted(CLOSE),i);
+        final Dialect d = Dialect.current();
+        final int c = d.tokenWhitespace? i.nextNonWSChar()
+                                       : i.nextChar();
+        if(c == SequenceIterator.EOF) throw new NBTParsingException("Missing closing character '%c'".formatted(CLOSE),i);
         switch(c) {
             case NBTLong.ARRAY_TOKEN,
                  NBTByte.ARRAY_TOKEN,
                  NBTInt .ARRAY_TOKEN:
-                if(!PRIMITIVE_ARRAY_ENABLED) break;
-                final Character sep = ALLOW_TOKEN_WHITESPACE? i.nextNonWS()
-                                                            : i.next();
-                if(sep == null) throw new NBTParsingException("Missing closing character '%c'".formatted(CLOSE),i);
+                if(!d.primitiveArrays) break;
+                final int sep = d.tokenWhitespace? i.nextNonWSChar()
+                                                 : i.nextChar();
+                if(sep == SequenceIterator.EOF) throw new NBTParsingException("Missing closing character '%c'".formatted(CLOSE),i);
                 if(sep != TOKEN_SEPARATOR) break;
                 try {
                     return switch(c) {
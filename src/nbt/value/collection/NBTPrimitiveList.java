@@ -0,0 +1,198 @@
+package nbt.value.collection;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import nbt.Dialect;
+import nbt.exception.NBTConversionException;
+import nbt.value.NBTValue;
+import nbt.value.ValueType;
+
+/**
+ * An {@linkplain NBTArray} whose elements are stored in a primitive array. The
+ * subtype is fixed on creation, and elements are only boxed into
+ * {@linkplain NBTValue}s when they are accessed as such, so values returned by
+ * {@linkplain #get(Integer)} and {@linkplain #iterator()} are copies.
+ * 
+ * @author prgmTrouble
+ * @author AzureTriple
+ */
+public abstract class NBTPrimitiveList extends NBTArray {
+    /**
+     * Creates an empty list with default minimalism.
+     * 
+     * @see NBTValue#NBTValue()
+     */
+    protected NBTPrimitiveList(final ValueType subtype) {
+        super();
+        this.subtype = subtype;
+    }
+    /**
+     * Creates an empty list.
+     * 
+     * @see NBTValue#NBTValue(boolean)
+     */
+    protected NBTPrimitiveList(final ValueType subtype,final boolean minimal) {
+        super(minimal);
+        this.subtype = subtype;
+    }
+    
+    /**The number of elements in this array.*/
+    protected int size = 0;
+    
+    /**@return A copy of the element at the index.*/
+    protected abstract NBTValue box(final int i);
+    /**Stores an element which has already been converted to the subtype.*/
+    protected abstract void unbox(final int i,final NBTValue value);
+    /**Grows the backing array to hold at least <code>capacity</code> elements.*/
+    public abstract void ensureCapacity(final int capacity);
+    /**Moves a range of elements within the backing array.*/
+    protected abstract void move(final int from,final int to,final int length);
+    /**
+     * Writes the elements.
+     * 
+     * @throws IOException The elements could not be written.
+     */
+    protected abstract void writeElements(final DataOutput out) throws IOException;
+    
+    /**@return The new capacity of a backing array which must hold at least <code>capacity</code> elements.*/
+    protected static int grow(final int length,final int capacity) {
+        return Math.max(capacity,length + (length >> 1) + 1);
+    }
+    /**@throws IllegalArgumentException The index is out of bounds.*/
+    protected void checkIndex(final int i,final String operation) throws IllegalArgumentException {
+        if(size <= i || i < 0)
+            throw new IllegalArgumentException(
+                "Cannot %s value at position %d (size = %d)."
+                .formatted(operation,i,size)
+            );
+    }
+    
+    @Override public int size() {return size;}
+    /**Elements are boxed with this list's minimalism, so only the flag is changed.*/
+    @Override public void setDeepMinimal(final boolean minimal) {this.minimal = minimal;}
+    /**
+     * Converts the element to this list's fixed subtype.
+     * 
+     * @return The converted element, or <code>null</code> if it should be ignored.
+     * 
+     * @throws NBTConversionException The value could not be converted.
+     */
+    @Override
+    protected NBTValue adopt(final NBTValue value) throws NBTConversionException {
+        if(subtype == value.type()) return value;
+        final Dialect d = Dialect.current();
+        if(d.theWildWest) return null;
+        if(d.adoption) return value.convertTo(subtype);
+        throw new NBTConversionException(
+            "Could not assign a value of type \"%s\" to an array of type \"%s\"."
+            .formatted(value.type(),subtype)
+        );
+    }
+    
+    /**
+     * @throws NBTConversionException The value could not be converted.
+     * @throws IllegalArgumentException The key is <code>null</code> or out of bounds.
+     */
+    @Override
+    public NBTArray set(final Integer key,NBTValue value) throws NBTConversionException,
+                                                                 IllegalArgumentException {
+        if(key == null || size < key || key < 0)
+            throw new IllegalArgumentException(String.format(
+                "Cannot set value at position %s (size = %d).",
+                key,size
+            ));
+        if((value = adopt(value)) == null) return this;
+        ensureCapacity(size + 1);
+        move(key,key + 1,size - key);
+        unbox(key,value);
+        ++size;
+        markDirty();
+        return this;
+    }
+    /**
+     * Appends the element to the last index.
+     * 
+     * @throws NBTConversionException The value could not be converted.
+     */
+    @Override
+    public NBTArray add(NBTValue value) throws NBTConversionException {
+        if((value = adopt(value)) == null) return this;
+        ensureCapacity(size + 1);
+        unbox(size++,value);
+        markDirty();
+        return this;
+    }
+    /**@throws IllegalArgumentException The key is <code>null</code> or out of bounds.*/
+    @Override
+    public NBTValue get(final Integer key) throws IllegalArgumentException {
+        if(key == null) throw new IllegalArgumentException("Cannot get value at position null.");
+        checkIndex(key,"get");
+        return box(key);
+    }
+    /**@throws IllegalArgumentException The key is <code>null</code> or out of bounds.*/
+    @Override
+    public NBTValue remove(final Integer key) throws IllegalArgumentException {
+        if(key == null) throw new IllegalArgumentException("Cannot remove value at position null.");
+        checkIndex(key,"remove");
+        final NBTValue v = box(key);
+        move(key + 1,key,--size - key);
+        markDirty();
+        return v;
+    }
+    @Override
+    public Iterator<NBTValue> iterator() {
+        return new Iterator<>() {
+            int i = 0;
+            @Override public boolean hasNext() {return i < size;}
+            @Override
+            public NBTValue next() {
+                if(i >= size) throw new NoSuchElementException();
+                return box(i++);
+            }
+        };
+    }
+    /**
+     * Writes this list's subtype and length followed by its elements.
+     * 
+     * @throws IOException The list could not be written.
+     */
+    @Override
+    public void write(final DataOutput out) throws IOException {
+        out.write(subtype.id);
+        out.writeInt(size);
+        writeElements(out);
+    }
+    
+    private static NBTPrimitiveList create(final ValueType subtype) {
+        return switch(subtype) {
+            case SHORT -> new NBTShortList();
+            case FLOAT -> new NBTFloatList();
+            case DOUBLE -> new NBTDoubleList();
+            default -> null;
+        };
+    }
+    /**
+     * @return An empty specialised list for the subtype, or an empty
+     *         {@linkplain NBTArray} if no specialisation exists.
+     */
+    public static NBTArray forSubtype(final ValueType subtype) {
+        final NBTPrimitiveList l = subtype == null? null : create(subtype);
+        return l == null? new NBTArray() : l;
+    }
+    /**
+     * @return A specialised copy of the array, or the array itself if it is
+     *         already specialised or no specialisation exists for its subtype.
+     */
+    public static NBTArray specialise(final NBTArray arr) {
+        if(arr.getClass() != NBTArray.class || arr.subtype == null) return arr;
+        final NBTPrimitiveList l = create(arr.subtype);
+        if(l == null) return arr;
+        l.minimal = arr.isMinimal();
+        l.ensureCapacity(arr.values.size());
+        for(final NBTValue v : arr.values) l.unbox(l.size++,v);
+        return l;
+    }
+}
\ No newline at end of file
@@ -3,17 +3,19 @@ package nbt.value.collection;
 import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
+import nbt.Dialect;
 import nbt.NBT;
 import nbt.exception.NBTException;
 import nbt.exception.NBTParsingException;
+import nbt.stream.KeyTable;
 import nbt.value.NBTString;
 import nbt.value.NBTValue;
 import nbt.value.ValueType;
-import settings.Version;
 import util.string.Joiner;
 import util.string.Sequence;
 import util.string.Sequence.SequenceIterator;
 import util.string.outline.JoiningSegment;
+import util.string.outline.OutlineWriter;
 import util.string.outline.Segment;
 
 /**
@@ -25,12 +27,6 @@ import util.string.outline.Segment;
 public class NBTTag extends NBT {
     public static final char SEPARATOR = ':';
     
-    /**
-     * Causes the parser to think that quotes in the key are a part of the literal
-     * string.
-     */
-    public static final boolean THE_WILD_WEST = Version.isBefore(Version.v17w16a);
-    
     /**This tag's key. This should not be modifiable.*/
     protected final NBTString key;
     /**The {@linkplain NBTValue} held by this object.*/
@@ -44,11 +40,11 @@ public class NBTTag extends NBT {
      */
     public NBTTag(final NBTString key,final NBTValue value) throws NullPointerException,
                                                                    NBTParsingException {
-        super((THE_WILD_WEST || key.minimal) && value.minimal);
+        super((Dialect.current().theWildWest || key.isMinimal()) && value.isMinimal());
         if((this.key = key).unwrapped().isEmpty())
             throw new NBTParsingException("Empty key.");
         value(value);
-        if(THE_WILD_WEST) this.key.minimal = true;
+        if(Dialect.current().theWildWest) this.key.setDeepMinimal(true);
     }
     /**
      * Reads a tag.
@@ -62,7 +58,7 @@ public class NBTTag extends NBT {
             throw new NBTException(
                 "Unknown type %d.".formatted(id)
             );
-        if((key = new NBTString(in)).unwrapped().isEmpty())
+        if((key = KeyTable.SHARED.read(in,minimal)).unwrapped().isEmpty())
             throw new NBTException("Empty key.");
         value = t.read(in);
     }
@@ -91,25 +87,45 @@ public class NBTTag extends NBT {
         if(value == null)
             throw new NullPointerException("Cannot assign null value.");
         this.value = value;
+        markDirty();
         return this;
     }
     
     @Override public boolean isDefault() {return value.isDefault();}
     
+    @Override public boolean isDirty() {return super.isDirty() || value.isDirty();}
+    @Override
+    protected void markClean() {
+        super.markClean();
+        markClean(value);
+    }
+    
     @Override
     public void setDeepMinimal(final boolean minimal) {
         super.setDeepMinimal(minimal);
-        key.setDeepMinimal(THE_WILD_WEST || minimal);
-        value.setDeepMinimal(minimal);
+        key.setDeepMinimal(minimal || Dialect.current().theWildWest);
+        value = NBTCollection.withMinimal(value,minimal);
     }
     
     @Override public Sequence toSequence() {return value.appendTo(key.appendTo(new Joiner(':'))).concat();}
     @Override
+    public <A extends Appendable> A appendSNBT(final A out) throws IOException {
+        key.appendSNBT(out).append(SEPARATOR);
+        return value.appendSNBT(out);
+    }
+    @Override
     public Segment toSegment() {//TODO customization?
         return new JoiningSegment(new Sequence(SEPARATOR))
                             .push(key.toSegment())
                             .push(value.toSegment());
     }
+    @Override
+    public void outline(final OutlineWriter w) throws IOException {
+        w.join(new Sequence(SEPARATOR));
+        key.outline(w);
+        value.outline(w);
+        w.end();
+    }
     
     /**
      * Strictly parses a key.
@@ -126,20 +142,20 @@ public class NBTTag extends NBT {
      * @throws NBTParsingException The key could not be parsed.
      */
     public static NBTString parseKey(final SequenceIterator i) throws NBTParsingException {
-        if(THE_WILD_WEST) {
+        if(Dialect.current().theWildWest) {
             // I hate this as much as you do.
             class Key extends NBTString {
                 Key(final SequenceIterator i) throws NBTParsingException {
                     super();
-                    if(i.skipWS() != null) {
+                    if(i.skipWSChar() != SequenceIterator.EOF) {
                         final int start = i.index();
                         int end = start;
                         boolean inQuote;
                         {
-                            final char c = i.peek();
+                            final char c = (char)i.peekChar();
                             if(c == SEPARATOR) {
-                                value = i.getParent().subSequence(start,end);
-                                i.nextNonWS();
+                                value = i.subSequence(start,end);
+                                i.nextNonWSChar();
                                 return;
                             }
                             ++end;
@@ -148,12 +164,13 @@ public class NBTTag extends NBT {
                                 throw new NBTParsingException("Invalid character in key",i);
                         }
                         while(i.hasNext()) {
-                            final Character c = i.nextNonWS();
-                            if(c == null) break;
+                            final int n = i.nextNonWSChar();
+                            if(n == SequenceIterator.EOF) break;
+                            final char c = (char)n;
                             if(!inQuote) {
                                 if(c == SEPARATOR) {
-                                    value = i.getParent().subSequence(start,end);
-                                    i.nextNonWS();
+                                    value = i.subSequence(start,end);
+                                    i.nextNonWSChar();
                                     return;
                                 }
                                 if(Sequence.mapToClose(c) != null || Sequence.isClose(c))
@@ -162,7 +179,7 @@ public class NBTTag extends NBT {
                             end = i.index() + 1;
                             if(c == '\\') {
                                 if(!i.hasNext()) break;
-                                final char nc = i.next();
+                                final char nc = (char)i.nextChar();
                                 if(!inQuote && isStringWrapper(nc))
                                     throw new NBTParsingException("Invalid escaped quote in key",i);
                                 ++end;
@@ -188,15 +205,41 @@ public class NBTTag extends NBT {
         // Blank keys are not allowed.
         if(key.unwrapped().isEmpty()) throw new NBTParsingException("Blank key",i);
         // The key must be followed by a separator character to be a tag.
-        if(i.skipWS() != SEPARATOR)
+        if(i.skipWSChar() != SEPARATOR)
             throw new NBTParsingException(
                 "Missing separator character ('%c')"
                 .formatted(SEPARATOR),i
             );
         // Separator must be followed by something else.
-        if(i.nextNonWS() == null) throw new NBTParsingException("Missing value",i);
+        if(i.nextNonWSChar() == SequenceIterator.EOF) throw new NBTParsingException("Missing value",i);
         return key;
     }
+    /**
+     * Parses a key if the input starts with one. Unlike
+     * {@linkplain #parseKey(SequenceIterator)}, this does not throw an exception
+     * when the input is simply not a tag, so it is suitable for speculative
+     * parsing.
+     * 
+     * @return The key, or <code>null</code> if the input does not start with a
+     *         key followed by a separator and a value. The iterator is left in an
+     *         unspecified position in this case.
+     * 
+     * @throws NBTParsingException A quoted key is malformed.
+     */
+    public static NBTString tryParseKey(final SequenceIterator i) throws NBTParsingException {
+        if(Dialect.current().theWildWest) {
+            // The legacy key syntax is too loose to be checked up front.
+            try {return parseKey(i);}
+            catch(final NBTParsingException e) {return null;}
+        }
+        final int first = i.skipWSChar();
+        if(first == SequenceIterator.EOF || !(NBTString.isStringWrapper((char)first) || NBTString.allowUnwrapped((char)first)))
+            return null;
+        final NBTString key = new NBTString(i);
+        return key.unwrapped().isEmpty() ||
+               i.skipWSChar() != SEPARATOR ||
+               i.nextNonWSChar() == SequenceIterator.EOF? null : key;
+    }
     /**
      * Parses a value.
      * 
@@ -0,0 +1,151 @@
+package nbt.value.collection;
+
+import java.util.Iterator;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import nbt.Dialect;
+import nbt.exception.NBTException;
+import nbt.stream.NBTReader;
+import nbt.stream.NBTTreeBuilder;
+import nbt.value.NBTString;
+import nbt.value.NBTValue;
+import nbt.value.ValueType;
+import util.string.Sequence;
+
+/**
+ * A placeholder for a value of a lazily read collection. It records where the
+ * value's binary payload is in the backing buffer and decodes it on first
+ * access. The payload is kept after decoding, so a value which was never
+ * decoded or which is not {@linkplain NBTValue#isDirty() dirty} is written by
+ * copying its payload.
+ * <p>
+ * Collections unwrap placeholders before exposing their values, so instances
+ * never leave the collection which holds them.
+ * 
+ * @author prgmTrouble
+ * @author AzureTriple
+ */
+final class RawValue extends NBTValue {
+    private final ValueType type;
+    private final byte[] data;
+    private final int offset,length;
+    /**The dialect which the payload was scanned in, which is also used to decode it.*/
+    private final Dialect dialect;
+    private NBTValue value = null;
+    
+    private RawValue(final ValueType type,final byte[] data,final int offset,final int length,
+                     final Dialect dialect) {
+        super(false);
+        this.type = type;
+        this.data = data;
+        this.offset = offset;
+        this.length = length;
+        this.dialect = dialect;
+    }
+    
+    /**
+     * @return The decoded value.
+     * 
+     * @throws UncheckedIOException  The payload is not valid binary NBT.
+     * @throws IllegalStateException The payload contains an invalid value.
+     */
+    @SuppressWarnings("try")
+    NBTValue value() throws UncheckedIOException,IllegalStateException {
+        if(value == null) {
+            try(final Dialect.Scope scope = dialect.bind()) {
+                final Reader r = new Reader(data,offset);
+                value = switch(type) {
+                    case OBJECT -> NBTObject.readLazy(r);
+                    case ARRAY -> isRaw(ValueType.getType(data[offset],dialect))? NBTArray.readLazy(r) : r.decode(type);
+                    default -> r.decode(type);
+                };
+            }
+            catch(final IOException e) {throw new UncheckedIOException(e);}
+            catch(final NBTException e) {throw new IllegalStateException("Invalid %s value.".formatted(type.name),e);}
+        }
+        return value;
+    }
+    /**@return The decoded value if <code>v</code> is a placeholder, otherwise <code>v</code>.*/
+    static NBTValue unwrap(final NBTValue v) {return v instanceof RawValue r? r.value() : v;}
+    /**@return <code>true</code> iff values of the type are kept undecoded while scanning.*/
+    private static boolean isRaw(final ValueType type) {
+        return type != null && switch(type) {
+            case OBJECT,ARRAY,BYTE_ARRAY,INT_ARRAY,LONG_ARRAY -> true;
+            default -> false;
+        };
+    }
+    
+    @Override public ValueType type() {return type;}
+    @Override
+    public void write(final DataOutput out) throws IOException {
+        if(isDirty()) value.write(out);
+        else out.write(data,offset,length);
+    }
+    @Override public boolean isDirty() {return value != null && value.isDirty();}
+    // Anything else needs the decoded value.
+    @Override public boolean isDefault() {return value().isDefault();}
+    @Override protected Sequence complete() {return value().toSequence();}
+    @Override protected Sequence minimal() {return value().toSequence();}
+    @Override public void setDeepMinimal(final boolean minimal) {value().setDeepMinimal(minimal);}
+    
+    /**An iterator which unwraps placeholders.*/
+    static final class Unwrapper implements Iterator<NBTValue> {
+        private final Iterator<NBTValue> i;
+        private final Runnable onRemove;
+        /**@param onRemove Called after an element is removed.*/
+        Unwrapper(final Iterator<NBTValue> i,final Runnable onRemove) {this.i = i; this.onRemove = onRemove;}
+        
+        @Override public boolean hasNext() {return i.hasNext();}
+        @Override public NBTValue next() {return unwrap(i.next());}
+        @Override public void remove() {i.remove(); onRemove.run();}
+    }
+    
+    /**Scans binary NBT in a buffer, creating placeholders for nested values.*/
+    static final class Reader {
+        private final byte[] data;
+        private final ByteArrayInputStream bytes;
+        final DataInputStream in;
+        private final NBTReader reader;
+        private final NBTTreeBuilder builder = new NBTTreeBuilder();
+        private final Dialect dialect = Dialect.current();
+        
+        Reader(final byte[] data,final int offset) {
+            this.data = data;
+            in = new DataInputStream(bytes = new ByteArrayInputStream(data,offset,data.length - offset));
+            reader = new NBTReader(in);
+        }
+        
+        private int position() {return data.length - bytes.available();}
+        /**@return The type with the id which is read, or <code>null</code> for the end of an object.*/
+        ValueType type() throws IOException,NBTException {
+            final byte id = in.readByte();
+            if(id == NBTObject.END_BYTE) return null;
+            final ValueType t = ValueType.getType(id,dialect);
+            if(t == null) throw new NBTException("Unknown type %d.".formatted(id));
+            return t;
+        }
+        /**@see NBTReader#readKey()*/
+        NBTString key() throws IOException {return reader.readKey();}
+        /**
+         * Reads a value. Objects, arrays, and primitive arrays are skipped and
+         * replaced with placeholders.
+         */
+        NBTValue value(final ValueType type) throws IOException,NBTException {
+            if(!isRaw(type)) return decode(type);
+            final int start = position();
+            reader.skip(type);
+            return new RawValue(type,data,start,position() - start,dialect);
+        }
+        /**Reads and decodes a value, which is not dirty.*/
+        NBTValue decode(final ValueType type) throws IOException,NBTException {
+            reader.read(type,builder);
+            final NBTValue v = builder.result();
+            markClean(v);
+            return v;
+        }
+    }
+}
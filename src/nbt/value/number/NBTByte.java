@@ -5,6 +5,7 @@ import java.io.DataOutput;
 import java.io.IOException;
 import nbt.value.NBTValue;
 import nbt.value.ValueType;
+import settings.Settings;
 
 /**
  * An 8-bit integral value.
@@ -70,7 +71,7 @@ public class NBTByte extends NBTi32 {
      * @throws IOException The value could not be written.
      */
     @Override
-    public void write(final DataOutput out) throws IOException {out.writeByte(value.intValue());}
+    public void write(final DataOutput out) throws IOException {out.writeByte(value);}
     
     @Override public NBTByte setValue(final int value) {return (NBTByte)super.setValue(value);}
     public NBTByte setValue(final byte value) {return (NBTByte)super.setValue((int)value);}
@@ -80,6 +81,38 @@ public class NBTByte extends NBTi32 {
     
     @Override protected char suffix() {return SUFFIX_0;}
     
+    @Override public NBTValue intern() {return localDefault == GLOBAL_DEFAULT? valueOf((byte)value,minimal) : this;}
+    
+    /**A canonical byte value which is shared between trees.*/
+    private static final class Shared extends NBTByte {
+        private Shared(final int value,final boolean minimal) {super(value,minimal);}
+        
+        @Override public boolean isShared() {return true;}
+        @Override public NBTValue unshare() {return new NBTByte(value,minimal);}
+        @Override public NBTByte setValue(final int value) {throw immutable();}
+        @Override public NBTByte setValue(final byte value) {throw immutable();}
+        @Override public NBTByte setDefault(final int localDefault) {throw immutable();}
+        @Override public NBTByte setDefault(final byte localDefault) {throw immutable();}
+        @Override public void setDeepMinimal(final boolean minimal) {}
+        @Override protected void markClean() {}
+    }
+    /**Every byte value, created on first use.*/
+    private static final class Cache {
+        static final NBTByte[] MINIMAL = new NBTByte[1 << Byte.SIZE],COMPLETE = new NBTByte[1 << Byte.SIZE];
+        static {
+            for(int i = 0;i < MINIMAL.length;++i) {
+                MINIMAL[i] = new Shared(i + Byte.MIN_VALUE,true);
+                COMPLETE[i] = new Shared(i + Byte.MIN_VALUE,false);
+            }
+        }
+    }
+    /**@return The {@linkplain NBTValue#isShared() shared} instance of the value.*/
+    public static NBTByte valueOf(final byte value,final boolean minimal) {
+        return (minimal? Cache.MINIMAL : Cache.COMPLETE)[value - Byte.MIN_VALUE];
+    }
+    /**@return The {@linkplain NBTValue#isShared() shared} instance of the value with default minimalism.*/
+    public static NBTByte valueOf(final byte value) {return valueOf(value,Settings.defaultMinimal());}
+    
     /**@return <code>true</code> iff the argument matches a byte suffix.*/
     public static boolean isByteSuffix(final char suffix) {
         return suffix == SUFFIX_0 || suffix == SUFFIX_1;
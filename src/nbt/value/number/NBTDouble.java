@@ -5,6 +5,7 @@ import java.io.DataOutput;
 import java.io.IOException;
 import nbt.value.NBTValue;
 import nbt.value.ValueType;
+import util.string.Sequence;
 
 /**
  * A 64-bit floating-point {@linkplain NBTNumber}.
@@ -22,6 +23,7 @@ public class NBTDouble extends NBTFP {
     
     /**Used in {@linkplain #isDefault()}.*/
     public double localDefault = GLOBAL_DEFAULT;
+    protected double value;
     
     /**
      * Creates a double value of {@linkplain #GLOBAL_DEFAULT} with default
@@ -29,42 +31,50 @@ public class NBTDouble extends NBTFP {
      * 
      * @see NBTValue#NBTValue()
      */
-    public NBTDouble() {super(GLOBAL_DEFAULT);}
+    public NBTDouble() {this(GLOBAL_DEFAULT);}
     /**
      * Creates a double value of {@linkplain #GLOBAL_DEFAULT}.
      * 
      * @see NBTValue#NBTValue(boolean)
      */
-    public NBTDouble(final boolean minimal) {super(GLOBAL_DEFAULT,minimal);}
+    public NBTDouble(final boolean minimal) {this(GLOBAL_DEFAULT,minimal);}
     /**
      * Creates a double value with default minimalism.
      * 
      * @see NBTValue#NBTValue()
      */
-    public NBTDouble(final double value) {super(value);}
+    public NBTDouble(final double value) {super(); this.value = value;}
     /**
      * Creates a double value.
      * 
      * @see NBTValue#NBTValue(boolean)
      */
-    public NBTDouble(final double value,final boolean minimal) {super(value,minimal);}
+    public NBTDouble(final double value,final boolean minimal) {super(minimal); this.value = value;}
     /**
      * Reads a double value.
      * 
      * @throws IOException The value could not be read.
      */
-    public NBTDouble(final DataInput in) throws IOException {super(in.readDouble());}
+    public NBTDouble(final DataInput in) throws IOException {this(in.readDouble());}
     /**
      * Writes this double value.
      * 
      * @throws IOException The value could not be written.
      */
     @Override
-    public void write(final DataOutput out) throws IOException {out.writeDouble(value.doubleValue());}
+    public void write(final DataOutput out) throws IOException {out.writeDouble(value);}
     
-    public NBTDouble setValue(final double value) {this.value = value; return this;}
+    public NBTDouble setValue(final double value) {this.value = value; markDirty(); return this;}
     
-    @Override public boolean isDefault() {return value.doubleValue() == localDefault;}
+    @Override public Number value() {return value;}
+    @Override public int intValue() {return (int)value;}
+    @Override public long longValue() {return (long)value;}
+    @Override public float floatValue() {return (float)value;}
+    @Override public double doubleValue() {return value;}
+    
+    @Override public boolean isDefault() {return value == localDefault;}
+    
+    @Override protected Sequence minimal() {return new Sequence(Double.toString(value));}
     
     @Override protected char suffix() {return SUFFIX_0;}
     @Override protected boolean forceSuffix() {return SUFFIX_POLICY;}
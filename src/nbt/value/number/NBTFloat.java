@@ -3,9 +3,10 @@ package nbt.value.number;
 import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
+import nbt.Dialect;
 import nbt.value.NBTValue;
 import nbt.value.ValueType;
-import settings.Version;
+import util.string.Sequence;
 
 /**
  * A 32-bit floating-point {@linkplain NBTNumber}.
@@ -18,17 +19,11 @@ public class NBTFloat extends NBTFP {
     @Override public ValueType type() {return TYPE;}
     
     public static final char SUFFIX_0 = 'f',SUFFIX_1 = 'F';
-    /**
-     * Before "The Flattening," the suffixes are required to ensure that lists are
-     * correct. However, no instances of 32-bit floats appear in SNBT outside of
-     * lists (as far as I can tell). For simplicity, this constant assumes that
-     * floats will always have suffixes in versions before the flattening.
-     */
-    public static final boolean SUFFIX_POLICY = Version.atMost(Version.The_Flattening);
     public static final float GLOBAL_DEFAULT = 0f;
     
     /**Used in {@linkplain #isDefault()}.*/
     public float localDefault = GLOBAL_DEFAULT;
+    protected float value;
     
     /**
      * Creates a float value of {@linkplain #GLOBAL_DEFAULT} with default
@@ -36,37 +31,46 @@ public class NBTFloat extends NBTFP {
      * 
      * @see NBTValue#NBTValue()
      */
-    public NBTFloat() {super(GLOBAL_DEFAULT);}
+    public NBTFloat() {this(GLOBAL_DEFAULT);}
     /**
      * Creates a float value of {@linkplain #GLOBAL_DEFAULT}.
      * 
      * @see NBTValue#NBTValue(boolean)
      */
-    public NBTFloat(final boolean minimal) {super(GLOBAL_DEFAULT,minimal);}
+    public NBTFloat(final boolean minimal) {this(GLOBAL_DEFAULT,minimal);}
     /**
      * Creates a float value with default minimalism.
      * 
      * @see NBTValue#NBTValue()
      */
-    public NBTFloat(final float value) {super(value);}
+    public NBTFloat(final float value) {super(); this.value = value;}
     /**
      * Creates a float value.
      * 
      * @see NBTValue#NBTValue(boolean)
      */
-    public NBTFloat(final float value,final boolean minimal) {super(value,minimal);}
+    public NBTFloat(final float value,final boolean minimal) {super(minimal); this.value = value;}
     /**Reads a float value.*/
-    public NBTFloat(final DataInput in) throws IOException {super(in.readFloat());}
+    public NBTFloat(final DataInput in) throws IOException {this(in.readFloat());}
     /**Writes this float value.*/
     @Override
-    public void write(final DataOutput out) throws IOException {out.writeFloat(value.floatValue());}
+    public void write(final DataOutput out) throws IOException {out.writeFloat(value);}
+    
+    public NBTFloat setValue(final float value) {this.value = value; markDirty(); return this;}
+    
+    @Override public Number value() {return value;}
+    @Override public int intValue() {return (int)value;}
+    @Override public long longValue() {return (long)value;}
+    @Override public float floatValue() {return value;}
+    @Override public double doubleValue() {return value;}
     
-    public NBTFloat setValue(final float value) {this.value = value; return this;}
+    @Override public boolean isDefault() {return value == localDefault;}
     
-    @Override public boolean isDefault() {return value.floatValue() == localDefault;}
+    @Override protected Sequence minimal() {return new Sequence(Float.toString(value));}
     
     @Override protected char suffix() {return SUFFIX_0;}
-    @Override protected boolean forceSuffix() {return SUFFIX_POLICY;}
+    /**@see Dialect#floatSuffix*/
+    @Override protected boolean forceSuffix() {return Dialect.current().floatSuffix;}
     
     /**@return <code>true</code> iff the argument matches a float suffix.*/
     public static boolean isFloatSuffix(final char suffix) {
@@ -5,6 +5,7 @@ import java.io.DataOutput;
 import java.io.IOException;
 import nbt.value.NBTValue;
 import nbt.value.ValueType;
+import settings.Settings;
 
 /**
  * A 32-bit integral value.
@@ -58,10 +59,50 @@ public class NBTInt extends NBTi32 {
      * @throws IOException The value could not be written.
      */
     @Override
-    public void write(final DataOutput out) throws IOException {out.writeInt(value.intValue());}
+    public void write(final DataOutput out) throws IOException {out.writeInt(value);}
     
     @Override public NBTInt setValue(final int value) {return (NBTInt)super.setValue(value);}
     @Override public NBTInt setDefault(final int value) {return (NBTInt)super.setDefault(value);}
     
+    @Override
+    public NBTValue intern() {
+        return localDefault == GLOBAL_DEFAULT && SHARED_MIN <= value && value <= SHARED_MAX
+            ? valueOf(value,minimal)
+            : this;
+    }
+    
+    /**A canonical integer value which is shared between trees.*/
+    private static final class Shared extends NBTInt {
+        private Shared(final int value,final boolean minimal) {super(value,minimal);}
+        
+        @Override public boolean isShared() {return true;}
+        @Override public NBTValue unshare() {return new NBTInt(value,minimal);}
+        @Override public NBTInt setValue(final int value) {throw immutable();}
+        @Override public NBTInt setDefault(final int value) {throw immutable();}
+        @Override public void setDeepMinimal(final boolean minimal) {}
+        @Override protected void markClean() {}
+    }
+    /**The values from {@linkplain NBTi32#SHARED_MIN} to {@linkplain NBTi32#SHARED_MAX}, created on first use.*/
+    private static final class Cache {
+        static final NBTInt[] MINIMAL = new NBTInt[SHARED_MAX - SHARED_MIN + 1],COMPLETE = new NBTInt[MINIMAL.length];
+        static {
+            for(int i = 0;i < MINIMAL.length;++i) {
+                MINIMAL[i] = new Shared(i + SHARED_MIN,true);
+                COMPLETE[i] = new Shared(i + SHARED_MIN,false);
+            }
+        }
+    }
+    /**
+     * @return The {@linkplain NBTValue#isShared() shared} instance of the value,
+     *         or a new instance if the value is not in the shared range.
+     */
+    public static NBTInt valueOf(final int value,final boolean minimal) {
+        return SHARED_MIN <= value && value <= SHARED_MAX
+            ? (minimal? Cache.MINIMAL : Cache.COMPLETE)[value - SHARED_MIN]
+            : new NBTInt(value,minimal);
+    }
+    /**@see #valueOf(int,boolean)*/
+    public static NBTInt valueOf(final int value) {return valueOf(value,Settings.defaultMinimal());}
+    
     @Override protected char suffix() {return SUFFIXES[0];}
 }
\ No newline at end of file
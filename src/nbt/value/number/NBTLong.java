@@ -6,6 +6,7 @@ import java.io.IOException;
 import nbt.exception.NBTParsingException;
 import nbt.value.NBTValue;
 import nbt.value.ValueType;
+import util.string.Sequence;
 import util.string.Sequence.SequenceIterator;
 
 /**
@@ -25,38 +26,47 @@ public class NBTLong extends NBTNumber {
     
     /**Used in {@linkplain #isDefault()}.*/
     public long localDefault = GLOBAL_DEFAULT;
+    protected long value;
     
     /**
      * Creates a long value of {@linkplain #GLOBAL_DEFAULT} with default minimalism.
      * 
      * @see NBTValue#NBTValue()
      */
-    public NBTLong() {super(GLOBAL_DEFAULT);}
+    public NBTLong() {this(GLOBAL_DEFAULT);}
     /**
      * Creates a long value of {@linkplain #GLOBAL_DEFAULT}.
      * 
      * @see NBTValue#NBTValue(boolean)
      */
-    public NBTLong(final boolean minimal) {super(GLOBAL_DEFAULT,minimal);}
+    public NBTLong(final boolean minimal) {this(GLOBAL_DEFAULT,minimal);}
     /**
      * Creates a long value default minimalism.
      * 
      * @see NBTValue#NBTValue()
      */
-    public NBTLong(final long value) {super(value);}
+    public NBTLong(final long value) {super(); this.value = value;}
     /**
      * Creates a long value.
      * 
      * @see NBTValue#NBTValue(boolean)
      */
-    public NBTLong(final long value,final boolean minimal) {super(value,minimal);}
+    public NBTLong(final long value,final boolean minimal) {super(minimal); this.value = value;}
     /**Reads a long value.*/
-    public NBTLong(final DataInput in) throws IOException {super(in.readLong());}
+    public NBTLong(final DataInput in) throws IOException {this(in.readLong());}
     /**Writes this long value.*/
     @Override
-    public void write(final DataOutput out) throws IOException {out.writeLong(value.longValue());}
+    public void write(final DataOutput out) throws IOException {out.writeLong(value);}
     
-    @Override public boolean isDefault() {return value.longValue() == localDefault;}
+    @Override public Number value() {return value;}
+    @Override public int intValue() {return (int)value;}
+    @Override public long longValue() {return value;}
+    @Override public float floatValue() {return value;}
+    @Override public double doubleValue() {return value;}
+    
+    @Override public boolean isDefault() {return value == localDefault;}
+    
+    @Override protected Sequence minimal() {return new Sequence(Long.toString(value));}
     
     @Override protected char suffix() {return SUFFIX_0;}
     @Override protected boolean forceSuffix() {return SUFFIX_POLICY;}
@@ -77,23 +87,25 @@ public class NBTLong extends NBTNumber {
         if(i.hasNext()) {
             final boolean negative;
             final long limit;
+            long result = 0L;
             {
-                final char firstChar = i.next();
+                final char firstChar = (char)i.nextChar();
                 limit = (negative = firstChar == '-')? Long.MIN_VALUE : -Long.MAX_VALUE;
-                if((negative || firstChar == '+') && !i.hasNext())
-                    throw new NBTParsingException("Lone sign character in integral parsing",i);
-                else if(!NBTNumber.isNumeric(firstChar))
+                if(negative || firstChar == '+') {
+                    if(!i.hasNext())
+                        throw new NBTParsingException("Lone sign character in integral parsing",i);
+                } else if(!NBTNumber.isNumeric(firstChar))
                     throw new NBTParsingException("Invalid character in integral parsing",i);
+                else result = '0' - firstChar;
             }
             final long multmin = limit / 10L;
-            long result = 0L;
             while(i.hasNext()) {
                 // Accumulating negatively avoids surprises near MAX_VALUE
-                final int digit = i.next() - '0';
+                final int digit = i.nextChar() - '0';
                 if(9 < digit || digit < 0 || result < multmin)
                     throw new NBTParsingException(
                         "Invalid character '%c' ('\\u%04X') in integral parsing"
-                        .formatted(i.peek(),(int)i.peek()),i
+                        .formatted(SequenceIterator.boxed(i.peekChar()),i.peekChar()),i
                     );
                 result *= 10L;
                 if(result < limit + digit)
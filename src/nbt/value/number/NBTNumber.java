@@ -1,13 +1,13 @@
 package nbt.value.number;
 
+import nbt.Dialect;
 import nbt.exception.NBTConversionException;
 import nbt.exception.NBTParsingException;
 import nbt.value.NBTBool;
 import nbt.value.NBTString;
 import nbt.value.NBTValue;
 import nbt.value.ValueType;
-import settings.Version;
-import util.string.FPDelimiter;
+import util.string.NumberLexer;
 import util.string.Sequence;
 import util.string.Sequence.SequenceIterator;
 
@@ -18,34 +18,42 @@ import util.string.Sequence.SequenceIterator;
  * @author AzureTriple
  */
 public abstract class NBTNumber extends NBTValue {
-    // Access is protected to avoid null values.
-    protected Number value;
-    
-    /**
-     * Causes the parser to not recognise the exponent part in floating point values.
-     */
-    public static final boolean THE_WILD_WEST = Version.isBefore(Version.v17w16a);
-    
     /**
      * Creates a numeric value with default minimalism.
      * 
      * @see NBTValue#NBTValue()
      */
-    protected NBTNumber(final Number value) {super(); this.value = value;}
+    protected NBTNumber() {super();}
     /**
      * Creates a numeric value.
      * 
-     * @see NBTValue#NBTValue()
+     * @see NBTValue#NBTValue(boolean)
+     */
+    protected NBTNumber(final boolean minimal) {super(minimal);}
+    
+    /**
+     * @return This number's value, boxed. The subclasses store their values as
+     *         primitives, so prefer the typed accessors.
      */
-    protected NBTNumber(final Number value,final boolean minimal) {super(minimal); this.value = value;}
+    public abstract Number value();
+    /**@return This number's value, converted as if by a primitive cast.*/
+    public abstract int intValue();
+    /**@return This number's value, converted as if by a primitive cast.*/
+    public abstract long longValue();
+    /**@return This number's value, converted as if by a primitive cast.*/
+    public abstract float floatValue();
+    /**@return This number's value, converted as if by a primitive cast.*/
+    public abstract double doubleValue();
+    /**@return This number's value, converted as if by a primitive cast.*/
+    public byte byteValue() {return (byte)intValue();}
+    /**@return This number's value, converted as if by a primitive cast.*/
+    public short shortValue() {return (short)intValue();}
     
     /**@return This number's type suffix. Can be zero to specify that none exist.*/
     protected abstract char suffix();
     /**@return <code>true</code> if the number must be followed by a type suffix.*/
     protected abstract boolean forceSuffix();
     
-    @Override protected Sequence minimal() {return new Sequence(value.toString());}
-    
     @Override
     protected Sequence complete() {
         // Already checked empty suffix in overridden toSequence() function.
@@ -70,7 +78,7 @@ public abstract class NBTNumber extends NBTValue {
     public NBTValue convertTo(final ValueType type) throws NBTConversionException {
         return switch(type) {
             case BYTE,SHORT,INT -> { // All of these are i32, so they are all reducible to ints.
-                final int v = value.intValue();
+                final int v = intValue();
                 yield switch(type) {
                     case BYTE -> new NBTByte(v,minimal);
                     case SHORT -> new NBTShort(v,minimal);
@@ -78,10 +86,10 @@ public abstract class NBTNumber extends NBTValue {
                     default -> null;
                 };
             }
-            case LONG -> new NBTLong(value.longValue(),minimal);
-            case FLOAT -> new NBTFloat(value.floatValue(),minimal);
-            case DOUBLE -> new NBTDouble(value.doubleValue(),minimal);
-            case BOOL -> new NBTBool(value.intValue() == 0? false : true);
+            case LONG -> new NBTLong(longValue(),minimal);
+            case FLOAT -> new NBTFloat(floatValue(),minimal);
+            case DOUBLE -> new NBTDouble(doubleValue(),minimal);
+            case BOOL -> new NBTBool(intValue() == 0? false : true);
             case STRING -> {
                 try {yield new NBTString(toSequence(),minimal);}
                 catch(final NBTParsingException e) {throw new NBTConversionException("numeric",type);}
@@ -98,9 +106,50 @@ public abstract class NBTNumber extends NBTValue {
     /**@return <code>true</code> iff the input represents a decimal digit.*/
     public static boolean isNumeric(final char c) {return '0' <= c && c <= '9';}
     
-    private static char eatDigits(final SequenceIterator i) {
-        while(i.hasNext() && isNumeric(i.next()));
-        return i.peek();
+    /**
+     * Parses a number without throwing an exception if the input is not a number.
+     * The iterator is left in an unspecified position if <code>null</code> is
+     * returned, so callers which want to parse something else must rewind it.
+     * 
+     * @param i          A {@linkplain SequenceIterator} which points to the
+     *                   position just before the numeric sequence.
+     * @param terminator A character which marks the end of a structure.
+     *                   <code>null</code> indicates the end of the sequence.
+     * @param commas     <code>true</code> iff commas are allowed to terminate a
+     *                   value.
+     * 
+     * @return The appropriate {@linkplain NBTNumber}, or <code>null</code> if the
+     *         input is not a valid number followed by a terminator or an integral
+     *         value is out of range for its type.
+     */
+    public static NBTNumber tryParse(final SequenceIterator i,
+                                     final Character terminator,
+                                     final boolean commas) {
+        if(i.skipWSChar() == SequenceIterator.EOF) return null;
+        final NumberLexer lexer = new NumberLexer();
+        if(!lexer.lex(i,!Dialect.current().theWildWest)) return null;
+        final int c = i.peekChar();
+        final char suffix;
+        if(c != SequenceIterator.EOF && (NBTFP.isFPSuffix((char)c) || NBTi32.isIntSuffix((char)c) || NBTLong.isLongSuffix((char)c))) {
+            suffix = (char)c;
+            i.nextChar();
+        } else suffix = 0;
+        if(!SequenceIterator.terminates(i.skipWSChar(),terminator,commas)) return null;
+        
+        if(!lexer.isIntegral() || NBTFP.isFPSuffix(suffix)) {
+            if(NBTi32.isIntSuffix(suffix) || NBTLong.isLongSuffix(suffix)) return null;
+            return NBTFloat.isFloatSuffix(suffix)
+                ? new NBTFloat(lexer.floatValue())
+                : new NBTDouble(lexer.doubleValue());
+        }
+        if(!lexer.fitsLong()) return null;
+        final long v = lexer.longValue();
+        if(NBTLong.isLongSuffix(suffix)) return new NBTLong(v);
+        if(NBTByte.isByteSuffix(suffix))
+            return Byte.MIN_VALUE <= v && v <= Byte.MAX_VALUE? new NBTByte((int)v) : null;
+        if(NBTShort.isShortSuffix(suffix))
+            return Short.MIN_VALUE <= v && v <= Short.MAX_VALUE? new NBTShort((int)v) : null;
+        return Integer.MIN_VALUE <= v && v <= Integer.MAX_VALUE? new NBTInt((int)v) : null;
     }
     /**
      * @param i          A {@linkplain SequenceIterator} which points to the
@@ -113,81 +162,17 @@ public abstract class NBTNumber extends NBTValue {
      * @return The appropriate {@linkplain NBTNumber}.
      * 
      * @throws NBTParsingException The iterator cannot find a valid number.
+     * 
+     * @see #tryParse(SequenceIterator,Character,boolean)
      */
     public static NBTNumber parse(final SequenceIterator i,
                                   final Character terminator,
                                   final boolean commas)
                                   throws NBTParsingException {
-        i.skipWS();
-        i.mark();
-        final boolean noIP;
-        boolean isFP = false; // A flag to make sure that a double without a suffix is caught.
-        char next; // A character which takes note of a potential suffix.
-        // Check integral part.
-        {
-            final int idx = i.index();
-            final boolean hasSign = isSign(i.peek());
-            next = eatDigits(i);
-            // Check for lone sign.
-            if((noIP = idx + 1 == i.index()) && hasSign) {
-                // Lone sign is exempted if it could be part of a floating point number.
-                if(next != '.')
-                    throw new NBTParsingException("Invalid sign character",i);
-                isFP = true;
-            }
-        }
-        // Check for long.
-        if(NBTLong.isLongSuffix(next)) {
-            final NBTLong v = NBTLong.parseNoSuffix(i.subSequence().iterator());
-            i.next();
-            return v;
-        }
-        
-        // Check fractional part.
-        final boolean hasFP;
-        if(hasFP = FPDelimiter.fraction.matches(next)) {
-            final int idx = i.index();
-            next = eatDigits(i);
-            
-            // Check for decimal point with no adjacent digits.
-            if(noIP && idx + 1 >= i.index())
-                throw new NBTParsingException("No digits found adjacent to the decimal point",i);
-            isFP = true;
-        }
-        
-        // Check exponent part.
-        if(FPDelimiter.exponent.matches(next)) {
-            if(THE_WILD_WEST)
-                throw new NBTParsingException("Disallowed exponent part",i);
-            // Check for leading exponent delimiter.
-            if(noIP && !hasFP)
-                throw new NBTParsingException("Exponent delimiter is the first character",i);
-            // Check for tailing exponent delimiter.
-            if(!i.hasNext())
-                throw new NBTParsingException("Exponent delimiter is the last character",i);
-            
-            final boolean expSign = isSign(i.next());
-            final int idx = i.index();
-            // Check for an invalid character.
-            if(!(expSign || isNumeric(i.peek())))
-                throw new NBTParsingException("Invalid character in the exponent",i);
-            next = eatDigits(i);
-            
-            // Check for lone sign character.
-            if(expSign && idx + 1 >= i.index())
-                throw new NBTParsingException("Invalid sign character in the exponent",i);
-            isFP = true;
-        }
-        
-        final Character c = NBTFP.isFPSuffix(next) || NBTi32.isIntSuffix(next)
-                ? i.nextNonWS()
-                : i.skipWS();
-        if(!(commas && c == ',') && c != terminator)
-            throw new NBTParsingException("number",i,terminator,commas,c);
-        
-        // Send to float or integral child parsing routine.
-        return isFP || NBTFP.isFPSuffix(next)
-                     ? NBTFP.parse(i,next)
-                     : NBTi32.parse(i.subSequence().iterator(),next);
+        i.skipWSChar();
+        final int start = i.index();
+        final NBTNumber n = tryParse(i,terminator,commas);
+        if(n == null) throw new NBTParsingException("Invalid number",i.jumpTo(start));
+        return n;
     }
 }
\ No newline at end of file
@@ -5,6 +5,7 @@ import java.io.DataOutput;
 import java.io.IOException;
 import nbt.value.NBTValue;
 import nbt.value.ValueType;
+import settings.Settings;
 
 /**
  * A 16-bit integral type.
@@ -61,7 +62,7 @@ public class NBTShort extends NBTi32 {
     public NBTShort(final DataInput in) throws IOException {super(in.readShort());}
     /**Writes this short value.*/
     @Override
-    public void write(final DataOutput out) throws IOException {out.writeShort(value.intValue());}
+    public void write(final DataOutput out) throws IOException {out.writeShort(value);}
     
     @Override public NBTShort setValue(final int value) {return (NBTShort)super.setValue(value);}
     public NBTShort setValue(final short value) {return (NBTShort)super.setValue((int)value);}
@@ -71,6 +72,48 @@ public class NBTShort extends NBTi32 {
     
     @Override protected char suffix() {return SUFFIX_0;}
     
+    @Override
+    public NBTValue intern() {
+        return localDefault == GLOBAL_DEFAULT && SHARED_MIN <= value && value <= SHARED_MAX
+            ? valueOf((short)value,minimal)
+            : this;
+    }
+    
+    /**A canonical short value which is shared between trees.*/
+    private static final class Shared extends NBTShort {
+        private Shared(final int value,final boolean minimal) {super(value,minimal);}
+        
+        @Override public boolean isShared() {return true;}
+        @Override public NBTValue unshare() {return new NBTShort(value,minimal);}
+        @Override public NBTShort setValue(final int value) {throw immutable();}
+        @Override public NBTShort setValue(final short value) {throw immutable();}
+        @Override public NBTShort setDefault(final int value) {throw immutable();}
+        @Override public NBTShort setDefault(final short value) {throw immutable();}
+        @Override public void setDeepMinimal(final boolean minimal) {}
+        @Override protected void markClean() {}
+    }
+    /**The values from {@linkplain NBTi32#SHARED_MIN} to {@linkplain NBTi32#SHARED_MAX}, created on first use.*/
+    private static final class Cache {
+        static final NBTShort[] MINIMAL = new NBTShort[SHARED_MAX - SHARED_MIN + 1],COMPLETE = new NBTShort[MINIMAL.length];
+        static {
+            for(int i = 0;i < MINIMAL.length;++i) {
+                MINIMAL[i] = new Shared(i + SHARED_MIN,true);
+                COMPLETE[i] = new Shared(i + SHARED_MIN,false);
+            }
+        }
+    }
+    /**
+     * @return The {@linkplain NBTValue#isShared() shared} instance of the value,
+     *         or a new instance if the value is not in the shared range.
+     */
+    public static NBTShort valueOf(final short value,final boolean minimal) {
+        return SHARED_MIN <= value && value <= SHARED_MAX
+            ? (minimal? Cache.MINIMAL : Cache.COMPLETE)[value - SHARED_MIN]
+            : new NBTShort(value,minimal);
+    }
+    /**@see #valueOf(short,boolean)*/
+    public static NBTShort valueOf(final short value) {return valueOf(value,Settings.defaultMinimal());}
+    
     /**@return <code>true</code> iff the argument matches a short suffix.*/
     public static boolean isShortSuffix(final char suffix) {
         return suffix == SUFFIX_0 || suffix == SUFFIX_1;
@@ -0,0 +1,37 @@
+package settings;
+
+import gui.theme.Theme;
+import util.string.Sequence;
+
+/**
+ * An immutable snapshot of the {@linkplain Settings}. The values are resolved
+ * whenever a setting changes, so each getter in {@linkplain Settings} only reads
+ * a field of the current snapshot instead of looking the setting up.
+ * 
+ * @author prgmTrouble
+ * @author AzureTriple
+ */
+final class Config {
+    final Theme theme;
+    final Version version;
+    final boolean defaultMinimal;
+    final Sequence defaultIndent;
+    final int defaultFoldedCharLimit;
+    final int defaultFoldedChildLimit;
+    final int exceptionCharacterLimit;
+    final boolean escapeUnicodeByDefault;
+    
+    Config(final Theme theme,final Version version,final boolean defaultMinimal,
+           final Sequence defaultIndent,final int defaultFoldedCharLimit,
+           final int defaultFoldedChildLimit,final int exceptionCharacterLimit,
+           final boolean escapeUnicodeByDefault) {
+        this.theme = theme;
+        this.version = version;
+        this.defaultMinimal = defaultMinimal;
+        this.defaultIndent = defaultIndent;
+        this.defaultFoldedCharLimit = defaultFoldedCharLimit;
+        this.defaultFoldedChildLimit = defaultFoldedChildLimit;
+        this.exceptionCharacterLimit = exceptionCharacterLimit;
+        this.escapeUnicodeByDefault = escapeUnicodeByDefault;
+    }
+}
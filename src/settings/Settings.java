@@ -16,7 +16,8 @@ import util.string.Sequence;
 import util.string.outline.Segment;
 
 /**
- * The settings for all aspects of this program.
+ * The settings for all aspects of this program. Settings may be read and
+ * written from any thread.
  * 
  * @author prgmTrouble
  * @author AzureTriple
@@ -32,7 +33,16 @@ public final class Settings {
     static final int d_defaultFoldedChildLimit = Segment.MAX_LIMIT;
     static final int d_exceptionCharacterLimit = 50;
     static final boolean d_escapeUnicodeByDefault = false;
+    static final Config DEFAULTS = new Config(
+        d_theme,d_version,d_defaultMinimal,d_defaultIndent,d_defaultFoldedCharLimit,
+        d_defaultFoldedChildLimit,d_exceptionCharacterLimit,d_escapeUnicodeByDefault
+    );
     
+    /**
+     * The current settings. This holds the defaults while the settings file is
+     * loaded, since loading it constructs JSON values which read the settings.
+     */
+    private static volatile Config snapshot = DEFAULTS;
     
     private static final File SETTINGS_LOCATION = new File("settings.json");
     private static JSONObject SETTINGS;
@@ -44,17 +54,19 @@ public final class Settings {
             SETTINGS = new JSONObject();
             generateDefault();
         }
+        update();
     }
     
     private static void generateDefault() {
-        theme(d_theme);
-        version(d_version);
-        defaultMinimal(d_defaultMinimal);
-        defaultIndent(d_defaultIndent);
-        defaultFoldedCharLimit(d_defaultFoldedCharLimit);
-        defaultFoldedChildLimit(d_defaultFoldedChildLimit);
-        exceptionCharacterLimit(d_exceptionCharacterLimit);
-        escapeUnicodeByDefault(d_escapeUnicodeByDefault);
+        // The snapshot is resolved once the defaults are all set.
+        set("theme",d_theme.name());
+        set("version",d_version.name());
+        set("defaultMinimal",d_defaultMinimal);
+        set("defaultIndent",d_defaultIndent);
+        set("defaultFoldedCharLimit",d_defaultFoldedCharLimit);
+        set("defaultFoldedChildLimit",d_defaultFoldedChildLimit);
+        set("exceptionCharacterLimit",d_exceptionCharacterLimit);
+        set("escapeUnicodeByDefault",d_escapeUnicodeByDefault);
         
         try {export(SETTINGS_LOCATION);}
         catch(final IOException e) {
@@ -71,7 +83,7 @@ public final class Settings {
      * @throws IOException       The settings could not be saved.
      * @throws SecurityException The security manager denied access.
      */
-    public static void export(final File f) throws IOException,SecurityException {
+    public static synchronized void export(final File f) throws IOException,SecurityException {
         final File tmp = File.createTempFile("SETTINGS_TMP","json");
         tmp.deleteOnExit();
         SETTINGS.write(tmp);
@@ -80,75 +92,93 @@ public final class Settings {
         tmp.delete();
     }
     
-    private static Sequence getSequence(final String key) throws NullPointerException,
+    private static synchronized Sequence getSequence(final String key) throws NullPointerException,
                                                                  JSONException {
         return ((JSONString)SETTINGS.get(key)).value().unwrap();
     }
-    private static boolean getBool(final String key) throws NullPointerException,
+    private static synchronized boolean getBool(final String key) throws NullPointerException,
                                                             JSONException {
         return ((JSONBool)SETTINGS.get(key)).value();
     }
-    private static Number getNumber(final String key) throws NullPointerException,
+    private static synchronized Number getNumber(final String key) throws NullPointerException,
                                                              JSONException {
         return ((JSONNumber)SETTINGS.get(key)).value();
     }
     
-    public static Theme theme() {
+    // Each of these replaces a missing or invalid setting with its default.
+    private static Theme readTheme() {
         try {return Theme.valueOf(getSequence("theme").toString());}
         catch(NullPointerException|JSONException|IllegalArgumentException e) {
-            theme(d_theme);
+            set("theme",d_theme.name());
             return d_theme;
         }
     }
-    public static Version version() {
+    private static Version readVersion() {
         try {return Version.valueOf(getSequence("version").toString());}
         catch(NullPointerException|JSONException|IllegalArgumentException e) {
-            version(d_version);
+            set("version",d_version.name());
             return d_version;
         }
     }
-    public static boolean defaultMinimal() {
+    private static boolean readDefaultMinimal() {
         try {return getBool("defaultMinimal");}
         catch(NullPointerException|JSONException e) {
-            defaultMinimal(d_defaultMinimal);
+            set("defaultMinimal",d_defaultMinimal);
             return d_defaultMinimal;
         }
     }
-    public static Sequence defaultIndent() {
+    private static Sequence readDefaultIndent() {
         try {return getSequence("defaultIndent");}
         catch(NullPointerException|JSONException e) {
-            defaultIndent(d_defaultIndent);
+            set("defaultIndent",d_defaultIndent);
             return d_defaultIndent;
         }
     }
-    public static int defaultFoldedCharLimit() {
+    private static int readDefaultFoldedCharLimit() {
         try {return getNumber("defaultFoldedCharLimit").intValue();}
         catch(NullPointerException|JSONException e) {
-            defaultFoldedCharLimit(d_defaultFoldedCharLimit);
+            set("defaultFoldedCharLimit",d_defaultFoldedCharLimit);
             return d_defaultFoldedCharLimit;
         }
     }
-    public static int defaultFoldedChildLimit() {
+    private static int readDefaultFoldedChildLimit() {
         try {return getNumber("defaultFoldedChildLimit").intValue();}
         catch(NullPointerException|JSONException e) {
-            defaultFoldedChildLimit(d_defaultFoldedChildLimit);
+            set("defaultFoldedChildLimit",d_defaultFoldedChildLimit);
             return d_defaultFoldedChildLimit;
         }
     }
-    public static int exceptionCharacterLimit() {
+    private static int readExceptionCharacterLimit() {
         try {return getNumber("exceptionCharacterLimit").intValue();}
         catch(NullPointerException|JSONException e) {
-            exceptionCharacterLimit(d_exceptionCharacterLimit);
+            set("exceptionCharacterLimit",d_exceptionCharacterLimit);
             return d_exceptionCharacterLimit;
         }
     }
-    public static boolean escapeUnicodeByDefault() {
+    private static boolean readEscapeUnicodeByDefault() {
         try {return getBool("escapeUnicodeByDefault");}
         catch(NullPointerException|JSONException e) {
-            escapeUnicodeByDefault(d_escapeUnicodeByDefault);
+            set("escapeUnicodeByDefault",d_escapeUnicodeByDefault);
             return d_escapeUnicodeByDefault;
         }
     }
+    /**Resolves the settings into a new snapshot.*/
+    private static synchronized void update() {
+        snapshot = new Config(
+            readTheme(),readVersion(),readDefaultMinimal(),readDefaultIndent(),
+            readDefaultFoldedCharLimit(),readDefaultFoldedChildLimit(),
+            readExceptionCharacterLimit(),readEscapeUnicodeByDefault()
+        );
+    }
+    
+    public static Theme theme() {return snapshot.theme;}
+    public static Version version() {return snapshot.version;}
+    public static boolean defaultMinimal() {return snapshot.defaultMinimal;}
+    public static Sequence defaultIndent() {return snapshot.defaultIndent;}
+    public static int defaultFoldedCharLimit() {return snapshot.defaultFoldedCharLimit;}
+    public static int defaultFoldedChildLimit() {return snapshot.defaultFoldedChildLimit;}
+    public static int exceptionCharacterLimit() {return snapshot.exceptionCharacterLimit;}
+    public static boolean escapeUnicodeByDefault() {return snapshot.escapeUnicodeByDefault;}
     
     private static <V> V nn(final V v,final String name) {
         if(v == null)
@@ -158,17 +188,23 @@ public final class Settings {
             );
         return v;
     }
-    private static void set(final String key,final JSONValue value) {
+    private static IllegalArgumentException invalid(final String key,final JSONException e) {
+        return new IllegalArgumentException("Cannot store the value of \"%s\".".formatted(key),e);
+    }
+    /**@throws IllegalArgumentException The value cannot be stored.*/
+    private static synchronized void set(final String key,final JSONValue value) throws IllegalArgumentException {
         try {SETTINGS.set(key,value);}
-        catch(final JSONException e) {e.printStackTrace();}
+        catch(final JSONException e) {throw invalid(key,e);}
     }
-    private static void set(final String key,final String value) {
+    /**@throws IllegalArgumentException The value cannot be stored.*/
+    private static void set(final String key,final String value) throws IllegalArgumentException {
         try {set(key,new JSONString(value));}
-        catch(final JSONException e) {e.printStackTrace();}
+        catch(final JSONException e) {throw invalid(key,e);}
     }
-    private static void set(final String key,final Sequence value) {
+    /**@throws IllegalArgumentException The value cannot be stored.*/
+    private static void set(final String key,final Sequence value) throws IllegalArgumentException {
         try {set(key,new JSONString(value));}
-        catch(final JSONException e) {e.printStackTrace();}
+        catch(final JSONException e) {throw invalid(key,e);}
     }
     private static void set(final String key,final boolean value) {
         set(key,new JSONBool(value));
@@ -179,27 +215,35 @@ public final class Settings {
     
     public static void theme(final Theme t) throws NullPointerException {
         set("theme",nn(t,"theme").name());
+        update();
     }
     public static void version(final Version v) throws NullPointerException {
-        set("version",nn(v,"version").name);
+        set("version",nn(v,"version").name());
+        update();
     }
     public static void defaultMinimal(final boolean dm) {
         set("defaultMinimal",dm);
+        update();
     }
-    public static void defaultIndent(final Sequence di) throws NullPointerException {
+    public static void defaultIndent(final Sequence di) throws NullPointerException,IllegalArgumentException {
         set("defaultIndent",di);
+        update();
     }
     public static void defaultFoldedCharLimit(final int dfcl) {
         set("defaultFoldedCharLimit",dfcl);
+        update();
     }
     public static void defaultFoldedChildLimit(final int dfcl) {
         set("defaultFoldedChildLimit",dfcl);
+        update();
     }
     public static void exceptionCharacterLimit(final int ecl) {
         set("exceptionCharacterLimit",ecl);
+        update();
     }
     public static void escapeUnicodeByDefault(final boolean eubd) {
         set("escapeUnicodeByDefault",eubd);
+        update();
     }
 }
 
@@ -0,0 +1,44 @@
+package test.json;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import json.JSON;
+import json.exception.JSONParsingException;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import util.string.Sequence;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class JSONFileTest {
+    private static final String TEXT = "{\"a\":[1,\"\u00E9\u20AC\"],\"b\":{\"c\":true}}";
+    
+    private static Path write(final byte[] data) throws IOException {
+        final Path p = Files.createTempFile("json",".json");
+        p.toFile().deleteOnExit();
+        return Files.write(p,data);
+    }
+    
+    @Test @Order(1)
+    void testCharsets() throws IOException,JSONParsingException {
+        final String expected = JSON.parse(new Sequence(TEXT)).toString();
+        assertEquals(expected,JSON.parse(write(TEXT.getBytes(StandardCharsets.UTF_16BE)).toFile()).toString());
+        assertEquals(expected,JSON.parse(write(TEXT.getBytes(StandardCharsets.UTF_8)),StandardCharsets.UTF_8).toString());
+        assertEquals(expected,JSON.parse(write(TEXT.getBytes(StandardCharsets.UTF_16BE)),StandardCharsets.UTF_16BE).toString());
+    }
+    
+    @Test @Order(2)
+    void testErrors() throws IOException {
+        // Both overloads report read errors as checked exceptions.
+        assertThrows(IOException.class,() -> JSON.parse(write(new byte[] {'[','1',']'}).toFile()));
+        assertThrows(IOException.class,() -> JSON.parse(write(new byte[] {'[','"',(byte)0xFF,'"',']'}),StandardCharsets.UTF_8));
+        assertThrows(JSONParsingException.class,() -> JSON.parse(write("[1,".getBytes(StandardCharsets.UTF_8)),StandardCharsets.UTF_8));
+        assertThrows(NullPointerException.class,() -> JSON.parse(write(new byte[0]),null));
+    }
+}
@@ -0,0 +1,110 @@
+package test.nbt;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import java.io.File;
+import java.io.IOException;
+import nbt.Dialect;
+import nbt.NBT;
+import nbt.exception.NBTException;
+import nbt.exception.NBTParsingException;
+import nbt.region.RegionFile;
+import nbt.value.collection.NBTIntArray;
+import nbt.value.collection.NBTObject;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import settings.Settings;
+import settings.Version;
+import util.string.Sequence;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class DialectTest {
+    private static final Dialect OLD = Dialect.of(Version.v13w36a),NEW = Dialect.of(Version.unknown);
+    
+    @Test @Order(1)
+    void testRules() {
+        assertSame(OLD,Dialect.of(Version.v13w36a));
+        assertTrue(OLD.theWildWest);
+        assertFalse(OLD.primitiveArrays);
+        assertFalse(NEW.theWildWest);
+        assertTrue(NEW.primitiveArrays);
+        assertTrue(Dialect.of(Version.v17w16a).primitiveArrays);
+        assertTrue(NEW.isAfter(Version.v13w36a));
+        assertTrue(OLD.atMost(Version.v13w36a));
+    }
+    
+    @Test @Order(2)
+    @SuppressWarnings("try")
+    void testBind() {
+        final Dialect unbound = Dialect.current();
+        assertSame(Dialect.of(Settings.version()),unbound);
+        try(final Dialect.Scope a = OLD.bind()) {
+            assertSame(OLD,Dialect.current());
+            try(final Dialect.Scope b = NEW.bind()) {assertSame(NEW,Dialect.current());}
+            assertSame(OLD,Dialect.current());
+        }
+        assertSame(unbound,Dialect.current());
+    }
+    
+    @Test @Order(3)
+    void testOverloads() throws NBTParsingException {
+        final Sequence s = new Sequence("{a:[I;1,2]}");
+        // Before primitive arrays, the token is parsed as part of a plain array.
+        assertFalse(((NBTObject)NBT.parse(s,OLD)).get("a") instanceof NBTIntArray);
+        final NBT n = NBT.parse(s,NEW);
+        assertTrue(((NBTObject)n).get("a") instanceof NBTIntArray);
+        assertEquals(n.toSequence(NEW).toString(),NBT.parse(n.toSequence(NEW),NEW).toSequence(NEW).toString());
+        // The overloads do not leave their dialect bound.
+        assertSame(Dialect.of(Settings.version()),Dialect.current());
+    }
+    
+    @Test @Order(4)
+    @SuppressWarnings("try")
+    void testThreads() throws InterruptedException {
+        // Each thread only sees its own binding.
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        final Thread[] threads = new Thread[4];
+        for(int t = 0;t < threads.length;++t) {
+            final Dialect d = t % 2 == 0? OLD : NEW;
+            threads[t] = new Thread(() -> {
+                try(final Dialect.Scope scope = d.bind()) {
+                    for(int i = 0;i < 200;++i) {
+                        assertSame(d,Dialect.current());
+                        if(d.primitiveArrays) assertDoesNotThrow(() -> new NBTIntArray());
+                        else assertThrows(NBTException.class,() -> new NBTIntArray());
+                    }
+                } catch(final Throwable e) {failure.compareAndSet(null,e);}
+            });
+        }
+        for(final Thread t : threads) t.start();
+        for(final Thread t : threads) t.join();
+        assertNull(failure.get());
+    }
+    
+    @Test @Order(5)
+    @SuppressWarnings("try")
+    void testRegion() throws IOException,NBTException,InterruptedException {
+        final File f = RegionFileTest.region(RegionFile.ZLIB,RegionFile.GZIP);
+        try(final RegionFile r = new RegionFile(f)) {
+            // The chunks contain int arrays, so they can only be decoded when the
+            // caller's dialect reaches the pool threads.
+            try(final Dialect.Scope scope = OLD.bind()) {assertThrows(NBTException.class,() -> r.readAll());}
+            try(final Dialect.Scope scope = NEW.bind()) {assertEquals(2,count(r.readAll()));}
+        }
+    }
+    private static int count(final Object[] a) {
+        int n = 0;
+        for(final Object o : a) if(o != null) ++n;
+        return n;
+    }
+}
@@ -0,0 +1,84 @@
+package test.nbt;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import nbt.NBT;
+import nbt.exception.NBTException;
+import nbt.stream.NBTReader;
+import nbt.stream.NBTTreeBuilder;
+import nbt.value.collection.NBTObject;
+import nbt.value.number.NBTInt;
+import nbt.value.number.NBTNumber;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import util.string.Sequence;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class HashedObjectTest {
+    /**@return An object with the keys <code>b</code>, <code>a</code>, and <code>c</code> in insertion order.*/
+    private static NBTObject fill(final NBTObject o) throws NBTException {
+        return o.set("b",new NBTInt(1)).set("a",new NBTInt(2)).set("c",new NBTInt(3));
+    }
+    
+    @Test @Order(1)
+    void testLookup() throws NBTException {
+        for(final NBTObject o : new NBTObject[] {fill(new NBTObject()),fill(NBTObject.hashed())}) {
+            // Any character sequence with the same content finds the entry.
+            assertEquals(2,((NBTNumber)o.lookup("a")).intValue());
+            assertEquals(2,((NBTNumber)o.lookup(new StringBuilder("a"))).intValue());
+            assertEquals(3,((NBTNumber)o.lookup(new Sequence("c"))).intValue());
+            assertEquals(1,((NBTNumber)o.get("b")).intValue());
+            assertTrue(o.contains(new StringBuilder().append('b')));
+            assertFalse(o.contains("d"));
+            assertNull(o.lookup("ab"));
+            
+            o.set("a",new NBTInt(4));
+            assertEquals(4,((NBTNumber)o.lookup("a")).intValue());
+            assertEquals(4,((NBTNumber)o.remove("a")).intValue());
+            assertFalse(o.contains("a"));
+            assertNull(o.get("a"));
+        }
+    }
+    
+    @Test @Order(2)
+    void testOrder() throws IOException,NBTException {
+        final NBTObject tree = fill(new NBTObject()),hashed = fill(NBTObject.hashed());
+        assertFalse(tree.isHashed());
+        assertTrue(hashed.isHashed());
+        assertEquals("{a:2,b:1,c:3}",tree.toString());
+        // Hashed objects keep their insertion order unless sorted output is requested.
+        assertEquals("{b:1,a:2,c:3}",hashed.toString());
+        assertFalse(hashed.sortedOutput());
+        assertEquals(tree.toString(),hashed.setSortedOutput(true).toString());
+        assertArrayEquals(LazyTreeTest.encode(tree),LazyTreeTest.encode(hashed));
+        // Requesting sorted output does not change a tree-backed object.
+        assertEquals(tree.toString(),tree.setSortedOutput(true).toString());
+    }
+    
+    @Test @Order(3)
+    void testTreeBuilder() throws IOException,NBTException {
+        final byte[] data = LazyTreeTest.data();
+        final NBTTreeBuilder b = new NBTTreeBuilder().hashObjects(true);
+        new NBTReader(new DataInputStream(new ByteArrayInputStream(data))).readRoot(b);
+        final NBTObject o = (NBTObject)b.result();
+        assertTrue(o.isHashed());
+        assertTrue(((NBTObject)o.lookup("a")).isHashed());
+        assertTrue(((NBTObject)((NBTObject)o.lookup("a")).lookup("c")).isHashed());
+        // The input was sorted, so the insertion order matches.
+        assertEquals(LazyTreeTest.eager(data).toString(),o.toString());
+        assertArrayEquals(data,LazyTreeTest.encode(o));
+        assertEquals(305419896,((NBTNumber)((NBTObject)o.lookup("b")).lookup("m")).intValue());
+        
+        // Objects parsed from text are not hashed.
+        assertFalse(((NBTObject)NBT.parse(new Sequence("{a:{}}"))).isHashed());
+    }
+}
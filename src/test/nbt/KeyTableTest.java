@@ -0,0 +1,92 @@
+package test.nbt;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import nbt.exception.NBTParsingException;
+import nbt.stream.KeyTable;
+import nbt.stream.NBTReader;
+import nbt.value.NBTString;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class KeyTableTest {
+    /**@return A reader over the keys encoded in modified UTF-8.*/
+    private static NBTReader reader(final KeyTable table,final String...keys) throws IOException {
+        final ByteArrayOutputStream b = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(b);
+        for(final String k : keys) out.writeUTF(k);
+        return new NBTReader(new DataInputStream(new ByteArrayInputStream(b.toByteArray())),table);
+    }
+    private static String read(final NBTReader r) throws IOException {return r.readKey().unwrapped().toString();}
+    
+    @Test @Order(1)
+    void testHit() throws IOException {
+        final NBTReader r = reader(new KeyTable(4096),"id","Count","id");
+        final NBTString id = r.readKey();
+        assertEquals("id",id.unwrapped().toString());
+        assertEquals("Count",read(r));
+        assertSame(id,r.readKey());
+        assertThrows(UnsupportedOperationException.class,() -> id.setValue("x"));
+        // Shared keys keep the minimalism they were read with.
+        final boolean minimal = id.isMinimal();
+        id.setDeepMinimal(!minimal);
+        assertEquals(minimal,id.isMinimal());
+    }
+    
+    @Test @Order(2)
+    void testCollision() throws IOException {
+        // Every key maps to the only slot, so each one replaces the previous one.
+        final NBTReader r = reader(new KeyTable(1),"a","b","a","a","b");
+        final NBTString a = r.readKey();
+        assertEquals("b",read(r));
+        final NBTString a2 = r.readKey();
+        assertNotSame(a,a2);
+        assertEquals("a",a2.unwrapped().toString());
+        assertSame(a2,r.readKey());
+        assertEquals("b",read(r));
+    }
+    
+    @Test @Order(3)
+    void testMaxLength() throws IOException,NBTParsingException {
+        final String shared = "k".repeat(KeyTable.MAX_LENGTH),unshared = shared + 'k';
+        final NBTReader r = reader(new KeyTable(4096),shared,shared,unshared,unshared);
+        assertSame(r.readKey(),r.readKey());
+        final NBTString k = r.readKey(),k2 = r.readKey();
+        assertNotSame(k,k2);
+        assertEquals(unshared,k.unwrapped().toString());
+        assertEquals(unshared,k2.unwrapped().toString());
+        // Keys which are not shared can be modified.
+        k.setValue("x");
+        assertEquals(unshared,k2.unwrapped().toString());
+    }
+    
+    @Test @Order(4)
+    void testModifiedUTF8() throws IOException {
+        // Two, three, and six byte encodings, including the two byte null character.
+        final String[] keys = {"\u00E9t\u00E9","\u20AC","a\u0000b","\uD83D\uDE00"};
+        // The multi-byte keys are still within the limit in bytes.
+        final String longest = "\u20AC".repeat(KeyTable.MAX_LENGTH / 3);
+        final KeyTable table = new KeyTable(4096);
+        final NBTReader r = reader(table,keys[0],keys[1],keys[2],keys[3],longest,keys[0],keys[1],keys[2],keys[3],longest);
+        final NBTString[] first = new NBTString[keys.length + 1];
+        for(int i = 0;i < keys.length;++i) assertEquals(keys[i],(first[i] = r.readKey()).unwrapped().toString());
+        assertEquals(longest,(first[keys.length] = r.readKey()).unwrapped().toString());
+        for(final NBTString k : first) assertSame(k,r.readKey());
+        
+        // Reading directly from the table shares the same keys.
+        final ByteArrayOutputStream b = new ByteArrayOutputStream();
+        new DataOutputStream(b).writeUTF(keys[3]);
+        assertSame(first[3],table.read(new DataInputStream(new ByteArrayInputStream(b.toByteArray())),first[3].isMinimal()));
+    }
+}
@@ -0,0 +1,139 @@
+package test.nbt;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Arrays;
+import java.util.Iterator;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import nbt.NBT;
+import nbt.exception.NBTException;
+import nbt.value.NBTValue;
+import nbt.value.ValueType;
+import nbt.value.collection.NBTArray;
+import nbt.value.collection.NBTObject;
+import nbt.value.number.NBTByte;
+import nbt.value.number.NBTInt;
+import nbt.value.number.NBTLong;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import util.string.Sequence;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class LazyTreeTest {
+    private static final String SNBT = "{a:{x:1,m:305419896,c:{m:305419896,s:\"hi\"}},b:{m:305419896,l:[1L,2L],t:\"yo\"}," +
+                                       "i:[I;1,2,3],n:[{k:1b},{k:2b}],v:7}";
+    
+    /**@return The object encoded as a root object.*/
+    static byte[] encode(final NBTObject o) throws IOException {
+        final ByteArrayOutputStream b = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(b);
+        out.writeByte(ValueType.OBJECT.id);
+        out.writeUTF("");
+        o.write(out);
+        return b.toByteArray();
+    }
+    static byte[] data() throws IOException,NBTException {return encode((NBTObject)NBT.parse(new Sequence(SNBT)));}
+    /**@return The root object decoded in full.*/
+    static NBTObject eager(final byte[] data) throws IOException,NBTException {
+        return new NBTObject(NBTObject.readHeader(new DataInputStream(new ByteArrayInputStream(data))));
+    }
+    
+    @Test @Order(1)
+    void testRoundTrip() throws IOException,NBTException {
+        final byte[] data = data();
+        assertArrayEquals(data,encode(NBTObject.lazy(data)));
+        // Decoding every value does not change the output.
+        final NBTObject o = NBTObject.lazy(data);
+        assertEquals(eager(data).toString(),o.toString());
+        assertArrayEquals(data,encode(o));
+    }
+    
+    @Test @Order(2)
+    void testDecodeOnAccess() throws IOException,NBTException {
+        final byte[] data = data();
+        final NBTObject expected = eager(data),o = NBTObject.lazy(data);
+        for(final String k : new String[] {"a","b","i","n","v"})
+            assertEquals(expected.get(k).toString(),o.get(k).toString(),k);
+        
+        // Nested values are only skipped until they are accessed, so invalid
+        // characters in b.t are not found until b is accessed.
+        data[indexOf(data,(byte)'y',(byte)'o')] = (byte)0xFF;
+        final NBTObject broken = NBTObject.lazy(data);
+        assertEquals(expected.get("a").toString(),broken.get("a").toString());
+        assertThrows(UncheckedIOException.class,() -> broken.get("b"));
+    }
+    
+    private static final byte[] MARKER = {0x12,0x34,0x56,0x78};
+    private static final int MARKED = 0x12345679;
+    
+    @Test @Order(3)
+    void testVerbatim() throws IOException,NBTException {
+        final byte[] data = data();
+        final NBTObject o = NBTObject.lazy(data);
+        // Decode both subtrees, then modify a.
+        final NBTObject a = (NBTObject)o.get("a");
+        a.get("c").toString();
+        o.get("b").toString();
+        ((NBTInt)a.get("x")).setValue(5);
+        // Only values which are re-encoded ignore changes to the buffer.
+        for(int i = indexOf(data,MARKER);i != -1;i = indexOf(data,MARKER)) data[i + 3] = 0x79;
+        
+        final NBTObject out = eager(encode(o)),outA = (NBTObject)out.get("a");
+        assertEquals(5,((NBTInt)outA.get("x")).intValue());
+        assertEquals(0x12345678,((NBTInt)outA.get("m")).intValue());
+        assertEquals(MARKED,((NBTInt)((NBTObject)outA.get("c")).get("m")).intValue());
+        assertEquals(MARKED,((NBTInt)((NBTObject)out.get("b")).get("m")).intValue());
+    }
+    
+    /**A modification of a tree.*/
+    @FunctionalInterface
+    private static interface Edit {void apply(NBTObject root) throws Exception;}
+    /**Checks that a lazily read tree is written in the same way as an eagerly read one after the edit.*/
+    private static void assertEdit(final boolean modifies,final Edit e) throws Exception {
+        final byte[] data = data();
+        final NBTObject lazy = NBTObject.lazy(data),eager = eager(data);
+        e.apply(lazy);
+        e.apply(eager);
+        assertEquals(modifies,lazy.isDirty());
+        final byte[] out = encode(lazy);
+        assertArrayEquals(encode(eager),out);
+        assertEquals(!modifies,Arrays.equals(data,out));
+    }
+    
+    @Test @Order(4)
+    void testDirtyTracking() throws Exception {
+        assertEdit(true,o -> ((NBTObject)o.get("a")).set("y",new NBTByte((byte)1)));
+        assertEdit(true,o -> ((NBTObject)((NBTObject)o.get("a")).get("c")).remove("s"));
+        assertEdit(true,o -> ((NBTArray)o.get("n")).add(new NBTObject()));
+        assertEdit(true,o -> ((NBTArray)o.get("n")).remove(0));
+        assertEdit(true,o -> {
+            final Iterator<NBTValue> i = ((NBTArray)o.get("n")).iterator();
+            i.next();
+            i.remove();
+        });
+        assertEdit(true,o -> ((NBTInt)((NBTObject)o.get("b")).get("m")).setValue(0));
+        assertEdit(true,o -> ((NBTArray)((NBTObject)o.get("b")).get("l")).set(1,new NBTLong(3L)));
+        // Objects read from binary data are already sorted.
+        assertEdit(false,o -> ((NBTObject)o.get("a")).setSortedOutput(true));
+        assertEdit(false,o -> o.get("n").toString());
+    }
+    
+    /**@return The index of the first occurrence of the pattern.*/
+    static int indexOf(final byte[] data,final byte...pattern) {
+        outer: for(int i = 0;i <= data.length - pattern.length;++i) {
+            for(int j = 0;j < pattern.length;++j) if(data[i + j] != pattern[j]) continue outer;
+            return i;
+        }
+        return -1;
+    }
+}
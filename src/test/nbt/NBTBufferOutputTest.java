@@ -0,0 +1,107 @@
+package test.nbt;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.zip.GZIPInputStream;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UTFDataFormatException;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+import nbt.stream.NBTBufferOutput;
+import nbt.value.collection.NBTPrimitiveArray;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import util.string.Sequence;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class NBTBufferOutputTest {
+    /**A channel which collects everything written to it.*/
+    private static final class Sink implements GatheringByteChannel {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        
+        @Override
+        public int write(final ByteBuffer src) {
+            final int n = src.remaining();
+            final byte[] b = new byte[n];
+            src.get(b);
+            out.write(b,0,n);
+            return n;
+        }
+        @Override
+        public long write(final ByteBuffer[] srcs,final int offset,final int length) {
+            long n = 0L;
+            for(int i = offset;i < offset + length;++i) n += write(srcs[i]);
+            return n;
+        }
+        @Override public long write(final ByteBuffer[] srcs) {return write(srcs,0,srcs.length);}
+        @Override public boolean isOpen() {return true;}
+        @Override public void close() {}
+    }
+    
+    private static final String[] STRINGS = {
+        "","id","a\u0000b","\u00E9t\u00E9","\u20AC","\uD83D\uDE00",
+        // Multi-byte characters which run past the end of the first buffer.
+        "x".repeat(NBTBufferOutput.BUFFER_SIZE / 2 - 3) + "\u20AC".repeat(8000)
+    };
+    
+    /**Writes the same data to any output.*/
+    private static void fill(final DataOutput out,final boolean sequences) throws IOException {
+        final int[] ints = new int[40000];
+        final long[] longs = new long[20000];
+        for(int i = 0;i < ints.length;++i) ints[i] = i * 0x9E3779B9;
+        for(int i = 0;i < longs.length;++i) longs[i] = i * 0x9E3779B97F4A7C15L;
+        out.writeByte(10);
+        out.writeShort(-2);
+        out.writeInt(0x12345678);
+        out.writeLong(-3L);
+        out.writeFloat(1.5f);
+        out.writeDouble(-2.25);
+        for(final String s : STRINGS) {
+            if(sequences && out instanceof NBTBufferOutput b) b.writeUTF(new Sequence(s));
+            else out.writeUTF(s);
+        }
+        NBTPrimitiveArray.write(out,ints,3,ints.length - 3);
+        NBTPrimitiveArray.write(out,longs,0,longs.length);
+        out.write(new byte[NBTBufferOutput.BUFFER_SIZE * 2 + 7]);
+    }
+    private static byte[] expected() throws IOException {
+        final ByteArrayOutputStream b = new ByteArrayOutputStream();
+        fill(new DataOutputStream(b),false);
+        return b.toByteArray();
+    }
+    private static byte[] actual(final boolean compressed,final boolean sequences) throws IOException {
+        final Sink s = new Sink();
+        try(final NBTBufferOutput out = new NBTBufferOutput(s,compressed)) {fill(out,sequences);}
+        return s.out.toByteArray();
+    }
+    
+    @Test @Order(1)
+    void testUncompressed() throws IOException {
+        final byte[] expected = expected();
+        assertArrayEquals(expected,actual(false,false));
+        assertArrayEquals(expected,actual(false,true));
+    }
+    
+    @Test @Order(2)
+    void testCompressed() throws IOException {
+        try(final GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(actual(true,true)))) {
+            assertArrayEquals(expected(),in.readAllBytes());
+        }
+    }
+    
+    @Test @Order(3)
+    void testTooLong() throws IOException {
+        try(final NBTBufferOutput out = new NBTBufferOutput(new Sink())) {
+            assertThrows(UTFDataFormatException.class,() -> out.writeUTF("\u20AC".repeat(0x5556)));
+            assertThrows(UTFDataFormatException.class,() -> out.writeUTF(new Sequence("x".repeat(0x10000))));
+        }
+    }
+}
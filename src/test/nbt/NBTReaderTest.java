@@ -0,0 +1,121 @@
+package test.nbt;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Arrays;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import nbt.NBT;
+import nbt.exception.NBTException;
+import nbt.stream.NBTReader;
+import nbt.stream.NBTTreeBuilder;
+import nbt.stream.NBTVisitor;
+import nbt.value.ValueType;
+import nbt.value.collection.NBTObject;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import util.string.Sequence;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class NBTReaderTest {
+    /**A visitor which records every event, and skips the values whose key starts with 'x'.*/
+    private static final class Recorder implements NBTVisitor {
+        final StringBuilder log = new StringBuilder();
+        
+        @Override
+        public boolean key(final ValueType type,final Sequence key) {
+            log.append(key).append(':').append(type).append(' ');
+            return key.length() == 0 || key.charAt(0) != 'x';
+        }
+        @Override
+        public boolean element(final int index) {
+            log.append('#').append(index).append(' ');
+            return true;
+        }
+        @Override public void visitByte(final byte value) {log.append(value).append("b ");}
+        @Override public void visitShort(final short value) {log.append(value).append("s ");}
+        @Override public void visitInt(final int value) {log.append(value).append(' ');}
+        @Override public void visitLong(final long value) {log.append(value).append("L ");}
+        @Override public void visitDouble(final double value) {log.append(value).append("d ");}
+        @Override public void visitString(final Sequence value) {log.append('"').append(value).append("\" ");}
+        @Override public void visitIntArray(final int[] value) {log.append(Arrays.toString(value)).append(' ');}
+        @Override public void visitLongArray(final long[] value) {log.append(Arrays.toString(value)).append("L ");}
+        @Override public void startCompound() {log.append("{ ");}
+        @Override public void endCompound() {log.append("} ");}
+        @Override
+        public boolean startList(final ValueType type,final int length) {
+            log.append("[").append(type).append(' ').append(length).append(' ');
+            // Lists of shorts are skipped as a whole.
+            return type != ValueType.SHORT;
+        }
+        @Override public void endList() {log.append("] ");}
+    }
+    
+    private static NBTReader reader(final byte[] data) {return new NBTReader(new DataInputStream(new ByteArrayInputStream(data)));}
+    private static byte[] encode(final String snbt) throws IOException,NBTException {
+        return LazyTreeTest.encode((NBTObject)NBT.parse(new Sequence(snbt)));
+    }
+    
+    @Test @Order(1)
+    void testEvents() throws IOException,NBTException {
+        final Recorder r = new Recorder();
+        reader(encode("{s:\"hi\",a:1b,l:[1,2],e:[],n:{d:2.5d},i:[I;3,4]}")).readRoot(r);
+        // Objects are written in key order.
+        assertEquals(
+            ":OBJECT { a:BYTE 1b e:ARRAY [null 0 ] i:INT_ARRAY [3, 4] " +
+            "l:ARRAY [INT 2 #0 1 #1 2 ] n:OBJECT { d:DOUBLE 2.5d } s:STRING \"hi\" } ",
+            r.log.toString()
+        );
+    }
+    
+    @Test @Order(2)
+    void testSkip() throws IOException,NBTException {
+        final Recorder r = new Recorder();
+        reader(encode("{n:{xa:[{b:1}],xb:\"s\",xc:[L;1L],xd:[I;2],z:5L},s:[1s,2s],t:[L;6L]}")).readRoot(r);
+        // Skipped values produce no events, and the values after them are still read.
+        assertEquals(
+            ":OBJECT { n:OBJECT { xa:ARRAY xb:STRING xc:LONG_ARRAY xd:INT_ARRAY z:LONG 5L } " +
+            "s:ARRAY [SHORT 2 t:LONG_ARRAY [6]L } ",
+            r.log.toString()
+        );
+        // Skipping the root consumes all of it.
+        final byte[] data = encode("{a:[{b:[L;1L]}]}");
+        final DataInputStream in = new DataInputStream(new ByteArrayInputStream(Arrays.copyOf(data,data.length + 1)));
+        new NBTReader(in).readRoot(new NBTVisitor() {
+            @Override public boolean key(final ValueType type,final Sequence key) {return false;}
+        });
+        assertEquals(1,in.available());
+    }
+    
+    @Test @Order(3)
+    void testTreeBuilder() throws IOException,NBTException {
+        final byte[] data = LazyTreeTest.data();
+        final NBTTreeBuilder b = new NBTTreeBuilder();
+        reader(data).readRoot(b);
+        assertArrayEquals(data,LazyTreeTest.encode((NBTObject)b.result()));
+        assertEquals(LazyTreeTest.eager(data).toString(),b.result().toString());
+    }
+    
+    @Test @Order(4)
+    void testMalformed() throws IOException,NBTException {
+        final NBTVisitor v = new NBTVisitor() {};
+        // An untyped array which is not empty.
+        assertThrows(NBTException.class,() -> reader(new byte[] {9,0,0,0,0,1}).readInferred(v));
+        // An unknown type.
+        assertThrows(NBTException.class,() -> reader(new byte[] {99}).readInferred(v));
+        // A negative length.
+        assertThrows(NBTException.class,() -> reader(new byte[] {11,-1,-1,-1,-1}).readInferred(v));
+        final byte[] data = encode("{a:[I;1,2,3]}");
+        assertThrows(EOFException.class,() -> reader(Arrays.copyOf(data,data.length - 3)).readRoot(v));
+        assertThrows(EOFException.class,() -> reader(Arrays.copyOf(data,data.length - 3)).readRoot(new NBTVisitor() {
+            @Override public boolean key(final ValueType type,final Sequence key) {return key.length() == 0;}
+        }));
+    }
+}
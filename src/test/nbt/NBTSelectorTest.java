@@ -0,0 +1,93 @@
+package test.nbt;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import nbt.NBT;
+import nbt.exception.NBTException;
+import nbt.exception.NBTParsingException;
+import nbt.stream.NBTPath;
+import nbt.stream.NBTSelector;
+import nbt.value.NBTString;
+import nbt.value.NBTValue;
+import nbt.value.collection.NBTLongArray;
+import nbt.value.collection.NBTObject;
+import nbt.value.number.NBTNumber;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import util.string.Sequence;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class NBTSelectorTest {
+    private static final String SNBT =
+        "{Level:{xPos:3,Sections:[{Y:0b,BlockStates:[L;1L,2L,3L,4L]},{Y:1b,BlockStates:[L;5L,6L,7L,8L]}]," +
+        "Heights:[I;10,20],Biomes:[B;1b,2b,3b],Tags:[\"a\",\"b\"]}}";
+    
+    private static NBTSelector select(final String...paths) throws IOException,NBTException {
+        final byte[] data = LazyTreeTest.encode((NBTObject)NBT.parse(new Sequence(SNBT)));
+        return new NBTSelector(paths).read(new DataInputStream(new ByteArrayInputStream(data)));
+    }
+    private static long[] numbers(final List<NBTValue> values) {
+        final long[] out = new long[values.size()];
+        for(int i = 0;i < out.length;++i) out[i] = ((NBTNumber)values.get(i)).longValue();
+        return out;
+    }
+    
+    @Test @Order(1)
+    void testKeys() throws IOException,NBTException {
+        final NBTSelector s = select("Level.xPos","Level.Sections[*].Y","Level.Tags[1]","Level.missing");
+        assertEquals(3L,((NBTNumber)s.first(0)).longValue());
+        assertEquals(2,s.results(1).size());
+        assertEquals(1L,((NBTNumber)s.results(1).get(1)).longValue());
+        assertEquals("b",((NBTString)s.first(2)).unwrapped().toString());
+        assertNull(s.first(3));
+    }
+    
+    @Test @Order(2)
+    void testTypedArrays() throws IOException,NBTException {
+        final NBTSelector s = select(
+            "Level.Sections[1].BlockStates[3]",
+            "Level.Sections[*].BlockStates[0]",
+            "Level.Heights[*]",
+            "Level.Biomes[2]",
+            "Level.Biomes[3]",
+            "Level.Sections[0].BlockStates"
+        );
+        assertEquals(1,s.results(0).size());
+        assertEquals(8L,((NBTNumber)s.first(0)).longValue());
+        assertArrayEquals(new long[] {1,5},numbers(s.results(1)));
+        assertArrayEquals(new long[] {10,20},numbers(s.results(2)));
+        assertEquals(3L,((NBTNumber)s.first(3)).longValue());
+        // Indices past the end do not match anything.
+        assertNull(s.first(4));
+        // Typed arrays can still be selected as a whole.
+        assertArrayEquals(new long[] {1,2,3,4},((NBTLongArray)s.first(5)).toLongArray());
+    }
+    
+    @Test @Order(3)
+    void testReuse() throws IOException,NBTException {
+        final NBTSelector s = select("Level.Heights[1]");
+        final byte[] data = LazyTreeTest.encode((NBTObject)NBT.parse(new Sequence("{Level:{Heights:[I;7,9]}}")));
+        s.read(new DataInputStream(new ByteArrayInputStream(data)));
+        assertEquals(1,s.results(0).size());
+        assertEquals(9L,((NBTNumber)s.first(0)).longValue());
+    }
+    
+    @Test @Order(4)
+    void testMalformed() {
+        assertThrows(NBTParsingException.class,() -> NBTPath.parse(""));
+        assertThrows(NBTParsingException.class,() -> NBTPath.parse("a[1"));
+        assertThrows(NBTParsingException.class,() -> NBTPath.parse("a[-1]"));
+        assertThrows(NBTParsingException.class,() -> NBTPath.parse("a..b"));
+        assertThrows(NBTException.class,() -> new NBTSelector(new NBTPath[NBTSelector.MAX_PATHS + 1]));
+    }
+}
@@ -0,0 +1,122 @@
+package test.nbt;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import nbt.exception.NBTException;
+import nbt.value.NBTBool;
+import nbt.value.NBTString;
+import nbt.value.ValueType;
+import nbt.value.number.NBTByte;
+import nbt.value.number.NBTDouble;
+import nbt.value.number.NBTFloat;
+import nbt.value.number.NBTInt;
+import nbt.value.number.NBTLong;
+import nbt.value.number.NBTNumber;
+import nbt.value.number.NBTShort;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class NumberTest {
+    private static NBTNumber[] numbers() {
+        return new NBTNumber[] {
+            new NBTByte((byte)-7),new NBTShort((short)-300),new NBTInt(0x12345678),
+            new NBTLong(0x123456789ABCDEFL),new NBTFloat(-1.5f),new NBTDouble(0.1),new NBTBool(true)
+        };
+    }
+    
+    @Test @Order(1)
+    void testAccessors() {
+        final NBTNumber[] n = numbers();
+        assertEquals(-7,n[0].intValue());
+        assertEquals(-7L,n[0].longValue());
+        assertEquals((byte)-7,n[0].byteValue());
+        assertEquals((short)-300,n[1].shortValue());
+        assertEquals(-300.0,n[1].doubleValue());
+        assertEquals(0x12345678,n[2].intValue());
+        assertEquals((short)0x5678,n[2].shortValue());
+        assertEquals(0x123456789ABCDEFL,n[3].longValue());
+        assertEquals((int)0x123456789ABCDEFL,n[3].intValue());
+        assertEquals(-1.5f,n[4].floatValue(),0.0);
+        assertEquals(-1,n[4].intValue());
+        assertEquals(0.1,n[5].doubleValue(),0.0);
+        assertEquals(0.1f,n[5].floatValue(),0.0);
+        assertEquals(1,n[6].intValue());
+        // The boxed value has the type's own width.
+        assertEquals(Integer.valueOf(-7),n[0].value());
+        assertEquals(Long.valueOf(0x123456789ABCDEFL),n[3].value());
+        assertEquals(Float.valueOf(-1.5f),n[4].value());
+        assertEquals(Double.valueOf(0.1),n[5].value());
+    }
+    
+    @Test @Order(2)
+    void testSetValue() {
+        final NBTDouble d = new NBTDouble();
+        assertTrue(d.isDefault());
+        d.setValue(Double.MIN_VALUE);
+        assertFalse(d.isDefault());
+        assertTrue(d.isDirty());
+        assertEquals(Double.MIN_VALUE,d.doubleValue(),0.0);
+        assertTrue(new NBTLong().isDefault());
+        assertFalse(new NBTLong(Long.MIN_VALUE).isDefault());
+        
+        final NBTInt i = new NBTInt(5);
+        i.setValue(0);
+        assertTrue(i.isDefault());
+        assertEquals(0,i.intValue());
+        assertEquals(-2,new NBTShort().setValue((short)-2).intValue());
+        assertEquals(3.0f,new NBTFloat().setValue(3f).floatValue(),0.0);
+        assertEquals(-0.0,new NBTDouble().setValue(-0.0).doubleValue(),0.0);
+        assertFalse(new NBTBool().setValue((byte)2).intValue() == 0);
+    }
+    
+    @Test @Order(3)
+    void testConversions() throws NBTException {
+        for(final NBTNumber n : numbers()) {
+            assertEquals((byte)n.intValue(),((NBTNumber)n.convertTo(ValueType.BYTE)).byteValue());
+            assertEquals((short)n.intValue(),((NBTNumber)n.convertTo(ValueType.SHORT)).shortValue());
+            assertEquals(n.intValue(),((NBTNumber)n.convertTo(ValueType.INT)).intValue());
+            assertEquals(n.longValue(),((NBTNumber)n.convertTo(ValueType.LONG)).longValue());
+            assertEquals(n.floatValue(),((NBTNumber)n.convertTo(ValueType.FLOAT)).floatValue(),0.0);
+            assertEquals(n.doubleValue(),((NBTNumber)n.convertTo(ValueType.DOUBLE)).doubleValue(),0.0);
+            assertEquals(n.intValue() != 0,((NBTBool)n.convertTo(ValueType.BOOL)).getValue());
+            assertEquals(n.toSequence().toString(),((NBTString)n.convertTo(ValueType.STRING)).unwrapped().toString());
+        }
+    }
+    
+    @Test @Order(4)
+    void testBinary() throws IOException {
+        final NBTNumber[] n = numbers();
+        final ByteArrayOutputStream actual = new ByteArrayOutputStream(),expected = new ByteArrayOutputStream();
+        final DataOutputStream a = new DataOutputStream(actual),e = new DataOutputStream(expected);
+        for(final NBTNumber x : n) x.write(a);
+        e.writeByte(-7);
+        e.writeShort(-300);
+        e.writeInt(0x12345678);
+        e.writeLong(0x123456789ABCDEFL);
+        e.writeFloat(-1.5f);
+        e.writeDouble(0.1);
+        e.writeBoolean(true);
+        assertArrayEquals(expected.toByteArray(),actual.toByteArray());
+        
+        final DataInputStream in = new DataInputStream(new ByteArrayInputStream(actual.toByteArray()));
+        final NBTNumber[] read = {
+            new NBTByte(in),new NBTShort(in),new NBTInt(in),new NBTLong(in),new NBTFloat(in),new NBTDouble(in),new NBTBool(in)
+        };
+        for(int i = 0;i < n.length;++i) {
+            assertEquals(n[i].type(),read[i].type());
+            assertEquals(n[i].toString(),read[i].toString());
+        }
+        assertEquals(-1,in.read());
+    }
+}
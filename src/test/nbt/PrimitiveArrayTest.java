@@ -0,0 +1,107 @@
+package test.nbt;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import nbt.NBT;
+import nbt.exception.NBTException;
+import nbt.value.NBTValue;
+import nbt.value.collection.NBTByteArray;
+import nbt.value.collection.NBTIntArray;
+import nbt.value.collection.NBTLongArray;
+import nbt.value.collection.NBTObject;
+import nbt.value.collection.NBTPrimitiveArray;
+import nbt.value.number.NBTInt;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import util.string.Sequence;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class PrimitiveArrayTest {
+    private static final String SNBT = "{b:[B;1b,-2b],i:[I;3,-4,5],l:[L;6L,-7L]}";
+    
+    private static NBTObject parse(final String s) throws NBTException {return (NBTObject)NBT.parse(new Sequence(s));}
+    
+    @Test @Order(1)
+    void testParse() throws NBTException {
+        final NBTObject o = parse(SNBT);
+        assertArrayEquals(new byte[] {1,-2},((NBTByteArray)o.get("b")).toByteArray());
+        assertArrayEquals(new int[] {3,-4,5},((NBTIntArray)o.get("i")).toIntArray());
+        assertArrayEquals(new long[] {6,-7},((NBTLongArray)o.get("l")).toLongArray());
+    }
+    
+    @Test @Order(2)
+    void testEdit() throws NBTException {
+        final NBTIntArray a = new NBTIntArray().addAll(1,2);
+        a.add(new NBTInt(3));
+        a.setInt(0,9);
+        assertArrayEquals(new int[] {9,2,3},a.toIntArray());
+        assertEquals(2,((NBTInt)a.remove(1)).intValue());
+        assertEquals(3,a.getInt(1));
+        assertTrue(a.isDirty());
+        assertFalse(a.isDefault());
+        assertTrue(new NBTLongArray().addAll(0L,0L).isDefault());
+        assertThrows(IllegalArgumentException.class,() -> a.getInt(2));
+        assertArrayEquals(new byte[] {1,-1},new NBTByteArray().addAll(1,255).toByteArray());
+    }
+    
+    @Test @Order(3)
+    void testRoundTrip() throws IOException,NBTException {
+        final NBTObject o = parse(SNBT);
+        final byte[] data = LazyTreeTest.encode(o);
+        final NBTObject read = (NBTObject)LazyTreeTest.eager(data);
+        assertArrayEquals(data,LazyTreeTest.encode(read));
+        assertEquals(o.toString(),read.toString());
+    }
+    
+    @Test @Order(4)
+    void testBulk() throws IOException {
+        // Long enough to take several passes through the transfer buffer.
+        final int[] ints = new int[5000];
+        final long[] longs = new long[3000];
+        for(int i = 0;i < ints.length;++i) ints[i] = i * 0x01010101;
+        for(int i = 0;i < longs.length;++i) longs[i] = i * 0x0101010101010101L;
+        final ByteArrayOutputStream b = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(b);
+        NBTPrimitiveArray.write(out,ints,1,ints.length - 1);
+        NBTPrimitiveArray.write(out,longs,0,longs.length);
+        
+        final DataInputStream in = new DataInputStream(new ByteArrayInputStream(b.toByteArray()));
+        for(int i = 1;i < ints.length;++i) assertEquals(ints[i],in.readInt());
+        for(final long l : longs) assertEquals(l,in.readLong());
+        
+        final DataInputStream in2 = new DataInputStream(new ByteArrayInputStream(b.toByteArray()));
+        final int[] ints2 = new int[ints.length];
+        final long[] longs2 = new long[longs.length];
+        NBTPrimitiveArray.readFully(in2,ints2,1,ints.length - 1);
+        NBTPrimitiveArray.readFully(in2,longs2,0,longs.length);
+        ints2[0] = ints[0];
+        assertArrayEquals(ints,ints2);
+        assertArrayEquals(longs,longs2);
+    }
+    
+    @Test @Order(5)
+    void testMinimal() throws NBTException {
+        final NBTObject o = parse("{b:[B;1b],l:[L;2L]}");
+        o.setDeepMinimal(false);
+        final String s = o.toString();
+        assertTrue(s.contains("[B;1b]"),s);
+        assertTrue(s.contains("[L;2L]"),s);
+        for(final NBTValue v : (NBTByteArray)o.get("b")) assertFalse(v.isMinimal());
+        final NBTObject reparsed = parse(s);
+        reparsed.setDeepMinimal(false);
+        assertEquals(s,reparsed.toString());
+        o.setDeepMinimal(true);
+        assertTrue(((NBTByteArray)o.get("b")).get(0).isMinimal());
+    }
+}
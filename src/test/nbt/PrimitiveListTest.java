@@ -0,0 +1,93 @@
+package test.nbt;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import nbt.NBT;
+import nbt.exception.NBTException;
+import nbt.value.NBTValue;
+import nbt.value.ValueType;
+import nbt.value.collection.NBTArray;
+import nbt.value.collection.NBTDoubleList;
+import nbt.value.collection.NBTFloatList;
+import nbt.value.collection.NBTObject;
+import nbt.value.collection.NBTPrimitiveList;
+import nbt.value.collection.NBTShortList;
+import nbt.value.number.NBTShort;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import util.string.Sequence;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class PrimitiveListTest {
+    private static final String SNBT = "{s:[1s,2s,-3s],f:[1.5f,-2.0f],d:[0.25d,3.0d]}";
+    
+    private static NBTObject parse(final String s) throws NBTException {return (NBTObject)NBT.parse(new Sequence(s));}
+    
+    @Test @Order(1)
+    void testSpecialise() throws NBTException {
+        final NBTObject o = parse(SNBT);
+        assertTrue(o.get("s") instanceof NBTShortList);
+        assertTrue(o.get("f") instanceof NBTFloatList);
+        assertTrue(o.get("d") instanceof NBTDoubleList);
+        assertArrayEquals(new short[] {1,2,-3},((NBTShortList)o.get("s")).toShortArray());
+        assertEquals(-2.0f,((NBTFloatList)o.get("f")).getFloat(1),0.0);
+        assertEquals(0.25,((NBTDoubleList)o.get("d")).getDouble(0),0.0);
+        // Other subtypes are not specialised.
+        assertFalse(parse("{i:[1,2]}").get("i") instanceof NBTPrimitiveList);
+        assertTrue(NBTPrimitiveList.forSubtype(ValueType.SHORT) instanceof NBTShortList);
+        assertFalse(NBTPrimitiveList.forSubtype(ValueType.INT) instanceof NBTPrimitiveList);
+    }
+    
+    @Test @Order(2)
+    void testEdit() throws NBTException {
+        final NBTShortList l = new NBTShortList();
+        l.addShort((short)1).addShort((short)3);
+        l.set(1,new NBTShort((short)2));
+        assertArrayEquals(new short[] {1,2,3},l.toShortArray());
+        assertEquals(1,((NBTShort)l.remove(0)).shortValue());
+        assertEquals(2,l.size());
+        assertTrue(l.isDirty());
+        // Values returned by get are copies.
+        ((NBTShort)l.get(0)).setValue((short)9);
+        assertEquals(2,l.getShort(0));
+        assertThrows(IllegalArgumentException.class,() -> l.getShort(2));
+        assertThrows(IllegalArgumentException.class,() -> l.get(null));
+    }
+    
+    @Test @Order(3)
+    void testRoundTrip() throws IOException,NBTException {
+        final NBTObject o = parse(SNBT);
+        final byte[] data = LazyTreeTest.encode(o);
+        final NBTObject read = (NBTObject)LazyTreeTest.eager(data);
+        assertArrayEquals(data,LazyTreeTest.encode(read));
+        assertEquals(o.toString(),read.toString());
+        assertEquals(o.toString(),parse(o.toString()).toString());
+    }
+    
+    @Test @Order(4)
+    void testMinimal() throws NBTException {
+        final NBTObject o = parse("{a:[1s,2s],f:[1.5f],d:[2.5d]}");
+        o.setDeepMinimal(false);
+        final String s = o.toString();
+        assertTrue(s.contains("1s"),s);
+        assertTrue(s.contains("2s"),s);
+        assertTrue(s.contains("1.5f"),s);
+        assertTrue(s.contains("2.5d"),s);
+        for(final NBTValue v : (NBTArray)o.get("a")) assertFalse(v.isMinimal());
+        final NBTObject reparsed = parse(s);
+        reparsed.setDeepMinimal(false);
+        assertEquals(s,reparsed.toString());
+        // The list's minimalism reaches elements which are boxed afterwards.
+        o.setDeepMinimal(true);
+        assertTrue(((NBTArray)o.get("a")).get(0).isMinimal());
+        o.setDeepMinimal(false);
+        assertEquals(s,o.toString());
+    }
+}
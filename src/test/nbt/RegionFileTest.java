@@ -0,0 +1,154 @@
+package test.nbt;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import nbt.NBT;
+import nbt.exception.NBTException;
+import nbt.region.RegionFile;
+import nbt.stream.NBTSelector;
+import nbt.value.collection.NBTObject;
+import nbt.value.number.NBTNumber;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import util.string.Sequence;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class RegionFileTest {
+    /**@return A chunk which stores its coordinates.*/
+    static NBTObject chunk(final int x,final int z) throws NBTException {
+        return (NBTObject)NBT.parse(new Sequence(
+            "{DataVersion:2586,Level:{xPos:%d,zPos:%d,Heights:[I;%d,%d],Status:\"full\"}}".formatted(x,z,x,z)
+        ));
+    }
+    /**@return The chunk's payload compressed with the specified compression type.*/
+    static byte[] compress(final NBTObject chunk,final byte compression) throws IOException {
+        final byte[] raw = LazyTreeTest.encode(chunk);
+        if(compression == RegionFile.UNCOMPRESSED) return raw;
+        final ByteArrayOutputStream b = new ByteArrayOutputStream();
+        try(final OutputStream out = compression == RegionFile.GZIP? new GZIPOutputStream(b) : new DeflaterOutputStream(b)) {
+            out.write(raw);
+        }
+        return b.toByteArray();
+    }
+    /**
+     * Builds a region file in which each chunk at index <code>i</code> is stored
+     * with <code>compression[i]</code>, or is missing if it is zero. Chunks which
+     * are flagged as {@linkplain RegionFile#EXTERNAL external} are written to
+     * their own file.
+     *
+     * @return The region file <code>r.0.0.mca</code> in a new directory.
+     */
+    static File region(final byte...compression) throws IOException,NBTException {
+        final Path dir = Files.createTempDirectory("region");
+        dir.toFile().deleteOnExit();
+        final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        final ByteBuffer header = ByteBuffer.allocate(2 * RegionFile.SECTOR_SIZE);
+        for(int i = 0;i < compression.length;++i) {
+            if(compression[i] == 0) continue;
+            final int x = i % RegionFile.WIDTH,z = i / RegionFile.WIDTH;
+            final boolean external = (compression[i] & RegionFile.EXTERNAL) != 0;
+            final byte[] payload = compress(chunk(x,z),(byte)(compression[i] & ~RegionFile.EXTERNAL));
+            final byte[] stored;
+            if(external) {
+                final File f = dir.resolve("c.%d.%d.mcc".formatted(x,z)).toFile();
+                f.deleteOnExit();
+                Files.write(f.toPath(),payload);
+                stored = new byte[0];
+            } else stored = payload;
+            final int sectors = (stored.length + 5 + RegionFile.SECTOR_SIZE - 1) / RegionFile.SECTOR_SIZE;
+            final int offset = 2 + body.size() / RegionFile.SECTOR_SIZE;
+            header.putInt(i * 4,offset << 8 | sectors);
+            header.putInt(RegionFile.SECTOR_SIZE + i * 4,1000 + i);
+            final ByteBuffer b = ByteBuffer.allocate(sectors * RegionFile.SECTOR_SIZE);
+            b.putInt(stored.length + 1).put(compression[i]).put(stored);
+            body.write(b.array());
+        }
+        final File f = dir.resolve("r.0.0.mca").toFile();
+        f.deleteOnExit();
+        try(final OutputStream out = Files.newOutputStream(f.toPath())) {
+            out.write(header.array());
+            body.writeTo(out);
+        }
+        return f;
+    }
+    
+    @Test @Order(1)
+    void testChunks() throws IOException,NBTException {
+        final File f = region((byte)0,RegionFile.GZIP,RegionFile.ZLIB,RegionFile.UNCOMPRESSED);
+        try(final RegionFile r = new RegionFile(f)) {
+            assertFalse(r.hasChunk(0,0));
+            assertNull(r.chunk(0,0));
+            assertNull(r.lazyChunk(0,0));
+            for(int x = 1;x <= 3;++x) {
+                assertTrue(r.hasChunk(x,0));
+                assertEquals(1000 + x,r.timestamp(x,0));
+                assertEquals(chunk(x,0).toString(),r.chunk(x,0).toString());
+                assertEquals(chunk(x,0).toString(),r.lazyChunk(x,0).toString());
+            }
+            // Coordinates are region-local.
+            assertEquals(r.chunk(2,0).toString(),r.chunk(RegionFile.WIDTH + 2,-RegionFile.WIDTH).toString());
+            
+            final NBTSelector s = new NBTSelector("Level.xPos","Level.Heights[1]");
+            assertTrue(r.select(3,0,s));
+            assertEquals(3L,((NBTNumber)s.first(0)).longValue());
+            assertEquals(0L,((NBTNumber)s.first(1)).longValue());
+            assertFalse(r.select(0,0,s));
+        }
+    }
+    
+    @Test @Order(2)
+    void testExternal() throws IOException,NBTException {
+        final byte[] compression = new byte[RegionFile.WIDTH + 2];
+        compression[RegionFile.WIDTH + 1] = (byte)(RegionFile.ZLIB | RegionFile.EXTERNAL);
+        try(final RegionFile r = new RegionFile(region(compression))) {
+            assertEquals(chunk(1,1).toString(),r.chunk(1,1).toString());
+        }
+    }
+    
+    @Test @Order(3)
+    void testMalformed() throws IOException,NBTException {
+        final File small = File.createTempFile("r.0.0",".mca");
+        small.deleteOnExit();
+        Files.write(small.toPath(),new byte[RegionFile.SECTOR_SIZE]);
+        assertThrows(NBTException.class,() -> new RegionFile(small));
+        
+        final File f = region((byte)0,RegionFile.ZLIB,(byte)(RegionFile.ZLIB | RegionFile.EXTERNAL));
+        final byte[] data = Files.readAllBytes(f.toPath());
+        final ByteBuffer b = ByteBuffer.wrap(data);
+        final int offset = (b.getInt(4) >>> 8) * RegionFile.SECTOR_SIZE;
+        // The payload and its header fill the sector exactly.
+        b.putInt(offset,RegionFile.SECTOR_SIZE - 4);
+        Files.write(f.toPath(),data);
+        try(final RegionFile r = new RegionFile(f)) {assertEquals(chunk(1,0).toString(),r.chunk(1,0).toString());}
+        // The payload runs past the sector.
+        b.putInt(offset,RegionFile.SECTOR_SIZE - 3);
+        Files.write(f.toPath(),data);
+        try(final RegionFile r = new RegionFile(f)) {assertThrows(NBTException.class,() -> r.chunk(1,0));}
+        // Unknown compression types are rejected.
+        b.put(offset + 4,(byte)9);
+        b.putInt(offset,2);
+        Files.write(f.toPath(),data);
+        Files.delete(f.toPath().resolveSibling("c.2.0.mcc"));
+        try(final RegionFile r = new RegionFile(f)) {
+            assertThrows(NBTException.class,() -> r.chunk(1,0));
+            // The external chunk is missing.
+            assertThrows(IOException.class,() -> r.chunk(2,0));
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package test.nbt;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import java.io.File;
+import java.io.IOException;
+import nbt.exception.NBTException;
+import nbt.region.RegionFile;
+import nbt.value.collection.NBTObject;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class RegionReadTest {
+    /**Every third chunk in the first three rows, with all compression types.*/
+    private static File region() throws IOException,NBTException {
+        final byte[] compression = new byte[RegionFile.WIDTH * 3];
+        final byte[] types = {RegionFile.GZIP,RegionFile.ZLIB,RegionFile.UNCOMPRESSED};
+        for(int i = 0;i < compression.length;i += 3) compression[i] = types[i / 3 % types.length];
+        return RegionFileTest.region(compression);
+    }
+    
+    @Test @Order(1)
+    void testForEachChunk() throws IOException,NBTException,InterruptedException {
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try(final RegionFile r = new RegionFile(region())) {
+            final Thread caller = Thread.currentThread();
+            final Set<Integer> seen = new HashSet<>();
+            r.forEachChunk(executor,(x,z,chunk) -> {
+                // The consumer runs on the calling thread.
+                assertSame(caller,Thread.currentThread());
+                assertTrue(seen.add(RegionFile.index(x,z)));
+                assertEquals(RegionFileTest.chunk(x,z).toString(),chunk.toString());
+            });
+            assertEquals(RegionFile.WIDTH,seen.size());
+        } finally {executor.shutdown();}
+    }
+    
+    @Test @Order(2)
+    void testReadAll() throws IOException,NBTException,InterruptedException {
+        try(final RegionFile r = new RegionFile(region())) {
+            final NBTObject[] chunks = r.readAll();
+            assertEquals(RegionFile.CHUNKS,chunks.length);
+            for(int i = 0;i < RegionFile.CHUNKS;++i) {
+                final int x = i % RegionFile.WIDTH,z = i / RegionFile.WIDTH;
+                if(r.hasChunk(x,z)) assertEquals(RegionFileTest.chunk(x,z).toString(),chunks[i].toString());
+                else assertNull(chunks[i]);
+            }
+        }
+    }
+    
+    @Test @Order(3)
+    void testAbort() throws IOException,NBTException {
+        try(final RegionFile r = new RegionFile(region())) {
+            final int[] calls = {0};
+            assertThrows(NBTException.class,() -> r.forEachChunk((x,z,chunk) -> {
+                ++calls[0];
+                throw new NBTException("abort");
+            }));
+            // The remaining chunks are not passed to the consumer.
+            assertEquals(1,calls[0]);
+        }
+    }
+    
+    @Test @Order(4)
+    void testCorruptChunk() throws IOException,NBTException {
+        final byte[] compression = new byte[RegionFile.WIDTH];
+        compression[0] = compression[1] = RegionFile.ZLIB;
+        compression[2] = (byte)(RegionFile.ZLIB | RegionFile.EXTERNAL);
+        final File f = RegionFileTest.region(compression);
+        // The external chunk is missing.
+        new File(f.getParentFile(),"c.2.0.mcc").delete();
+        try(final RegionFile r = new RegionFile(f)) {
+            assertThrows(IOException.class,() -> r.readAll());
+        }
+    }
+}
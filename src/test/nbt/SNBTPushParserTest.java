@@ -0,0 +1,160 @@
+package test.nbt;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import java.nio.charset.StandardCharsets;
+import nbt.Dialect;
+import nbt.NBT;
+import nbt.exception.NBTException;
+import nbt.exception.NBTParsingException;
+import nbt.stream.SNBTPushParser;
+import nbt.value.NBTString;
+import nbt.value.collection.NBTByteArray;
+import nbt.value.collection.NBTTag;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import settings.Version;
+import util.string.Sequence;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class SNBTPushParserTest {
+    private final List<NBT> values = new ArrayList<>();
+    private final SNBTPushParser parser = new SNBTPushParser(values::add);
+    
+    private static String parse(final String s) throws NBTParsingException {return NBT.parse(new Sequence(s)).toString();}
+    private void assertValues(final String...expected) throws NBTParsingException {
+        assertEquals(expected.length,values.size());
+        for(int i = 0;i < expected.length;++i) assertEquals(parse(expected[i]),values.get(i).toString());
+        values.clear();
+    }
+    
+    @Test @Order(1)
+    void testSplitCharacters() throws NBTException {
+        final String s = "{a:\"\u00E9\u20AC\uD83D\uDE00\"}";
+        final byte[] b = (s + '\n').getBytes(StandardCharsets.UTF_8);
+        // One byte at a time splits every multi-byte character.
+        for(int i = 0;i < b.length;++i) parser.feed(b,i,1);
+        assertValues(s);
+        parser.feed(b,0,3);
+        parser.feed(b,3,b.length - 3);
+        assertValues(s);
+    }
+    
+    @Test @Order(2)
+    void testQuotedBrackets() throws NBTException {
+        final String s = "{a:\"}]\\\"{[\",b:[\"]\"]}";
+        for(int i = 0;i < s.length();++i) {
+            // Split the input at every position, including inside the escape.
+            parser.feed(s.substring(0,i));
+            assertEquals(0,values.size());
+            parser.feed(s.substring(i));
+            assertValues(s);
+        }
+    }
+    
+    @Test @Order(3)
+    void testAdjacentValues() throws NBTException {
+        parser.feed("{a:1b}{b:2b}");
+        assertValues("{a:1b}","{b:2b}");
+        parser.feed(" [1,2] {c:3}[");
+        assertValues("[1,2]","{c:3}");
+        parser.feed("3]\n5b\n\"x\"");
+        assertValues("[3]","5b","\"x\"");
+        // Words end at the first character which cannot continue them.
+        parser.feed("7");
+        assertValues();
+        parser.feed("b{d:1}");
+        assertValues("7b","{d:1}");
+        parser.feed("8s");
+        parser.finish();
+        assertValues("8s");
+    }
+    
+    @Test @Order(4)
+    void testFinish() throws NBTException {
+        parser.feed("{a:[1");
+        assertThrows(NBTParsingException.class,parser::finish);
+        parser.feed("{a:\"}");
+        assertThrows(NBTParsingException.class,parser::finish);
+        parser.feed("a:");
+        assertThrows(NBTParsingException.class,parser::finish);
+        final byte[] b = "\u00E9".getBytes(StandardCharsets.UTF_8);
+        parser.feed(b,0,1);
+        assertThrows(NBTParsingException.class,parser::finish);
+        assertThrows(NBTParsingException.class,() -> parser.feed(new byte[] {(byte)0xFF}));
+        parser.reset();
+        // Failures discard the unfinished input.
+        assertEquals(0,values.size());
+        parser.feed("{d:4}");
+        parser.finish();
+        assertValues("{d:4}");
+    }
+    
+    private static final String[] VALUES = {
+        "{a:1b,b:[I;1,2,3],c:[L; 4L],d:{e:\"f g\",h:[]},i:[B;]}",
+        "[[1,2],[3],[]]","[1.5f,2.5f,]","[{a:1},{b:2s}]","[\"a,b\",c,\"]\"]",
+        "{\"a b\":{},c : 1 , d:[ 1 , 2 ]}","{a:true,b:false,c:1.5e3d,d:-7L}"
+    };
+    
+    @Test @Order(5)
+    void testIncremental() throws NBTException {
+        for(final String s : VALUES) {
+            // Values are complete at their last character.
+            parser.feed(s.substring(0,s.length() - 1));
+            assertValues();
+            parser.feed(s.substring(s.length() - 1));
+            assertValues(s);
+            // Split the input at every position.
+            for(int i = 1;i < s.length();++i) {
+                parser.feed(s.substring(0,i));
+                parser.feed(s.substring(i));
+                assertValues(s);
+            }
+        }
+    }
+    
+    @Test @Order(6)
+    void testTags() throws NBTException {
+        parser.feed("a:1b b:{c:2}");
+        assertEquals(2,values.size());
+        assertTrue(values.get(0) instanceof NBTTag);
+        assertEquals(parse("a:1b"),values.get(0).toString());
+        assertEquals(parse("b:{c:2}"),values.get(1).toString());
+        values.clear();
+    }
+    
+    @Test @Order(7)
+    void testErrors() throws NBTException {
+        for(final String s : new String[] {"{a}","{a:1,}","[,]","{a:1 b:2}","[1 2]","}","{a::1}","[B;1b;]","{\"\":1}","[1b,\"x\"]"}) {
+            assertThrows(NBTParsingException.class,() -> {
+                parser.feed(s);
+                parser.finish();
+            },s);
+            assertValues();
+        }
+        // Elements are converted to the type of the first element where possible.
+        parser.feed("[1,2L] [I;1b]");
+        assertValues("[1,2L]","[I;1b]");
+    }
+    
+    @Test @Order(8)
+    void testDialect() throws NBTException {
+        assertThrows(IllegalArgumentException.class,() -> new SNBTPushParser(values::add,Dialect.of(Version.v13w36a)));
+        final SNBTPushParser p = new SNBTPushParser(values::add,Dialect.of(Version.unknown));
+        // Whitespace is allowed around the primitive array token in this dialect.
+        p.feed("[ B ; 1b] 'x'");
+        assertEquals(2,values.size());
+        assertTrue(values.get(0) instanceof NBTByteArray);
+        assertEquals(1,((NBTByteArray)values.get(0)).size());
+        assertEquals("x",((NBTString)values.get(1)).unwrapped().toString());
+        values.clear();
+        assertThrows(NBTParsingException.class,() -> parser.feed("[ B ; 1b]"));
+    }
+}
@@ -0,0 +1,156 @@
+package test.nbt;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import nbt.NBT;
+import nbt.exception.NBTException;
+import nbt.value.NBTBool;
+import nbt.value.NBTValue;
+import nbt.value.collection.NBTArray;
+import nbt.value.collection.NBTObject;
+import nbt.value.number.NBTByte;
+import nbt.value.number.NBTInt;
+import nbt.value.number.NBTShort;
+import nbt.value.number.NBTi32;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import util.string.Sequence;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class SharedValueTest {
+    private static final String SNBT = "{b:1b,i:5,s:7s,big:100000,l:[1b,2b],n:{x:3,y:[I;4]}}";
+    
+    private static NBTObject parse() throws NBTException {return (NBTObject)NBT.parse(new Sequence(SNBT));}
+    private static NBTObject readOnly(final byte[] data) throws IOException,NBTException {
+        return NBTObject.readOnly(NBTObject.readHeader(new DataInputStream(new ByteArrayInputStream(data))));
+    }
+    
+    @Test @Order(1)
+    void testValueOf() {
+        final NBTInt i = NBTInt.valueOf(5,true);
+        assertTrue(i.isShared());
+        assertSame(i,NBTInt.valueOf(5,true));
+        assertNotSame(i,NBTInt.valueOf(5,false));
+        assertSame(NBTByte.valueOf((byte)-128,false),NBTByte.valueOf((byte)-128,false));
+        assertSame(NBTShort.valueOf((short)NBTi32.SHARED_MAX,true),NBTShort.valueOf((short)NBTi32.SHARED_MAX,true));
+        assertSame(NBTBool.valueOf(true,false),NBTBool.valueOf(true,false));
+        // Values outside of the shared range are not shared.
+        final NBTInt big = NBTInt.valueOf(NBTi32.SHARED_MAX + 1,true);
+        assertFalse(big.isShared());
+        assertNotSame(big,NBTInt.valueOf(NBTi32.SHARED_MAX + 1,true));
+        assertSame(big,big.unshare());
+        
+        final NBTValue u = i.unshare();
+        assertFalse(u.isShared());
+        assertNotSame(i,u);
+        assertEquals(5,((NBTInt)u).intValue());
+        assertEquals(i.isMinimal(),u.isMinimal());
+        assertFalse(NBTBool.valueOf(false,true).unshare().isShared());
+    }
+    
+    @Test @Order(2)
+    void testImmutable() {
+        final NBTInt i = NBTInt.valueOf(5,true);
+        assertThrows(UnsupportedOperationException.class,() -> i.setValue(6));
+        assertThrows(UnsupportedOperationException.class,() -> NBTByte.valueOf((byte)5,true).setValue((byte)6));
+        assertThrows(UnsupportedOperationException.class,() -> NBTShort.valueOf((short)5,true).setValue((short)6));
+        assertThrows(UnsupportedOperationException.class,() -> NBTBool.valueOf(true,true).setValue(false));
+        assertEquals(5,NBTInt.valueOf(5,true).intValue());
+        assertTrue(NBTBool.valueOf(true,true).getValue());
+        // Shared values keep their minimalism.
+        i.setDeepMinimal(false);
+        assertTrue(NBTInt.valueOf(5,true).isMinimal());
+        NBTByte.valueOf((byte)1,true).setDeepMinimal(false);
+        NBTByte.valueOf((byte)1,false).setDeepMinimal(true);
+        assertEquals("1",NBTByte.valueOf((byte)1,true).toString());
+        assertEquals("1b",NBTByte.valueOf((byte)1,false).toString());
+    }
+    
+    @Test @Order(3)
+    void testReadOnlyRoundTrip() throws IOException,NBTException {
+        final byte[] data = LazyTreeTest.encode(parse());
+        final NBTObject o = readOnly(data);
+        assertArrayEquals(data,LazyTreeTest.encode(o));
+        assertEquals(LazyTreeTest.eager(data).toString(),o.toString());
+        assertFalse(o.isDirty());
+        assertTrue(o.get("b").isShared());
+        assertTrue(o.get("i").isShared());
+        assertTrue(((NBTArray)o.get("l")).get(0).isShared());
+        assertTrue(((NBTObject)o.get("n")).get("x").isShared());
+        assertFalse(o.get("big").isShared());
+    }
+    
+    @Test @Order(4)
+    void testEdit() throws IOException,NBTException {
+        final NBTObject o = readOnly(LazyTreeTest.encode(parse()));
+        final NBTValue shared = o.get("i");
+        final NBTInt i = (NBTInt)o.edit("i");
+        assertFalse(i.isShared());
+        assertSame(i,o.get("i"));
+        // Taking a private copy does not modify the object.
+        assertFalse(o.isDirty());
+        i.setValue(6);
+        assertTrue(o.isDirty());
+        final NBTArray l = (NBTArray)o.get("l");
+        ((NBTByte)l.edit(0)).setValue((byte)9);
+        
+        final NBTObject expected = parse();
+        ((NBTInt)expected.get("i")).setValue(6);
+        ((NBTByte)((NBTArray)expected.get("l")).get(0)).setValue((byte)9);
+        assertArrayEquals(LazyTreeTest.encode(expected),LazyTreeTest.encode(o));
+        // The shared instances are unchanged.
+        assertEquals(5,((NBTInt)shared).intValue());
+        assertEquals(1,NBTByte.valueOf((byte)1,true).intValue());
+        // Values which are not shared are returned as they are.
+        assertSame(o.get("big"),o.edit("big"));
+    }
+    
+    @Test @Order(5)
+    void testIntern() throws NBTException {
+        final NBTObject o = parse();
+        final boolean minimal = o.get("i").isMinimal();
+        assertFalse(o.get("i").isShared());
+        assertSame(o,o.intern());
+        assertSame(NBTInt.valueOf(5,minimal),o.get("i"));
+        assertSame(NBTByte.valueOf((byte)1,minimal),o.get("b"));
+        assertSame(NBTShort.valueOf((short)7,minimal),o.get("s"));
+        assertSame(NBTByte.valueOf((byte)2,minimal),((NBTArray)o.get("l")).get(1));
+        assertFalse(o.get("big").isShared());
+        assertEquals(parse().toString(),o.toString());
+        
+        final NBTInt i = new NBTInt(5,minimal);
+        assertSame(NBTInt.valueOf(5,minimal),i.intern());
+        final NBTInt big = new NBTInt(NBTi32.SHARED_MAX + 1,minimal);
+        assertSame(big,big.intern());
+    }
+    
+    @Test @Order(6)
+    void testDeepMinimal() throws IOException,NBTException {
+        final NBTObject o = parse(),shared = readOnly(LazyTreeTest.encode(o));
+        for(final boolean minimal : new boolean[] {false,true,false}) {
+            o.setDeepMinimal(minimal);
+            shared.setDeepMinimal(minimal);
+            assertEquals(o.toString(),shared.toString());
+            assertTrue(shared.get("b").isShared());
+            assertTrue(((NBTArray)shared.get("l")).get(0).isShared());
+            assertTrue(((NBTObject)shared.get("n")).get("x").isShared());
+            assertEquals(minimal,shared.get("b").isMinimal());
+        }
+        assertTrue(shared.toString().contains("b:1b"));
+        assertFalse(shared.isDirty());
+        // The shared instances keep their minimalism.
+        assertTrue(NBTByte.valueOf((byte)1,true).isMinimal());
+        assertFalse(NBTByte.valueOf((byte)1,false).isMinimal());
+    }
+}
@@ -0,0 +1,52 @@
+package test.settings;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import nbt.Dialect;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import settings.Settings;
+import settings.Version;
+import util.string.Sequence;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class SettingsTest {
+    @Test @Order(1)
+    void testVersion() {
+        final Version previous = Settings.version();
+        try {
+            for(final Version v : Version.values()) {
+                Settings.version(v);
+                assertSame(v,Settings.version());
+                // Threads without a bound dialect use the version's dialect.
+                assertSame(Dialect.of(v),Dialect.current());
+            }
+        } finally {Settings.version(previous);}
+        assertSame(previous,Settings.version());
+    }
+    
+    @Test @Order(2)
+    void testValues() {
+        final Sequence indent = Settings.defaultIndent();
+        final boolean minimal = Settings.defaultMinimal();
+        final int limit = Settings.exceptionCharacterLimit();
+        try {
+            Settings.defaultIndent(new Sequence("\t"));
+            assertEquals("\t",Settings.defaultIndent().toString());
+            Settings.defaultIndent(new Sequence("  "));
+            assertEquals("  ",Settings.defaultIndent().toString());
+            Settings.defaultMinimal(!minimal);
+            assertEquals(!minimal,Settings.defaultMinimal());
+            Settings.exceptionCharacterLimit(limit + 1);
+            assertEquals(limit + 1,Settings.exceptionCharacterLimit());
+        } finally {
+            Settings.defaultIndent(indent);
+            Settings.defaultMinimal(minimal);
+            Settings.exceptionCharacterLimit(limit);
+        }
+        assertEquals(indent.toString(),Settings.defaultIndent().toString());
+    }
+}
@@ -0,0 +1,80 @@
+package test.string;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import util.string.NumberLexer;
+import util.string.Sequence;
+import util.string.Sequence.SequenceIterator;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class NumberLexerTest {
+    private static NumberLexer lex(final String s,final boolean exponents) {
+        final NumberLexer l = new NumberLexer();
+        final char[] c = s.toCharArray();
+        assertTrue(l.lex(c,0,c.length,exponents),s);
+        return l;
+    }
+    private static void invalid(final String s) {
+        final char[] c = s.toCharArray();
+        assertFalse(new NumberLexer().lex(c,0,c.length,true),s);
+    }
+    
+    @Test @Order(1)
+    void testIntegral() {
+        for(final long v : new long[] {0L,1L,-1L,42L,Long.MAX_VALUE,Long.MIN_VALUE}) {
+            final NumberLexer l = lex(Long.toString(v),true);
+            assertTrue(l.isIntegral());
+            assertTrue(l.fitsLong());
+            assertEquals(v,l.longValue());
+        }
+        assertEquals(7L,lex("+7",true).longValue());
+        assertFalse(lex("9223372036854775808",true).fitsLong());
+        assertFalse(lex("-9223372036854775809",true).fitsLong());
+    }
+    
+    @Test @Order(2)
+    void testFloatingPoint() {
+        for(final String s : new String[] {"1.5",".5","-.5","1.","0.1","1e5","1E-3","-0.0",
+                                           "0.30000000000000004","1.7976931348623157e308",
+                                           "4.9e-324","123456789012345678901234567890"}) {
+            assertEquals(Double.parseDouble(s),lex(s,true).doubleValue(),s);
+            assertEquals(Float.parseFloat(s),lex(s,true).floatValue(),s);
+        }
+        assertFalse(lex("1.5",true).isIntegral());
+        assertFalse(lex("1e5",true).isIntegral());
+    }
+    
+    @Test @Order(3)
+    void testEnd() {
+        assertEquals(3,lex("1.5f",true).end());
+        assertEquals(1,lex("1e5",false).end());
+        assertEquals(2,lex("12,",true).end());
+    }
+    
+    @Test @Order(4)
+    void testInvalid() {
+        invalid("");
+        invalid("-");
+        invalid(".");
+        invalid("+.");
+        invalid("e5");
+        invalid("1e");
+        invalid("1e+");
+    }
+    
+    @Test @Order(5)
+    void testIterator() {
+        final SequenceIterator i = new Sequence(" 12.5,").iterator();
+        i.skipWS();
+        final NumberLexer l = new NumberLexer();
+        assertTrue(l.lex(i,true));
+        assertEquals(12.5,l.doubleValue());
+        assertEquals(',',i.peek());
+    }
+}
@@ -0,0 +1,109 @@
+package test.string;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Random;
+
+import java.io.IOException;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import util.string.Sequence;
+import util.string.outline.JoiningSegment;
+import util.string.outline.OutlineWriter;
+import util.string.outline.Segment;
+import util.string.outline.ValueSegment;
+import util.string.outline.WrappingSegment;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class OutlineWriterTest {
+    private static final Sequence O = new Sequence('['),C = new Sequence(']'),S = new Sequence(','),
+                                  A = new Sequence('a'),B = new Sequence('b'),
+                                  INDENT = new Sequence("  ");
+    private static String list(final int charLimit,final int childLimit) throws IOException {
+        final StringBuilder sb = new StringBuilder();
+        final OutlineWriter w = new OutlineWriter(sb,charLimit,childLimit,INDENT);
+        w.wrap(O,C).join(S).value(A).value(B).end().end().finish();
+        return sb.toString();
+    }
+    
+    @Test @Order(1)
+    void testFolded() throws IOException {
+        assertEquals("[a,b]",list(80,8));
+        assertEquals("[a,b]",list(5,2));
+    }
+    
+    @Test @Order(2)
+    void testExpanded() throws IOException {
+        assertEquals("[\n  a,b\n]",list(4,2));
+        assertEquals("[\n  a,\n  b\n]",list(Segment.MAX_LIMIT,1));
+    }
+    
+    @Test @Order(3)
+    void testInvalid() throws IOException {
+        final OutlineWriter w = new OutlineWriter(new StringBuilder(),Segment.MAX_LIMIT,0,INDENT);
+        assertThrows(IllegalStateException.class,w::end);
+        w.wrap(O,C).value(A);
+        assertThrows(IllegalStateException.class,() -> w.value(B));
+        assertThrows(IllegalStateException.class,w::finish);
+        w.end().finish();
+        assertThrows(IllegalStateException.class,() -> w.value(A));
+    }
+    
+    private static Random r;
+    private static Sequence random(final int max) {
+        final char[] c = new char[r.nextInt(max + 1)];
+        for(int i = 0;i < c.length;++i) c[i] = (char)('a' + r.nextInt(26));
+        return new Sequence(c);
+    }
+    private static int limit() {
+        return switch(r.nextInt(4)) {
+            case 0 -> Segment.MAX_LIMIT;
+            case 1 -> -1;
+            default -> r.nextInt(24);
+        };
+    }
+    private static Segment random(final OutlineWriter w,final int depth) throws IOException {
+        switch(depth > 5? 0 : r.nextInt(3)) {
+            case 0: {
+                final Sequence v = random(6);
+                w.value(v);
+                return new ValueSegment(v);
+            }
+            case 1: {
+                final Sequence of = random(2),oe = random(2),cf = random(2),ce = random(2),i = random(3);
+                final int l = limit();
+                final WrappingSegment s = new WrappingSegment(of,oe,cf,ce).indent(i);
+                s.charLimit(l);
+                w.wrap(of,oe,cf,ce,i,l);
+                if(r.nextBoolean()) s.child(random(w,depth + 1));
+                w.end();
+                return s;
+            }
+            default: {
+                final Sequence sep = random(2);
+                final int cl = limit(),ch = limit();
+                final JoiningSegment s = new JoiningSegment(sep).childLimit(ch);
+                s.charLimit(cl);
+                w.join(sep,cl,ch);
+                for(int n = r.nextInt(5);n > 0;--n) s.push(random(w,depth + 1));
+                w.end();
+                return s;
+            }
+        }
+    }
+    
+    @Test @Order(4)
+    void testSegments() throws IOException {
+        for(int seed = 0;seed < 1000;++seed) {
+            r = new Random(seed);
+            final StringBuilder sb = new StringBuilder();
+            final OutlineWriter w = new OutlineWriter(sb);
+            final Segment s = random(w,0);
+            w.finish();
+            assertEquals(s.concat().toString(),sb.toString(),"seed " + seed);
+        }
+    }
+}
@@ -4,15 +4,27 @@ import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.HashMap;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
 import org.junit.jupiter.api.MethodOrderer;
 import org.junit.jupiter.api.Order;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestMethodOrder;
 import util.string.Sequence;
+import util.string.Sequence.SequenceFileIterator;
 import util.string.Sequence.SequenceIterator;
+import util.string.Sequence.SequenceStreamIterator;
 
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
 class SequenceTest {
@@ -308,6 +320,186 @@ class SequenceTest {
             new Sequence("a".repeat(2))
         );
     }
+    
+    @Test @Order(22)
+    void testHashCode() {
+        assertEquals("".hashCode(),new Sequence().hashCode());
+        assertEquals("abc123".hashCode(),new Sequence(data).hashCode());
+        assertEquals("c123".hashCode(),new Sequence(2,data).hashCode());
+        assertEquals("bc12".hashCode(),new Sequence(1,5,data).hashCode());
+        assertEquals("bc12".hashCode(),new Sequence(data).subSequence(1,5).hashCode());
+        
+        // Cached results must not change.
+        final Sequence s = new Sequence(1,5,data);
+        assertEquals(s.hashCode(),s.hashCode());
+        
+        // Equal sequences must have equal hashes regardless of their backing arrays.
+        assertEquals(new Sequence("bc12").hashCode(),new Sequence(1,5,data).hashCode());
+        
+        // "\0" hashes to zero, which must not be mistaken for an uncomputed hash.
+        final Sequence z = new Sequence('\0',1);
+        assertEquals(0,z.hashCode());
+        assertEquals(0,z.hashCode());
+    }
+    
+    @Test @Order(23)
+    void testEqualsSequence() {
+        final Sequence s = new Sequence(1,5,data);
+        assertTrue(s.equals(s));
+        assertFalse(s.equals((Sequence)null));
+        assertFalse(s.equals((Object)null));
+        assertTrue(s.equals(new Sequence("bc12")));
+        assertTrue(new Sequence("bc12").equals(s));
+        assertFalse(s.equals(new Sequence("bc13")));
+        assertFalse(s.equals(new Sequence("bc1")));
+        assertFalse(s.equals(new Sequence(0,4,data)));
+        
+        // Comparisons must not depend on whether the hashes were computed.
+        final Sequence a = new Sequence("bc12"),b = new Sequence("bc13");
+        a.hashCode();
+        assertFalse(a.equals(b));
+        b.hashCode();
+        assertFalse(a.equals(b));
+        s.hashCode();
+        assertTrue(a.equals(s));
+        
+        assertTrue(new Sequence().equals(Sequence.EMPTY));
+        assertTrue(new Sequence(3,3,data).equals(new Sequence()));
+    }
+    
+    @Test @Order(24)
+    void testCompareTo() {
+        final String[] strings = {"","a","ab","abc","abd","b","bc12","abc123"};
+        for(final String x : strings)
+            for(final String y : strings)
+                assertEquals(
+                    Integer.signum(x.compareTo(y)),
+                    Integer.signum(new Sequence(x).compareTo(new Sequence(y))),
+                    x + " <=> " + y
+                );
+        final Sequence s = new Sequence(1,5,data);
+        assertEquals(0,s.compareTo(s));
+        assertEquals(0,s.compareTo(new Sequence(1,5,data)));
+        assertTrue(s.compareTo(new Sequence(1,4,data)) > 0);
+        assertTrue(new Sequence(1,4,data).compareTo(s) < 0);
+    }
+    
+    @Test @Order(25)
+    void testHashedLookup() {
+        final HashMap<Sequence,Integer> map = new HashMap<>();
+        map.put(new Sequence("bc12"),1);
+        map.put(new Sequence("c123"),2);
+        assertEquals(1,map.get(new Sequence(1,5,data)));
+        assertEquals(2,map.get(new Sequence(2,data)));
+        assertNull(map.get(new Sequence(0,4,data)));
+    }
+    
+    @Test @Order(26)
+    void testStreamIterator() throws IOException {
+        final String text = " ab\u00E9\u4E2D\uD83D\uDE00" + "x".repeat(1 << 18) + "!";
+        try(final SequenceStreamIterator i = new SequenceStreamIterator(
+            Channels.newChannel(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8))),
+            StandardCharsets.UTF_8
+        )) {
+            assertEquals('a',i.skipWSChar());
+            i.mark();
+            for(int j = 0;j < 6;++j) i.nextChar();
+            assertEquals("ab\u00E9\u4E2D\uD83D\uDE00",i.subSequence().toString());
+            assertEquals('b',i.jumpTo(2).peekChar());
+            for(i.jumpTo(7);i.peekChar() == 'x';i.nextChar());
+            assertEquals('!',i.peekChar());
+            assertFalse(i.hasNext());
+            assertEquals(SequenceIterator.EOF,i.nextChar());
+            assertThrows(IndexOutOfBoundsException.class,() -> i.jumpTo(0));
+        }
+    }
+    
+    /**Applies the operation with the specified index to a cursor, returning the character as an int.*/
+    private static int step(final SequenceIterator i,final int op,final boolean primitive) {
+        return switch(op) {
+            case 0  -> primitive? i.nextChar() : SequenceIterator.unboxed(i.next());
+            case 1  -> primitive? i.peekChar() : SequenceIterator.unboxed(i.peek());
+            case 2  -> primitive? i.nextNonWSChar() : SequenceIterator.unboxed(i.nextNonWS());
+            default -> primitive? i.skipWSChar() : SequenceIterator.unboxed(i.skipWS());
+        };
+    }
+    @Test @Order(27)
+    void testCharCursor() {
+        assertEquals(SequenceIterator.EOF,SequenceIterator.unboxed(null));
+        assertNull(SequenceIterator.boxed(SequenceIterator.EOF));
+        assertEquals('\uFFFF',SequenceIterator.unboxed(SequenceIterator.boxed('\uFFFF')));
+        assertTrue(SequenceIterator.terminates(',','}',true));
+        assertFalse(SequenceIterator.terminates(',','}',false));
+        assertTrue(SequenceIterator.terminates('}','}',false));
+        assertTrue(SequenceIterator.terminates(SequenceIterator.EOF,null,false));
+        assertFalse(SequenceIterator.terminates('\uFFFF',null,false));
+        
+        final Sequence s = new Sequence(" a \t b  c ");
+        final SequenceIterator i = s.iterator();
+        assertEquals(SequenceIterator.EOF,i.peekChar());
+        assertEquals(' ',i.nextChar());
+        assertEquals('a',i.nextNonWSChar());
+        assertEquals('a',i.skipWSChar());
+        assertEquals('a',i.peekChar());
+        assertEquals(' ',i.nextChar());
+        assertEquals('b',i.skipWSChar());
+        assertEquals('c',i.nextNonWSChar());
+        assertEquals(SequenceIterator.EOF,i.nextNonWSChar());
+        assertEquals(SequenceIterator.EOF,i.nextChar());
+        
+        // The primitive methods agree with the boxed ones, including on sequences
+        // which start partway through their backing array.
+        for(int seed = 0;seed < 64;++seed) {
+            final SequenceIterator[] a = {s.iterator(),new Sequence(1,9,s.toChars()).iterator()},
+                                     b = {s.iterator(),new Sequence(1,9,s.toChars()).iterator()};
+            for(int j = 0;j < a.length;++j)
+                for(int k = 0,ops = seed;k < 12;++k,ops = ops * 5 + 3) {
+                    final int op = ops >>> 2 & 3;
+                    assertEquals(step(a[j],op,false),step(b[j],op,true));
+                    assertEquals(a[j].index(),b[j].index());
+                }
+        }
+    }
+    
+    @Test @Order(28)
+    void testFileIterator() throws IOException {
+        final String text = " ab\u00E9\u4E2D\uD83D\uDE00 \t" + "xy".repeat(5000) + "!";
+        final File f = File.createTempFile("sequence",".txt");
+        f.deleteOnExit();
+        Files.write(f.toPath(),text.getBytes(StandardCharsets.UTF_16BE));
+        try(final SequenceFileIterator i = new SequenceFileIterator(f)) {
+            assertEquals(SequenceIterator.EOF,i.peekChar());
+            assertEquals('a',i.nextNonWSChar());
+            i.mark();
+            for(int j = 0;j < 5;++j) i.nextChar();
+            assertEquals("ab\u00E9\u4E2D\uD83D",i.subSequence().toString());
+            assertEquals('\uDE00',i.peekChar());
+            assertEquals('x',i.nextNonWSChar());
+            assertEquals('y',i.peek(1));
+            assertEquals('b',i.jumpTo(2).peekChar());
+            assertEquals('!',i.jumpTo(-1).peekChar());
+            assertFalse(i.hasNext());
+            assertEquals(SequenceIterator.EOF,i.nextChar());
+            assertEquals(text,i.getParent().toString());
+            assertThrows(IndexOutOfBoundsException.class,() -> i.jumpTo(text.length() + 1));
+            
+            // The file matches an iterator over the same text.
+            final SequenceIterator s = new Sequence(text).iterator();
+            i.jumpTo(0).jumpOffset(-1);
+            for(int c;(c = s.nextChar()) != SequenceIterator.EOF;) assertEquals(c,i.nextChar());
+            assertEquals(SequenceIterator.EOF,i.nextChar());
+        }
+        
+        Files.write(f.toPath(),new byte[0]);
+        try(final SequenceFileIterator i = new SequenceFileIterator(f)) {
+            assertFalse(i.hasNext());
+            assertEquals(SequenceIterator.EOF,i.nextChar());
+            assertEquals(SequenceIterator.EOF,i.skipWSChar());
+        }
+        // Half of a character is an error.
+        Files.write(f.toPath(),new byte[] {0,'a',0});
+        assertThrows(IOException.class,() -> new SequenceFileIterator(f));
+    }
 }
 
 
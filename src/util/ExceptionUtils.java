@@ -2,6 +2,7 @@ package util;
 
 import settings.Settings;
 import util.string.Sequence;
+import util.string.Sequence.SequenceIterator;
 
 /**
  * A utility class to format various types of exception messages.
@@ -15,15 +16,22 @@ public final class ExceptionUtils {
     /**@return <code>&ltmessage&gt at position &ltindex&gt: &ltdata&gt &lt-</code>*/
     public static String fmtParsing(final String message,final int index,final Sequence data) {
         final int maxShown = Settings.exceptionCharacterLimit();
-        return "%s at position %d: %s <-".formatted(
-            message,index,
-            (index > maxShown? "..." : "") +
+        return fmtParsing(
+            message,index,maxShown,
             data.subSequence(
                 Math.min(Math.max(index - maxShown,0),data.length()),
                 Math.min(Math.max(index + 1,0),data.length())
             )
         );
     }
+    /**@see #fmtParsing(String,int,Sequence)*/
+    public static String fmtParsing(final String message,final SequenceIterator data) {
+        final int maxShown = Settings.exceptionCharacterLimit();
+        return fmtParsing(message,data.index(),maxShown,data.context(maxShown));
+    }
+    private static String fmtParsing(final String message,final int index,final int maxShown,final Sequence context) {
+        return "%s at position %d: %s <-".formatted(message,index,(index > maxShown? "..." : "") + context);
+    }
     /**@return <code>Missing &ltcommas:comma or |&gt&ltterminator==null:end of sequence|closing character '&ltterminator&gt'&gt in &lttype&gt (was '&ltc==null:null|c&gt').</code>*/
     public static String fmtParsingTerminator(final String type,
                                               final int index,
@@ -31,16 +39,27 @@ public final class ExceptionUtils {
                                               final Character terminator,
                                               final boolean commas,
                                               final Character c) {
-        return fmtParsing(
-            "Missing %s%s in %s (was '%s').".formatted(
-                commas? "comma or "
-                      : "",
-                terminator == null? "end of sequence"
-                                  : "closing character '%c'".formatted(terminator),
-                type,c == null? "null":c
-            ),
-            index,data
-        ); 
+        return fmtParsing(fmtTerminator(type,terminator,commas,c),index,data);
+    }
+    /**@see #fmtParsingTerminator(String,int,Sequence,Character,boolean,Character)*/
+    public static String fmtParsingTerminator(final String type,
+                                              final SequenceIterator data,
+                                              final Character terminator,
+                                              final boolean commas,
+                                              final Character c) {
+        return fmtParsing(fmtTerminator(type,terminator,commas,c),data);
+    }
+    private static String fmtTerminator(final String type,
+                                        final Character terminator,
+                                        final boolean commas,
+                                        final Character c) {
+        return "Missing %s%s in %s (was '%s').".formatted(
+            commas? "comma or "
+                  : "",
+            terminator == null? "end of sequence"
+                              : "closing character '%c'".formatted(terminator),
+            type,c == null? "null":c
+        );
     }
     
     /**@return <code>Cannot convert type &ltfrom.name&gt to type &ltto.name&gt.</code>*/
@@ -82,6 +82,13 @@ public class Joiner extends SequenceQueue {
                                        wl < 3 || wrapper[2] == null? new Sequence(',') : wrapper[2]};
     }
     
+    /**@return The sequence which appears before the output string.*/
+    public Sequence prefix() {return wrapper[0];}
+    /**@return The sequence which appears after the output string.*/
+    public Sequence suffix() {return wrapper[1];}
+    /**@return The sequence separating the strings.*/
+    public Sequence separator() {return wrapper[2];}
+    
     @Override
     public Sequence concat() {
         final char[] out = new char[wrapper[0].length() +
@@ -0,0 +1,161 @@
+package util.string;
+
+import java.util.Arrays;
+
+import util.string.Sequence.ForwardSequenceIterator;
+import util.string.Sequence.SequenceIterator;
+
+/**
+ * A single-pass scanner for decimal numbers of the form
+ * <code>[sign] digits [. digits] [(e|E) [sign] digits]</code>, where at least
+ * one digit must appear before the exponent. The value is accumulated while the
+ * characters are read, so integral values and most floating-point values are
+ * produced without creating any intermediate strings.
+ * <p>
+ * Instances are reusable, but not thread-safe.
+ * 
+ * @author prgmTrouble
+ * @author AzureTriple
+ */
+public final class NumberLexer {
+    /**Powers of ten which can be represented exactly by a <code>double</code>.*/
+    private static final double[] POW10 = {
+        1e0,1e1,1e2,1e3,1e4,1e5,1e6,1e7,1e8,1e9,1e10,1e11,
+        1e12,1e13,1e14,1e15,1e16,1e17,1e18,1e19,1e20,1e21,1e22
+    };
+    /**Powers of ten which can be represented exactly by a <code>float</code>.*/
+    private static final float[] POW10F = {1e0f,1e1f,1e2f,1e3f,1e4f,1e5f,1e6f,1e7f,1e8f,1e9f,1e10f};
+    /**The largest mantissas which can be represented exactly by each type.*/
+    private static final long MAX_EXACT_DOUBLE = 1L << 53,MAX_EXACT_FLOAT = 1L << 24;
+    /**Exponents beyond this magnitude are left to the slow path.*/
+    private static final int MAX_EXPONENT = 1 << 16;
+    
+    private char[] data,scratch;
+    private int start,end;
+    private boolean negative,integral,overflow;
+    /**All digits, accumulated negatively to avoid surprises near MIN_VALUE.*/
+    private long value;
+    /**The power of ten which the accumulated digits must be scaled by.*/
+    private int exponent;
+    
+    /**
+     * Scans a number.
+     * 
+     * @param data      The characters to scan.
+     * @param from      The index of the number's first character.
+     * @param to        The index after the last character which may be scanned.
+     * @param exponents <code>true</code> iff the exponent part is recognized.
+     *                  Otherwise, the number ends before the exponent delimiter.
+     * 
+     * @return <code>true</code> iff a well-formed number was found. In this case,
+     *         {@linkplain #end()} is the index after its last character.
+     */
+    public boolean lex(final char[] data,final int from,final int to,final boolean exponents) {
+        this.data = data;
+        start = end = from;
+        value = 0L;
+        exponent = 0;
+        overflow = false;
+        integral = true;
+        int i = from;
+        if(i == to) return false;
+        negative = data[i] == '-';
+        if(negative || data[i] == '+') ++i;
+        int digits = 0;
+        // Integral part.
+        for(;i < to && '0' <= data[i] && data[i] <= '9';++i,++digits) accumulate(data[i]);
+        // Fractional part.
+        if(i < to && FPDelimiter.fraction.matches(data[i])) {
+            integral = false;
+            for(++i;i < to && '0' <= data[i] && data[i] <= '9';++i,++digits) {
+                accumulate(data[i]);
+                --exponent;
+            }
+        }
+        if(digits == 0) return false;
+        // Exponent part.
+        if(exponents && i < to && FPDelimiter.exponent.matches(data[i])) {
+            integral = false;
+            if(++i == to) return false;
+            final boolean negativeExponent = data[i] == '-';
+            if(negativeExponent || data[i] == '+') ++i;
+            int e = 0,eDigits = 0;
+            for(;i < to && '0' <= data[i] && data[i] <= '9';++i,++eDigits)
+                if(e < MAX_EXPONENT) e = e * 10 + data[i] - '0';
+            if(eDigits == 0) return false;
+            exponent += negativeExponent? -e : e;
+        }
+        end = i;
+        return true;
+    }
+    private void accumulate(final char c) {
+        final int digit = c - '0';
+        if(overflow || value < Long.MIN_VALUE / 10L || (value *= 10L) < Long.MIN_VALUE + digit)
+            overflow = true;
+        else value -= digit;
+    }
+    /**
+     * Scans a number starting at the iterator's current character.
+     * 
+     * @param i         An iterator which points to the number's first character.
+     * @param exponents <code>true</code> iff the exponent part is recognized.
+     * 
+     * @return <code>true</code> iff a well-formed number was found. In this case,
+     *         the iterator points to the character after the number. Otherwise,
+     *         the iterator's position is unspecified.
+     */
+    public boolean lex(final SequenceIterator i,final boolean exponents) {
+        if(i instanceof ForwardSequenceIterator f) return f.lex(this,exponents);
+        // Copy everything which could be part of a number, then scan the copy.
+        final int from = i.index();
+        if(scratch == null) scratch = new char[32];
+        int n = 0;
+        for(int c = i.peekChar();c != SequenceIterator.EOF && isNumberChar((char)c);c = i.nextChar()) {
+            if(n == scratch.length) scratch = Arrays.copyOf(scratch,n * 2);
+            scratch[n++] = (char)c;
+        }
+        if(!lex(scratch,0,n,exponents)) return false;
+        if(end != n) i.jumpTo(from + end);
+        return true;
+    }
+    private static boolean isNumberChar(final char c) {
+        return '0' <= c && c <= '9' || c == '+' || c == '-' ||
+               FPDelimiter.fraction.matches(c) || FPDelimiter.exponent.matches(c);
+    }
+    
+    /**@return The index after the last character of the scanned number.*/
+    public int end() {return end;}
+    /**@return The number of characters in the scanned number.*/
+    public int length() {return end - start;}
+    /**@return <code>true</code> iff the number has neither a fractional nor an exponent part.*/
+    public boolean isIntegral() {return integral;}
+    /**@return <code>true</code> iff the number is integral and fits in a <code>long</code>.*/
+    public boolean fitsLong() {return integral && !overflow && (negative || value != Long.MIN_VALUE);}
+    /**@return The integral value. Only meaningful if {@linkplain #fitsLong()} is <code>true</code>.*/
+    public long longValue() {return negative? value : -value;}
+    /**
+     * @return The value as a <code>double</code>, correctly rounded. Values whose
+     *         digits fit in the mantissa and whose exponent is small are computed
+     *         directly; others are delegated to {@linkplain Double#parseDouble(String)}.
+     */
+    public double doubleValue() {
+        if(!overflow && -MAX_EXACT_DOUBLE <= value && -POW10.length < exponent && exponent < POW10.length) {
+            // Both operands are exact, so a single operation rounds correctly.
+            final double m = -value,d = exponent < 0? m / POW10[-exponent] : m * POW10[exponent];
+            return negative? -d : d;
+        }
+        return Double.parseDouble(new String(data,start,end - start));
+    }
+    /**
+     * @return The value as a <code>float</code>, correctly rounded.
+     * 
+     * @see #doubleValue()
+     */
+    public float floatValue() {
+        if(!overflow && -MAX_EXACT_FLOAT <= value && -POW10F.length < exponent && exponent < POW10F.length) {
+            final float m = -value,f = exponent < 0? m / POW10F[-exponent] : m * POW10F[exponent];
+            return negative? -f : f;
+        }
+        return Float.parseFloat(new String(data,start,end - start));
+    }
+}
@@ -2,13 +2,23 @@ package util.string;
 
 import java.util.Iterator;
 
-import java.io.EOFException;
 import java.io.File;
 import java.io.IOException;
-import java.io.RandomAccessFile;
 import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.nio.ByteBuffer;
 import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import nbt.value.NBTString;
 import nbt.value.collection.NBTArray;
 import nbt.value.collection.NBTObject;
@@ -33,6 +43,12 @@ public class Sequence implements CharSequence,Comparable<Sequence>,Iterable<Char
     
     private final char[] data;
     private final int start,end;
+    /**
+     * Cached hash code, which is only valid if non-zero or if
+     * {@linkplain #hashIsZero} is set.
+     */
+    private int hash;
+    private boolean hashIsZero;
     
     /**Creates an empty sequence.*/
     public Sequence() {
@@ -228,6 +244,57 @@ public class Sequence implements CharSequence,Comparable<Sequence>,Iterable<Char
         public SequenceIterator jumpTo(final int index);
         /**Offsets the current position.*/
         public SequenceIterator jumpOffset(final int offset);
+        
+        /**
+         * The value returned by the primitive cursor methods in place of
+         * <code>null</code>. It is distinct from every <code>char</code>.
+         */
+        public static final int EOF = -1;
+        /**@return The argument as a primitive character, or {@linkplain #EOF} if it is <code>null</code>.*/
+        public static int unboxed(final Character c) {return c == null? EOF : c;}
+        /**@return The argument as a boxed character, or <code>null</code> if it is {@linkplain #EOF}.*/
+        public static Character boxed(final int c) {return c == EOF? null : (char)c;}
+        /**
+         * @param c          A character returned by a primitive cursor method.
+         * @param terminator A character which marks the end of a structure.
+         *                   <code>null</code> indicates the end of the sequence.
+         * @param commas     <code>true</code> iff commas are allowed to terminate a
+         *                   value.
+         * 
+         * @return <code>true</code> iff the character ends a value.
+         */
+        public static boolean terminates(final int c,final Character terminator,final boolean commas) {
+            return commas && c == ',' || c == unboxed(terminator);
+        }
+        
+        /**@return The primitive equivalent of {@linkplain #next()}.*/
+        public default int nextChar() {return unboxed(next());}
+        /**@return The primitive equivalent of {@linkplain #peek()}.*/
+        public default int peekChar() {return unboxed(peek());}
+        /**@return The primitive equivalent of {@linkplain #nextNonWS()}.*/
+        public default int nextNonWSChar() {return unboxed(nextNonWS());}
+        /**@return The primitive equivalent of {@linkplain #skipWS()}.*/
+        public default int skipWSChar() {return unboxed(skipWS());}
+        
+        /**
+         * @return The characters in the range <code>[from,to)</code>. Iterators
+         *         which discard their input throw an
+         *         {@linkplain IndexOutOfBoundsException} if the range is no longer
+         *         available.
+         */
+        public default Sequence subSequence(final int from,final int to) {return getParent().subSequence(from,to);}
+        /**
+         * @return Up to <code>before</code> characters preceding the cursor, followed
+         *         by the character at the cursor.
+         */
+        public default Sequence context(final int before) {
+            final Sequence p = getParent();
+            final int i = index();
+            return p.subSequence(
+                Math.min(Math.max(i - before,0),p.length()),
+                Math.min(Math.max(i + 1,0),p.length())
+            );
+        }
     }
     /**An abstract base class for directionless traversal over a known sequence.*/
     private static abstract class SI implements SequenceIterator {
@@ -274,6 +341,13 @@ public class Sequence implements CharSequence,Comparable<Sequence>,Iterable<Char
             if(!Character.isWhitespace(s.data[cursor])) return s.data[cursor];
             return nextNonWS();
         }
+        @Override
+        public int skipWSChar() {
+            if(rangeCheck()) return EOF;
+            advanceFirst();
+            if(!Character.isWhitespace(s.data[cursor])) return s.data[cursor];
+            return nextNonWSChar();
+        }
         /**@return The sequence being iterated over.*/
         public Sequence getParent() {return s;}
         /**@return Saves the current position.*/
@@ -310,7 +384,20 @@ public class Sequence implements CharSequence,Comparable<Sequence>,Iterable<Char
             while(++cursor < end && Character.isWhitespace(data[cursor]));
             return cursor < end? data[cursor] : null;
         }
+        @Override public int nextChar() {return ++cursor < end? data[cursor] : EOF;}
+        @Override public int peekChar() {return cursor < start || cursor >= end? EOF : data[cursor];}
+        @Override
+        public int nextNonWSChar() {
+            while(++cursor < end && Character.isWhitespace(data[cursor]));
+            return cursor < end? data[cursor] : EOF;
+        }
         @Override public Sequence subSequence() {return new Sequence(mark,cursor,data);}
+        /**Scans a number directly from the backing array.*/
+        boolean lex(final NumberLexer l,final boolean exponents) {
+            if(!l.lex(data,cursor,end,exponents)) return false;
+            cursor = l.end();
+            return true;
+        }
         
         @Override public String toString() {return new String(data,cursor,end-cursor);}
     }
@@ -471,6 +558,23 @@ public class Sequence implements CharSequence,Comparable<Sequence>,Iterable<Char
         );
         return offset + l;
     }
+    /**
+     * Appends this sequence to an {@linkplain Appendable}. Writers, builders and
+     * character buffers receive the characters in bulk, without creating a
+     * {@linkplain String}.
+     * 
+     * @return <code>out</code>
+     * 
+     * @throws IOException The characters could not be appended.
+     */
+    public <A extends Appendable> A writeTo(final A out) throws IOException {
+        final int l = length();
+        if(out instanceof Writer w) w.write(data,start,l);
+        else if(out instanceof StringBuilder b) b.append(data,start,l);
+        else if(out instanceof CharBuffer b) b.put(data,start,l);
+        else out.append(this);
+        return out;
+    }
     
     /**@return A sequence containing the entire contents of the backing array.*/
     public Sequence getSharedSequence() {return new Sequence(data);}
@@ -485,18 +589,43 @@ public class Sequence implements CharSequence,Comparable<Sequence>,Iterable<Char
     
     @Override
     public int compareTo(final Sequence o) {
+        if(o == this || o.data == data && o.start == start && o.end == end) return 0;
         return java.util.Arrays.compare(
             data,start,end,
             o.data,o.start,o.end
         );
     }
     /**@see #equals(Object)*/
-    public boolean equals(final Sequence o) {return compareTo(o) == 0;}
+    public boolean equals(final Sequence o) {
+        if(o == this) return true;
+        if(o == null || o.length() != length()) return false;
+        if(o.data == data && o.start == start) return true;
+        // Sequences with different cached hashes can't be equal.
+        if((hash != 0 || hashIsZero) && (o.hash != 0 || o.hashIsZero) && hash != o.hash) return false;
+        return java.util.Arrays.equals(
+            data,start,end,
+            o.data,o.start,o.end
+        );
+    }
     @Override
     public boolean equals(final Object obj) {
-        return obj == this || (obj.getClass() == Sequence.class) && equals((Sequence)obj);
+        return obj == this || obj != null && obj.getClass() == Sequence.class && equals((Sequence)obj);
+    }
+    /**
+     * Computes the hash code in the same way as {@linkplain String#hashCode()}.
+     * The result is cached, so the characters of a sequence must not be modified
+     * after its hash code is first requested.
+     */
+    @Override
+    public int hashCode() {
+        int h = hash;
+        if(h == 0 && !hashIsZero) {
+            for(int i = start;i < end;++i) h = 31 * h + data[i];
+            if(h == 0) hashIsZero = true;
+            else hash = h;
+        }
+        return h;
     }
-    @Override public int hashCode() {return new String(data,start,end).hashCode();}
     
     /**
      * @return The largest sub-sequence starting from at least the second index
@@ -646,7 +775,7 @@ public class Sequence implements CharSequence,Comparable<Sequence>,Iterable<Char
             !indices.empty();
         ) {
             final int j = indices.pop();
-            if(j < k) throw new IllegalArgumentException("Indices must be in descending order.");
+            if(j >= k) throw new IllegalArgumentException("Indices must be in descending order.");
             out[--i] = new Sequence(j+1,k,data);
             k = j;
         }
@@ -658,7 +787,7 @@ public class Sequence implements CharSequence,Comparable<Sequence>,Iterable<Char
      */
     public static Character mapToClose(final char c) {
         return NBTString.isStringWrapper(c)
-            ? c
+            ? Character.valueOf(c)
             : switch(c) {
                 case NBTObject.OPEN -> NBTObject.CLOSE;
                 case NBTArray .OPEN -> NBTArray .CLOSE;
@@ -882,158 +1011,313 @@ public class Sequence implements CharSequence,Comparable<Sequence>,Iterable<Char
         return new Sequence(out);
     }
     
-    /**A {@linkplain SequenceIterator} which reads directly from a file.*/
+    /**
+     * A {@linkplain SequenceIterator} which reads UTF-16 (big-endian) text
+     * directly from a memory-mapped file. Large files are mapped in windows,
+     * which are replaced as the cursor moves. The cursor behaves like that of a
+     * {@linkplain ForwardSequenceIterator}.
+     * <p>
+     * The file is not locked, so it should not be modified while it is being
+     * read.
+     */
     public static class SequenceFileIterator implements SequenceIterator,AutoCloseable {
         private static void ioe(final IOException e) {throw new UncheckedIOException(e);}
+        /**The number of characters in each mapped window.*/
+        private static final int WINDOW = 1 << 28;
         
-        private final RandomAccessFile in;
-        private long mark = 0L;
+        private final FileChannel channel;
+        /**The number of characters in the file.*/
+        private final int end;
+        private CharBuffer window;
+        /**The index of the first character in the current window.*/
+        private int windowStart;
+        private int cursor = -1,mark = -1;
+        private Sequence parent = null;
         
         /**
          * Creates a new sequence file iterator.
          * 
-         * @throws IOException The file is too large (<code>f.length() >= 2^32</code>)
-         *                     or could not be opened.
+         * @throws IOException The file is too large (<code>f.length() >= 2^32</code>),
+         *                     has an odd number of bytes, or could not be opened.
          */
         public SequenceFileIterator(final File f) throws IOException {
-            if(f.length() > Integer.MAX_VALUE)
-                throw new IOException(
-                    "File is too large (%d >= 1 << 31)."
-                    .formatted(f.length())
-                );
-            if((f.length() & 1) != 0)
-                throw new IOException("File has an odd number of bytes.");
-            in = new RandomAccessFile(f,"r");
-            in.getChannel().lock();
+            channel = FileChannel.open(f.toPath(),StandardOpenOption.READ);
+            try {
+                final long size = channel.size();
+                if(size >>> 1 > Integer.MAX_VALUE)
+                    throw new IOException(
+                        "File is too large (%d >= 1 << 32)."
+                        .formatted(size)
+                    );
+                if((size & 1L) != 0L)
+                    throw new IOException("File has an odd number of bytes.");
+                end = (int)(size >>> 1);
+                map(0);
+            } catch(final IOException e) {
+                channel.close();
+                throw e;
+            }
         }
         
-        @Override
-        public boolean hasNext() {
-            try {return in.getFilePointer() < in.length();}
+        /**Maps the window which contains the specified character.*/
+        private void map(final int index) {
+            windowStart = index - index % WINDOW;
+            final int length = Math.min(WINDOW,end - windowStart);
+            try {window = channel.map(MapMode.READ_ONLY,windowStart * 2L,length * 2L).asCharBuffer();}
             catch(final IOException e) {ioe(e);}
-            return false;
         }
-        @Override
-        public Character next() {
-            if(hasNext()) {
-                try {return in.readChar();}
-                catch(final IOException e) {ioe(e);}
+        /**@return The character at the specified index, which must be in range.*/
+        private char at(final int index) {
+            if(index < windowStart || index - windowStart >= window.limit()) map(index);
+            return window.get(index - windowStart);
+        }
+        /**@return The characters in the specified range.*/
+        private char[] copy(final int from,final int to) {
+            final char[] out = new char[to - from];
+            for(int i = from;i < to;) {
+                at(i);
+                final int w = i - windowStart,n = Math.min(to - i,window.limit() - w);
+                window.get(w,out,i - from,n);
+                i += n;
             }
-            return null;
+            return out;
         }
+        private int clamp(final int index) {return Math.max(Math.min(index,end),0);}
+        
+        @Override public boolean hasNext() {return cursor < end - 1;}
+        @Override public Character next() {return SequenceIterator.boxed(nextChar());}
+        @Override public int nextChar() {return ++cursor < end? at(cursor) : EOF;}
         
-        @Override public Character peek() {return peek(0);}
+        @Override public Character peek() {return SequenceIterator.boxed(peekChar());}
+        @Override public int peekChar() {return cursor < 0 || cursor >= end? EOF : at(cursor);}
         @Override
         public Character peek(final int offset) {
-            final long pos;
-            {
-                long p = 0;
-                try {p = in.getFilePointer();}
-                catch(final IOException e) {ioe(e);}
-                pos = p;
-            }
-            Character c = null;
-            try {in.seek(pos + 2 * offset); c = in.readChar();}
-            catch(final EOFException e) {} // EOF is acceptable.
-            catch(final IOException e) {ioe(e);}
-            try {in.seek(pos);} catch(final IOException e) {ioe(e);}
-            return c;
+            return cursor < 0 || end == 0? null : at(Math.min(clamp(cursor + offset),end - 1));
         }
         @Override
         public Character peekNextNonWS() {
-            final long pos;
-            {
-                long p = 0;
-                try {p = in.getFilePointer();}
-                catch(final IOException e) {ioe(e);}
-                pos = p;
-            }
-            final Character c = nextNonWS();
-            try {in.seek(pos);} catch(final IOException e) {ioe(e);}
-            return c;
+            int temp = cursor;
+            while(++temp < end && Character.isWhitespace(at(temp)));
+            return temp < end? at(temp) : null;
         }
         
+        @Override public int index() {return cursor;}
+        
+        @Override public Character nextNonWS() {return SequenceIterator.boxed(nextNonWSChar());}
+        @Override public Character skipWS() {return SequenceIterator.boxed(skipWSChar());}
         @Override
-        public int index() {
-            try {return (int)(in.getFilePointer() / 2L);}
-            catch(final IOException e) {ioe(e);}
-            return Integer.MAX_VALUE;
+        public int nextNonWSChar() {
+            while(++cursor < end && Character.isWhitespace(at(cursor)));
+            return cursor < end? at(cursor) : EOF;
         }
-        
-        @Override public Character nextNonWS() {return next() == null? null : skipWS();}
         @Override
-        public Character skipWS() {
-            Character c = null;
-            while((c = next()) != null && Character.isWhitespace(c));
-            return c;
+        public int skipWSChar() {
+            if(cursor < 0) cursor = 0;
+            if(cursor >= end) return EOF;
+            final char c = at(cursor);
+            return Character.isWhitespace(c)? nextNonWSChar() : c;
         }
         
+        /**@return The contents of the file. The result is cached.*/
         @Override
         public Sequence getParent() {
-            final int l0,l1;
-            {
-                long nl = 0L;
-                try {nl = in.length();}
-                catch(final IOException e) {ioe(e);}
-                l0 = (int)nl;
-                l1 = (int)(nl >>> 1);
-            }
-            System.gc();
-            final char[] out = new char[l1];
-            {
-                final ByteBuffer bb = ByteBuffer.allocateDirect(l0);
-                try {in.getChannel().position(0L).read(bb);}
-                catch(final IOException e) {ioe(e);}
-                CharBuffer.wrap(out).put(bb.asCharBuffer());
-            }
-            System.gc();
-            return new Sequence(out);
+            if(parent == null) parent = new Sequence(copy(0,end));
+            return parent;
         }
         
+        @Override public void mark() {mark = cursor;}
+        @Override public void mark(final int offset) {mark = clamp(cursor + offset);}
         @Override
-        public void mark() {
-            try {mark = in.getFilePointer();}
-            catch(final IOException e) {ioe(e);}
+        public Sequence subSequence() {
+            final int to = clamp(cursor);
+            return new Sequence(copy(Math.min(clamp(mark),to),to));
         }
+        
         @Override
-        public void mark(final int offset) {
-            mark();
-            mark += offset * 2L;
+        public SequenceFileIterator jumpTo(final int index) {
+            final int i = index < 0? end + index : index;
+            if(i < 0 || end < i)
+                throw new IndexOutOfBoundsException(
+                    "Attempted to access index %d from sequence of length %d."
+                    .formatted(index,end)
+                );
+            cursor = i;
+            return this;
         }
+        @Override public SequenceFileIterator jumpOffset(final int offset) {cursor += offset; return this;}
+        
         @Override
-        public Sequence subSequence() {
-            final long l;
-            {
-                long l2 = 0L;
-                try {l2 = in.length() - mark;}
-                catch(final IOException e) {ioe(e);}
-                l = l2;
-            }
-            System.gc();
-            final char[] out = new char[(int)(l >>> 1)];
-            {
-                final ByteBuffer bb = ByteBuffer.allocateDirect((int)l);
-                try {in.getChannel().position(mark).read(bb);}
-                catch(final IOException e) {ioe(e);}
-                CharBuffer.wrap(out).put(bb.asCharBuffer());
+        public void close() throws IOException {
+            window = null;
+            parent = null;
+            channel.close();
+        }
+    }
+    
+    /**
+     * A {@linkplain SequenceIterator} which decodes text from a byte channel in
+     * chunks as it is read. Only a bounded window of the decoded characters is
+     * kept: the characters after the {@linkplain #mark() mark} until the next call
+     * to {@linkplain #subSequence()}, plus {@value #LOOKBEHIND} characters before
+     * the cursor so that speculative parses can rewind. Accessing anything earlier
+     * throws an {@linkplain IndexOutOfBoundsException}. The cursor otherwise
+     * behaves like that of a {@linkplain ForwardSequenceIterator}.
+     * <p>
+     * Malformed input is reported as an {@linkplain UncheckedIOException} caused by
+     * a {@linkplain CharacterCodingException}.
+     */
+    public static class SequenceStreamIterator implements SequenceIterator,AutoCloseable {
+        /**The number of bytes read from the channel at once.*/
+        private static final int CHUNK = 1 << 16;
+        /**The number of characters before the cursor which are always kept.*/
+        public static final int LOOKBEHIND = 1 << 12;
+        
+        private final ReadableByteChannel channel;
+        private final CharsetDecoder decoder;
+        private final ByteBuffer bytes = ByteBuffer.allocate(CHUNK);
+        /**The decoded characters, which are valid in the range <code>[0,size)</code>.*/
+        private char[] buf = new char[CHUNK];
+        private CharBuffer window = CharBuffer.wrap(buf);
+        /**The index of the first character in the buffer.*/
+        private int base = 0,size = 0;
+        private boolean endOfInput = false,eof = false;
+        private int cursor = -1,mark = -1;
+        /**<code>true</code> iff the characters after the mark must be kept.*/
+        private boolean pinned = false;
+        
+        /**
+         * Creates an iterator which decodes a channel. The channel is closed by
+         * {@linkplain #close()}.
+         */
+        public SequenceStreamIterator(final ReadableByteChannel channel,final Charset charset) {
+            this.channel = channel;
+            decoder = charset.newDecoder()
+                             .onMalformedInput(CodingErrorAction.REPORT)
+                             .onUnmappableCharacter(CodingErrorAction.REPORT);
+        }
+        /**
+         * Creates an iterator which decodes a file.
+         * 
+         * @throws IOException The file could not be opened.
+         */
+        public SequenceStreamIterator(final Path path,final Charset charset) throws IOException {
+            this(FileChannel.open(path,StandardOpenOption.READ),charset);
+        }
+        /**
+         * Creates an iterator which decodes a UTF-8 file.
+         * 
+         * @throws IOException The file could not be opened.
+         */
+        public SequenceStreamIterator(final Path path) throws IOException {this(path,StandardCharsets.UTF_8);}
+        
+        /**Discards unreachable characters, then decodes at least one more character if possible.*/
+        private void fill() {
+            final int keep = Math.max(Math.min(cursor - LOOKBEHIND,pinned? mark : cursor),base);
+            if(keep > base) {
+                System.arraycopy(buf,keep - base,buf,0,size -= keep - base);
+                base = keep;
             }
-            return new Sequence(out);
+            if(buf.length - size < LOOKBEHIND) window = CharBuffer.wrap(buf = java.util.Arrays.copyOf(buf,buf.length * 2));
+            window.clear().position(size);
+            try {
+                while(window.position() == size && !eof) {
+                    if(!endOfInput && channel.read(bytes) == -1) endOfInput = true;
+                    bytes.flip();
+                    final CoderResult r = decoder.decode(bytes,window,endOfInput);
+                    bytes.compact();
+                    if(r.isError()) r.throwException();
+                    if(endOfInput && r.isUnderflow() && decoder.flush(window).isUnderflow()) eof = true;
+                }
+            } catch(final IOException e) {throw new UncheckedIOException(e);}
+            size = window.position();
         }
-
+        /**@return <code>true</code> iff the character at the specified index exists.*/
+        private boolean has(final int index) {
+            while(index >= base + size && !eof) fill();
+            return index < base + size;
+        }
+        /**@throws IndexOutOfBoundsException The index has already been discarded.*/
+        private int check(final int index) throws IndexOutOfBoundsException {
+            if(index < base)
+                throw new IndexOutOfBoundsException(
+                    "Index %d has already been discarded (the earliest is %d)."
+                    .formatted(index,base)
+                );
+            return index;
+        }
+        /**@return The character at the specified index, which must exist.*/
+        private char at(final int index) {return buf[check(index) - base];}
+        
+        @Override public boolean hasNext() {return has(cursor + 1);}
+        @Override public Character next() {return SequenceIterator.boxed(nextChar());}
+        @Override public int nextChar() {return has(++cursor)? at(cursor) : EOF;}
+        
+        @Override public Character peek() {return SequenceIterator.boxed(peekChar());}
+        @Override public int peekChar() {return cursor >= 0 && has(cursor)? at(cursor) : EOF;}
         @Override
-        public SequenceFileIterator jumpTo(final int index) {
-            try {in.seek(index * 2);}
-            catch(final IOException e) {ioe(e);}
-            return this;
+        public Character peek(final int offset) {
+            final int i = Math.max(cursor + offset,0);
+            return cursor >= 0 && has(i)? at(i) : null;
         }
         @Override
-        public SequenceFileIterator jumpOffset(final int offset) {
-            try {in.seek(in.getFilePointer() + offset * 2);}
-            catch(final IOException e) {ioe(e);}
-            return this;
+        public Character peekNextNonWS() {
+            int temp = cursor;
+            while(has(++temp) && Character.isWhitespace(at(temp)));
+            return has(temp)? at(temp) : null;
+        }
+        
+        @Override public int index() {return cursor;}
+        
+        @Override public Character nextNonWS() {return SequenceIterator.boxed(nextNonWSChar());}
+        @Override public Character skipWS() {return SequenceIterator.boxed(skipWSChar());}
+        @Override
+        public int nextNonWSChar() {
+            while(has(++cursor) && Character.isWhitespace(at(cursor)));
+            return has(cursor)? at(cursor) : EOF;
+        }
+        @Override
+        public int skipWSChar() {
+            if(cursor < 0) cursor = 0;
+            if(!has(cursor)) return EOF;
+            final char c = at(cursor);
+            return Character.isWhitespace(c)? nextNonWSChar() : c;
         }
         
-        @Override public void close() throws IOException {in.close();}
+        /**
+         * @throws UnsupportedOperationException Always, because the input is not
+         *                                       retained.
+         */
+        @Override
+        public Sequence getParent() {
+            throw new UnsupportedOperationException("A stream iterator does not retain its input.");
+        }
+        @Override
+        public Sequence subSequence(final int from,final int to) {
+            has(to - 1);
+            final int end = Math.min(to,base + size);
+            check(from);
+            return new Sequence(java.util.Arrays.copyOfRange(buf,from - base,Math.max(end,from) - base));
+        }
+        @Override
+        public Sequence context(final int before) {
+            final int from = Math.max(cursor - before,base),to = Math.max(Math.min(cursor + 1,base + size),from);
+            return new Sequence(java.util.Arrays.copyOfRange(buf,from - base,to - base));
+        }
+        
+        @Override public void mark() {mark = cursor; pinned = true;}
+        @Override public void mark(final int offset) {mark = Math.max(cursor + offset,0); pinned = true;}
+        /**Releases the mark, so the characters after it may be discarded.*/
+        @Override
+        public Sequence subSequence() {
+            pinned = false;
+            return subSequence(Math.max(mark,0),cursor);
+        }
+        
+        @Override
+        public SequenceStreamIterator jumpTo(final int index) {cursor = check(index); return this;}
+        @Override public SequenceStreamIterator jumpOffset(final int offset) {return jumpTo(cursor + offset);}
+        
+        @Override public void close() throws IOException {channel.close();}
     }
 }
 /*
@@ -1,5 +1,7 @@
 package util.string;
 
+import java.io.IOException;
+import util.string.outline.OutlineWriter;
 import util.string.outline.Segment;
 
 /**
@@ -27,4 +29,29 @@ public interface Stringifiable {
     
     /**@return An outline segment representation of this object.*/
     public Segment toSegment();
+    /**
+     * Describes the outline representation to a writer. The default
+     * implementation describes {@linkplain #toSegment()}; implementations should
+     * describe themselves directly so that large objects can be written without
+     * building a segment tree.
+     * 
+     * @throws IOException The writer's output could not be written.
+     */
+    public default void outline(final OutlineWriter w) throws IOException {toSegment().outline(w);}
+    /**
+     * Writes the outline representation to an {@linkplain Appendable} as it is
+     * produced.
+     * 
+     * @return <code>out</code>
+     * 
+     * @throws IOException The output could not be written.
+     * 
+     * @see Segment#concat()
+     */
+    public default <A extends Appendable> A writeOutline(final A out) throws IOException {
+        final OutlineWriter w = new OutlineWriter(out);
+        outline(w);
+        w.finish();
+        return out;
+    }
 }
\ No newline at end of file
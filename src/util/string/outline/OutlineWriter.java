@@ -0,0 +1,455 @@
+package util.string.outline;
+
+import java.io.IOException;
+import settings.Settings;
+import util.container.Queue;
+import util.container.Stack;
+import util.string.Sequence;
+
+/**
+ * Prints an outline while it is being described, without building a tree of
+ * {@linkplain Segment}s. An outline is described by nesting
+ * {@linkplain #wrap(Sequence,Sequence) wraps} and
+ * {@linkplain #join(Sequence) joins} around {@linkplain #value(Sequence) values},
+ * each of which is closed by {@linkplain #end()}. The output is identical to that
+ * of the equivalent segments.
+ * <p>
+ * Whether a wrap or join is folded depends only on its own contents, so output
+ * is written as soon as every enclosing wrap and join has been decided. Only the
+ * outermost undecided one is buffered, and it is expanded as soon as it exceeds
+ * its character limit. Without a character limit, a join is buffered until it
+ * either exceeds its child limit or ends.
+ * <p>
+ * Instances are not thread-safe.
+ * 
+ * @author prgmTrouble
+ * @author AzureTriple
+ */
+public class OutlineWriter {
+    private static final byte UNDECIDED = 0,FOLDED = 1,EXPANDED = 2;
+    
+    /**An open wrap or join.*/
+    private static final class Frame {
+        final Frame parent;
+        final boolean join;
+        final Sequence openFolded,openExpanded,closeFolded,closeExpanded,indent,separator;
+        final int charLimit,childLimit;
+        byte state = UNDECIDED;
+        /**The size of this frame if it is folded.*/
+        long size;
+        int children = 0;
+        /**The open child frame, if any.*/
+        Frame child = null;
+        
+        /**The number of children which have been written.*/
+        int written = 0;
+        /**The size and number of children of the current line of an expanded join.*/
+        int lineSize = 0,lineItems = 0,onLine = 0;
+        boolean previousExpanded = false;
+        /**
+         * <code>true</code> iff this is an expanded join whose placement waits for
+         * its first line to end.
+         */
+        boolean deferred = false;
+        /**The length of the capture when this join began.*/
+        int mark;
+        
+        Frame(final Frame parent,final boolean join,
+              final Sequence openFolded,final Sequence openExpanded,
+              final Sequence closeFolded,final Sequence closeExpanded,
+              final Sequence indent,final Sequence separator,
+              final int charLimit,final int childLimit) {
+            this.parent = parent;
+            this.join = join;
+            this.openFolded = openFolded;
+            this.openExpanded = openExpanded;
+            this.closeFolded = closeFolded;
+            this.closeExpanded = closeExpanded;
+            this.indent = indent;
+            this.separator = separator;
+            this.charLimit = charLimit;
+            this.childLimit = childLimit;
+            size = openFolded.length() + closeFolded.length();
+        }
+    }
+    /**A buffered event.*/
+    private static final class Token {
+        /**The frame which begins or ends, or the parent of the value.*/
+        final Frame frame;
+        /**The value, or <code>null</code> if a frame begins or ends.*/
+        final Sequence value;
+        final boolean end;
+        Token(final Frame frame,final Sequence value,final boolean end) {
+            this.frame = frame;
+            this.value = value;
+            this.end = end;
+        }
+    }
+    
+    private final Appendable out;
+    private final Sequence indent;
+    private final int charLimit,childLimit;
+    
+    private final Queue<Token> buffer = new Queue<>();
+    /**The innermost open frame.*/
+    private Frame top = null;
+    /**The outermost open frame which is undecided.*/
+    private Frame undecided = null;
+    /**The innermost expanded frame which is being written.*/
+    private Frame writing = null;
+    private boolean rooted = false;
+    
+    /**The outermost deferred join, if any.*/
+    private Frame pending = null;
+    /**The text written since the outermost deferred join began.*/
+    private final StringBuilder capture = new StringBuilder();
+    /**The indentation of the current line.*/
+    private final StringBuilder prefix = new StringBuilder();
+    private boolean pendingBreak = true,first = true;
+    
+    /**
+     * Creates an outline writer which uses the default limits and indentation.
+     * 
+     * @see Settings#defaultFoldedCharLimit()
+     * @see Settings#defaultFoldedChildLimit()
+     * @see Settings#defaultIndent()
+     */
+    public OutlineWriter(final Appendable out) {
+        this(out,Settings.defaultFoldedCharLimit(),Settings.defaultFoldedChildLimit(),Settings.defaultIndent());
+    }
+    /**
+     * Creates an outline writer.
+     * 
+     * @param out        The destination.
+     * @param charLimit  The default maximum number of characters per folded line
+     *                   (unsigned).
+     * @param childLimit The default maximum number of children per folded line.
+     * @param indent     The default indentation.
+     */
+    public OutlineWriter(final Appendable out,final int charLimit,final int childLimit,final Sequence indent) {
+        this.out = out;
+        this.charLimit = charLimit;
+        this.childLimit = childLimit;
+        this.indent = indent == null? Sequence.EMPTY : indent;
+    }
+    
+    /**
+     * Writes a value. Leading and trailing whitespace is removed.
+     * 
+     * @return <code>this</code>
+     * 
+     * @throws IOException The output could not be written.
+     * 
+     * @see ValueSegment
+     */
+    public OutlineWriter value(Sequence value) throws IOException {
+        value = value == null || (value = value.stripLeading()).isEmpty()? Sequence.EMPTY : value.stripTailing();
+        child(value.length());
+        buffer.push(new Token(top,value,false));
+        return drain();
+    }
+    /**
+     * Begins a wrap, which holds at most one child.
+     * 
+     * @return <code>this</code>
+     * 
+     * @throws IOException The output could not be written.
+     * 
+     * @see WrappingSegment#WrappingSegment(Sequence,Sequence)
+     */
+    public OutlineWriter wrap(final Sequence open,final Sequence close) throws IOException {
+        return wrap(open,open,close,close,indent,charLimit);
+    }
+    /**
+     * Begins a wrap, which holds at most one child. <code>null</code> sequences
+     * are empty.
+     * 
+     * @return <code>this</code>
+     * 
+     * @throws IOException The output could not be written.
+     * 
+     * @see WrappingSegment#WrappingSegment(Sequence,Sequence,Sequence,Sequence)
+     */
+    public OutlineWriter wrap(final Sequence openFolded,final Sequence openExpanded,
+                              final Sequence closeFolded,final Sequence closeExpanded,
+                              final Sequence indent,final int charLimit)
+                              throws IOException {
+        return begin(new Frame(
+            top,false,
+            orEmpty(openFolded),orEmpty(openExpanded),
+            orEmpty(closeFolded),orEmpty(closeExpanded),
+            orEmpty(indent),Sequence.EMPTY,
+            charLimit,0
+        ));
+    }
+    /**
+     * Begins a join, which separates its children.
+     * 
+     * @return <code>this</code>
+     * 
+     * @throws IOException The output could not be written.
+     * 
+     * @see JoiningSegment
+     */
+    public OutlineWriter join(final Sequence separator) throws IOException {
+        return join(separator,charLimit,childLimit);
+    }
+    /**
+     * Begins a join, which separates its children. A <code>null</code> separator
+     * is empty.
+     * 
+     * @return <code>this</code>
+     * 
+     * @throws IOException The output could not be written.
+     * 
+     * @see JoiningSegment
+     */
+    public OutlineWriter join(final Sequence separator,final int charLimit,final int childLimit) throws IOException {
+        return begin(new Frame(
+            top,true,
+            Sequence.EMPTY,Sequence.EMPTY,Sequence.EMPTY,Sequence.EMPTY,Sequence.EMPTY,
+            orEmpty(separator),charLimit,childLimit
+        ));
+    }
+    /**
+     * Ends the innermost wrap or join.
+     * 
+     * @return <code>this</code>
+     * 
+     * @throws IOException           The output could not be written.
+     * @throws IllegalStateException Nothing is open.
+     */
+    public OutlineWriter end() throws IOException,IllegalStateException {
+        final Frame f = top;
+        if(f == null) throw new IllegalStateException("No wrap or join is open.");
+        if(f.state == UNDECIDED) {
+            f.state = FOLDED;
+            if(undecided == f) undecided = null;
+        }
+        if((top = f.parent) != null) top.child = null;
+        buffer.push(new Token(f,null,true));
+        return drain();
+    }
+    /**
+     * Writes everything which is still buffered.
+     * 
+     * @throws IOException           The output could not be written.
+     * @throws IllegalStateException A wrap or join is still open.
+     */
+    public void finish() throws IOException,IllegalStateException {
+        if(top != null) throw new IllegalStateException("A wrap or join is still open.");
+        drain();
+    }
+    
+    private static Sequence orEmpty(final Sequence s) {return s == null? Sequence.EMPTY : s;}
+    
+    /**Adds a child of the specified size to the innermost frame.*/
+    private void child(final int size) {
+        final Frame p = top;
+        if(p == null) {
+            if(rooted) throw new IllegalStateException("The outline already has a root.");
+            rooted = true;
+            return;
+        }
+        if(p.children != 0) {
+            if(!p.join) throw new IllegalStateException("A wrap can only have one child.");
+            grow(p,p.separator.length());
+        }
+        ++p.children;
+        check(p);
+        grow(p,size);
+    }
+    private OutlineWriter begin(final Frame f) throws IOException {
+        child((int)f.size);
+        if(top != null) top.child = f;
+        top = f;
+        if(undecided == null) undecided = f;
+        buffer.push(new Token(f,null,false));
+        check(f);
+        return drain();
+    }
+    /**Adds to the size of the frame and its undecided ancestors.*/
+    private void grow(Frame f,final int n) {
+        for(;f != null && f.state == UNDECIDED;f = f.parent) {
+            f.size += n;
+            check(f);
+        }
+    }
+    /**Expands the frame if it has exceeded its limits.*/
+    private void check(final Frame f) {
+        if(
+            f.state == UNDECIDED && (
+                f.charLimit != Segment.MAX_LIMIT &&
+                Long.compareUnsigned(f.size,Integer.toUnsignedLong(f.charLimit)) > 0 ||
+                f.join && f.children > f.childLimit
+            )
+        ) {
+            // Expanded children force their parents to expand.
+            for(Frame g = f;g != null && g.state != EXPANDED;g = g.parent) g.state = EXPANDED;
+            undecided = f.child;
+        }
+    }
+    
+    /**Writes the buffered events which are no longer undecided.*/
+    private OutlineWriter drain() throws IOException {
+        while(!buffer.empty()) {
+            final Token t = buffer.top();
+            if(t.value != null) {
+                buffer.pop();
+                place(false,t.value.length());
+                text(t.value);
+            } else if(t.end) {
+                // Folded frames are consumed whole, so this frame must be expanded.
+                buffer.pop();
+                endExpanded(t.frame);
+            } else if(t.frame.state == UNDECIDED) break;
+            else {
+                buffer.pop();
+                if(t.frame.state == EXPANDED) beginExpanded(t.frame);
+                else folded(t.frame);
+            }
+        }
+        return this;
+    }
+    
+    /**
+     * Positions a child of the innermost expanded frame.
+     * 
+     * @param expanded <code>true</code> iff the child spans multiple lines.
+     * @param size     The size of the child if it is on one line.
+     */
+    private void place(final boolean expanded,final int size) throws IOException {
+        separate(writing);
+        decide(writing,expanded,size);
+    }
+    /**Writes the separator before a child of an expanded frame.*/
+    private void separate(final Frame p) throws IOException {
+        if(p == null || !p.join || p.written++ == 0) return;
+        text(p.separator);
+        p.lineSize += p.separator.length();
+        ++p.lineItems;
+        // Force line breaks after expanded children.
+        if(p.previousExpanded) {
+            lineBreak(p);
+            p.previousExpanded = false;
+        }
+    }
+    /**Decides whether a child of an expanded frame begins a new line.*/
+    private void decide(final Frame p,final boolean expanded,final int size) throws IOException {
+        if(p == null) return;
+        // Each line of a wrap's child is indented on its own line.
+        if(!p.join) {
+            breakLine();
+            prefix.append(p.indent);
+            p.written = 1;
+            return;
+        }
+        if(expanded || p.onLine == p.childLimit || p.lineSize + p.separator.length() + size >= p.charLimit) {
+            if(p.lineItems != 0) lineBreak(p);
+            p.onLine = (p.previousExpanded = expanded)? 0 : 1;
+        } else ++p.onLine;
+        ++p.lineItems;
+        p.lineSize += size;
+    }
+    private void lineBreak(final Frame p) throws IOException {
+        breakLine();
+        p.lineSize = p.lineItems = 0;
+    }
+    private void breakLine() throws IOException {
+        if(pending != null) resolve();
+        pendingBreak = true;
+    }
+    /**
+     * Places every deferred join as a child which spans multiple lines, then
+     * writes their captured first lines.
+     */
+    private void resolve() throws IOException {
+        final Stack<Frame> deferred = new Stack<>();
+        for(Frame f = writing;f != null;f = f.parent) if(f.deferred) deferred.push(f);
+        final String c = capture.toString();
+        capture.setLength(0);
+        pending = null;
+        int from = 0;
+        for(boolean outer = true;!deferred.empty();outer = false) {
+            final Frame f = deferred.pop();
+            f.deferred = false;
+            // The outermost join's placement precedes everything captured.
+            if(!outer) text(c,from,f.mark);
+            from = f.mark;
+            decide(f.parent,true,0);
+        }
+        text(c,from,c.length());
+    }
+    private void beginExpanded(final Frame f) throws IOException {
+        separate(writing);
+        if(f.join && writing != null && writing.join) {
+            // A join only spans multiple lines if it breaks one, so its
+            // placement waits until the first line ends.
+            f.deferred = true;
+            f.mark = capture.length();
+            if(pending == null) pending = f;
+        } else decide(writing,true,0);
+        writing = f;
+        if(!f.join) text(f.openExpanded);
+    }
+    private void endExpanded(final Frame f) throws IOException {
+        writing = f.parent;
+        if(!f.join) {
+            if(f.written != 0) prefix.setLength(prefix.length() - f.indent.length());
+            breakLine();
+            text(f.closeExpanded);
+        } else if(f.deferred) {
+            // The join did not break its first line.
+            f.deferred = false;
+            if(pending == f) pending = null;
+            final String c = capture.substring(f.mark);
+            capture.setLength(f.mark);
+            decide(writing,false,c.length());
+            text(c,0,c.length());
+        } else if(f.lineItems == 0) text(Sequence.EMPTY);
+    }
+    /**Writes a folded frame, whose events have all been buffered.*/
+    private void folded(final Frame f) throws IOException {
+        place(false,(int)f.size);
+        text(Sequence.EMPTY);
+        if(!f.join) text(f.openFolded);
+        for(;;) {
+            final Token t = buffer.pop();
+            if(t.value != null) {
+                separateFolded(t.frame);
+                text(t.value);
+            } else if(t.end) {
+                if(!t.frame.join) text(t.frame.closeFolded);
+                if(t.frame == f) return;
+            } else {
+                separateFolded(t.frame.parent);
+                if(!t.frame.join) text(t.frame.openFolded);
+            }
+        }
+    }
+    private void separateFolded(final Frame p) throws IOException {
+        if(p.join && p.written++ != 0) text(p.separator);
+    }
+    
+    private void text(final Sequence s) throws IOException {
+        if(pending != null) s.writeTo(capture);
+        else {
+            newLine();
+            s.writeTo(out);
+        }
+    }
+    private void text(final CharSequence s,final int from,final int to) throws IOException {
+        if(pending != null) capture.append(s,from,to);
+        else {
+            newLine();
+            out.append(s,from,to);
+        }
+    }
+    private void newLine() throws IOException {
+        if(pendingBreak) {
+            if(!first) out.append('\n');
+            first = pendingBreak = false;
+            out.append(prefix);
+        }
+    }
+}
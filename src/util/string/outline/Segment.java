@@ -1,7 +1,8 @@
 package util.string.outline;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import settings.Settings;
-import util.string.Joiner;
 import util.string.Sequence;
 
 /**
@@ -33,22 +34,22 @@ public abstract class Segment {
     }
     
     /**
-     * Determines if this segment should be expanded without considering any
-     * children.
+     * Describes this segment to an outline writer.
+     * 
+     * @throws IOException The writer's output could not be written.
      */
-    protected boolean shouldExpand() {
-        return charLimit() != MAX_LIMIT &&
-               Integer.compareUnsigned(size(),charLimit()) > 0;
-    }
-    
-    /**Determines if this Segment should expand by checking its children.*/
-    protected abstract boolean firstPass();
-    /**Converts this segment into an array of lines.*/
-    protected abstract Sequence[] secondPass();
+    public abstract void outline(final OutlineWriter w) throws IOException;
     
     /**Converts this segment into a sequence.*/
     public Sequence concat() {
-        firstPass();
-        return Joiner.join('\n',secondPass());
+        final StringBuilder out = new StringBuilder(size());
+        try {
+            final OutlineWriter w = new OutlineWriter(out);
+            outline(w);
+            w.finish();
+        } catch(final IOException e) {throw new UncheckedIOException(e);}
+        final char[] c = new char[out.length()];
+        out.getChars(0,c.length,c,0);
+        return new Sequence(c);
     }
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package util.string.outline;
 
+import java.io.IOException;
 import util.string.Sequence;
 
 /**
@@ -26,6 +27,5 @@ public class ValueSegment extends Segment {
     
     @Override public int size() {return value.length();}
     
-    @Override protected boolean firstPass() {return false;}
-    @Override protected Sequence[] secondPass() {return new Sequence[] {value};}
+    @Override public void outline(final OutlineWriter w) throws IOException {w.value(value);}
 }
\ No newline at end of file
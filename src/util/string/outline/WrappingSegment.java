@@ -1,5 +1,6 @@
 package util.string.outline;
 
+import java.io.IOException;
 import settings.Settings;
 import util.string.Sequence;
 
@@ -88,40 +89,21 @@ public class WrappingSegment extends Segment {
     
     @Override public int size() {return wrapperSize + (child == null? 0 : child.size());}
     
-    private boolean expand = false;
-    @Override
-    protected boolean firstPass() {
-        return expand = child != null && child.firstPass() || shouldExpand();
+    /**
+     * Begins this segment's wrap in an outline writer without describing the
+     * child. The wrap must be ended with {@linkplain OutlineWriter#end()}.
+     * 
+     * @return <code>w</code>
+     * 
+     * @throws IOException The writer's output could not be written.
+     */
+    public OutlineWriter open(final OutlineWriter w) throws IOException {
+        return w.wrap(openFolded,openExpanded,closeFolded,closeExpanded,indent,charLimit);
     }
-    
     @Override
-    protected Sequence[] secondPass() {
-        if(child == null) // null child implies empty.
-            return expand? new Sequence[] {openExpanded,closeExpanded}
-                         : new Sequence[] {Sequence.merge(openFolded,closeFolded)};
-        if(expand) {
-            final Sequence[] out;
-            {
-                // Copy second pass data from the child. 
-                final Sequence[] data = child.secondPass();
-                out = new Sequence[data.length + 2];
-                if(indent.isEmpty())
-                    System.arraycopy(data,0,out,1,data.length);
-                else for(int i = 0;i < data.length;++i)
-                    out[i + 1] = Sequence.merge(indent,data[i]);
-            }
-            // Add the wrappers.
-            out[0] = openExpanded;
-            out[out.length - 1] = closeExpanded;
-            // Condense and return.
-            return Sequence.shared(out);
-        }
-        return new Sequence[] {Sequence.merge(
-            openFolded,
-            // Since expanded children force the parent to be expanded, there must
-            // be exactly one element in the second pass array.
-            child.secondPass()[0],
-            closeFolded
-        )};
+    public void outline(final OutlineWriter w) throws IOException {
+        open(w);
+        if(child != null) child.outline(w);
+        w.end();
     }
 }
\ No newline at end of file